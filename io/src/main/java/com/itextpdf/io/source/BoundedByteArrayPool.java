@@ -0,0 +1,123 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The thread-safe {@link IByteArrayPool} which keeps a bounded number of arrays of each size.
+ * Arrays are handed out in power of two sizes, the arrays which are longer than the maximum pooled length
+ * are allocated on every request and are not kept by the pool.
+ */
+public class BoundedByteArrayPool implements IByteArrayPool {
+
+    private static final int MIN_ARRAY_LENGTH_BITS = 8;
+
+    private final int maxArrayLength;
+    private final int maxArraysPerLength;
+    private final List<ArrayDeque<byte[]>> pooledArrays;
+
+    /**
+     * Creates a pool which keeps up to 16 arrays of each length up to 1 MB.
+     */
+    public BoundedByteArrayPool() {
+        this(1 << 20, 16);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxArrayLength     the maximum length of arrays which are kept by the pool
+     * @param maxArraysPerLength the maximum number of arrays of each length which are kept by the pool
+     */
+    public BoundedByteArrayPool(int maxArrayLength, int maxArraysPerLength) {
+        this.maxArrayLength = Math.max(maxArrayLength, 1 << MIN_ARRAY_LENGTH_BITS);
+        this.maxArraysPerLength = Math.max(maxArraysPerLength, 0);
+        int lengthClassesCount = getLengthClass(this.maxArrayLength) + 1;
+        this.pooledArrays = new ArrayList<>(lengthClassesCount);
+        for (int i = 0; i < lengthClassesCount; i++) {
+            pooledArrays.add(new ArrayDeque<byte[]>());
+        }
+    }
+
+    @Override
+    public byte[] acquire(int minLength) {
+        if (minLength > maxArrayLength) {
+            return new byte[minLength];
+        }
+        int lengthClass = getLengthClass(minLength);
+        ArrayDeque<byte[]> arrays = pooledArrays.get(lengthClass);
+        byte[] array;
+        synchronized (arrays) {
+            array = arrays.pollLast();
+        }
+        return array != null ? array : new byte[1 << (lengthClass + MIN_ARRAY_LENGTH_BITS)];
+    }
+
+    @Override
+    public void release(byte[] array) {
+        int length = array.length;
+        if (length > maxArrayLength || length < 1 << MIN_ARRAY_LENGTH_BITS || (length & (length - 1)) != 0) {
+            return;
+        }
+        ArrayDeque<byte[]> arrays = pooledArrays.get(getLengthClass(length));
+        synchronized (arrays) {
+            if (arrays.size() < maxArraysPerLength) {
+                arrays.addLast(array);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the smallest power of two length, starting from 2^8, which is not less than the given one.
+     */
+    private static int getLengthClass(int length) {
+        if (length <= 1 << MIN_ARRAY_LENGTH_BITS) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_ARRAY_LENGTH_BITS;
+    }
+}
@@ -45,23 +45,93 @@ package com.itextpdf.io.source;
 
 public class ByteArrayOutputStream extends java.io.ByteArrayOutputStream{
 
+    private static final byte[] EMPTY_BUFFER = new byte[0];
+
+    private final IByteArrayPool pool;
+    /**
+     * Indicates whether the current buffer was acquired from the pool and shall be returned to it.
+     */
+    private boolean pooledBuffer;
+
     public ByteArrayOutputStream() {
         super();
+        this.pool = null;
     }
 
     public ByteArrayOutputStream(int size) {
         super(size);
+        this.pool = null;
+    }
+
+    /**
+     * Creates a stream which acquires its buffers from the given pool. The buffer shall be returned
+     * to the pool with {@link #releaseBuffer()} once the content of the stream is no longer needed.
+     *
+     * @param size the initial size of the buffer
+     * @param pool the pool of buffers, or {@code null} to allocate buffers as usual
+     */
+    public ByteArrayOutputStream(int size, IByteArrayPool pool) {
+        super(pool != null ? 0 : size);
+        this.pool = pool;
+        if (pool != null) {
+            buf = pool.acquire(size);
+            pooledBuffer = true;
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensurePooledCapacity(count + 1);
+        super.write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        ensurePooledCapacity(count + len);
+        super.write(b, off, len);
     }
 
     public ByteArrayOutputStream assignBytes(byte[] bytes, int count) {
+        releasePooledBuffer();
         buf = bytes;
         this.count = count;
         return this;
     }
 
     public ByteArrayOutputStream assignBytes(byte[] bytes) {
+        releasePooledBuffer();
         buf = bytes;
         this.count = bytes.length;
         return this;
     }
+
+    /**
+     * Returns the buffer of the stream to the pool the stream was created with and empties the stream.
+     * Does nothing if the stream doesn't use a pool. The content of the stream shall not be accessed
+     * through the previously obtained references to the buffer after this call.
+     */
+    public synchronized void releaseBuffer() {
+        if (pooledBuffer) {
+            releasePooledBuffer();
+            buf = EMPTY_BUFFER;
+            count = 0;
+        }
+    }
+
+    private void ensurePooledCapacity(int minCapacity) {
+        if (pool != null && minCapacity > buf.length && minCapacity >= 0) {
+            byte[] newBuf = pool.acquire(Math.max(minCapacity, buf.length << 1));
+            System.arraycopy(buf, 0, newBuf, 0, count);
+            releasePooledBuffer();
+            buf = newBuf;
+            pooledBuffer = true;
+        }
+    }
+
+    private void releasePooledBuffer() {
+        if (pooledBuffer) {
+            pool.release(buf);
+            pooledBuffer = false;
+        }
+    }
 }
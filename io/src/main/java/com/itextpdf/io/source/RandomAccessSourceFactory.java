@@ -78,6 +78,11 @@ public final class RandomAccessSourceFactory implements Serializable {
      */
     private boolean exclusivelyLockFile = false;
 
+    /**
+     * Whether the memory mapping of the file should be shared with other sources by means of {@link SharedFileMappingCache}
+     */
+    private boolean useSharedFileMapping = false;
+
     /**
      * Creates a factory that will give preference to accessing the underling data source using memory mapped files
      */
@@ -109,6 +114,18 @@ public final class RandomAccessSourceFactory implements Serializable {
         return this;
     }
 
+    /**
+     * Determines whether files should be mapped by means of the process-wide {@link SharedFileMappingCache},
+     * so that sources of the same file share a single mapping. This setting is not used
+     * if the content is read into memory, {@link java.io.RandomAccessFile} is used or the file is exclusively locked.
+     * @param useSharedFileMapping whether the file mapping should be shared with other sources
+     * @return this object (this allows chaining of method calls)
+     */
+    public RandomAccessSourceFactory setUseSharedFileMapping(boolean useSharedFileMapping) {
+        this.useSharedFileMapping = useSharedFileMapping;
+        return this;
+    }
+
     /**
      * Creates a {@link IRandomAccessSource} based on a byte array
      * @param data the byte array
@@ -180,6 +197,16 @@ public final class RandomAccessSourceFactory implements Serializable {
             return createByReadingToMemory(new FileInputStream(filename));
         }
 
+        if (useSharedFileMapping && !usePlainRandomAccess && !exclusivelyLockFile && file.length() > 0) {
+            try {
+                return new GetBufferedRandomAccessSource(SharedFileMappingCache.getInstance().createSource(file));
+            } catch (java.io.IOException e) {
+                if (!exceptionIsMapFailureException(e)) {
+                    throw e;
+                }
+            }
+        }
+
         String openMode = exclusivelyLockFile ? "rw" : "r";
 
         RandomAccessFile raf = new RandomAccessFile(file, openMode);
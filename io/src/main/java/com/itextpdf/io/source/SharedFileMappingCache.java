@@ -0,0 +1,256 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide cache of memory mapped files, which allows several readers of the same file to share a single
+ * mapping instead of mapping the file for each of them.
+ * <p>
+ * Every {@link IRandomAccessSource} obtained from the cache is an independent read view with its own position
+ * state, so different views may be used by different threads at the same time. The mapping is reference counted:
+ * it is kept while at least one view of it is not closed. Mappings which are not used by any view are kept in the
+ * cache for reuse and are unmapped in the least recently used order once the total size of the mapped files
+ * exceeds the memory ceiling.
+ * <p>
+ * A file is identified by its canonical path, last modification time and size, so a modified file is mapped anew.
+ */
+public final class SharedFileMappingCache {
+
+    /**
+     * Default memory ceiling, 1 GB.
+     */
+    public static final long DEFAULT_MEMORY_CEILING = 1L << 30;
+
+    /**
+     * The size of the mapped regions the file is split into, as a single mapping can't exceed 2 GB.
+     */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private static final SharedFileMappingCache instance = new SharedFileMappingCache();
+
+    private final Map<FileKey, SharedMapping> mappings = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryCeiling = DEFAULT_MEMORY_CEILING;
+    private long mappedSize;
+
+    private SharedFileMappingCache() {
+    }
+
+    /**
+     * Gets the process-wide instance of the cache.
+     *
+     * @return the cache instance
+     */
+    public static SharedFileMappingCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the total size of the mapped files, after exceeding which the mappings not used by any source
+     * are unmapped. The mappings used by not closed sources are never unmapped, so the actual size
+     * of the mapped files may exceed the ceiling.
+     *
+     * @param memoryCeiling the memory ceiling in bytes
+     * @return this object (this allows chaining of method calls)
+     */
+    public synchronized SharedFileMappingCache setMemoryCeiling(long memoryCeiling) {
+        this.memoryCeiling = Math.max(0, memoryCeiling);
+        unmapUnused();
+        return this;
+    }
+
+    /**
+     * Gets the memory ceiling of the cache.
+     *
+     * @return the memory ceiling in bytes
+     */
+    public synchronized long getMemoryCeiling() {
+        return memoryCeiling;
+    }
+
+    /**
+     * Gets the total size of the files which are currently mapped by the cache.
+     *
+     * @return the size of the mapped files in bytes
+     */
+    public synchronized long getMappedSize() {
+        return mappedSize;
+    }
+
+    /**
+     * Unmaps all the mappings which are not used by any source.
+     */
+    public synchronized void clear() {
+        long ceiling = memoryCeiling;
+        memoryCeiling = 0;
+        unmapUnused();
+        memoryCeiling = ceiling;
+    }
+
+    /**
+     * Creates a new independent read view of the file, mapping the file if it is not mapped yet.
+     * The returned source shall be closed in order to release the mapping.
+     *
+     * @param file the file to read
+     * @return the newly created {@link IRandomAccessSource}
+     * @throws java.io.IOException if the file cannot be opened or mapped
+     */
+    public IRandomAccessSource createSource(File file) throws java.io.IOException {
+        FileKey key = new FileKey(file.getCanonicalPath(), file.lastModified(), file.length());
+        SharedMapping mapping;
+        synchronized (this) {
+            mapping = mappings.get(key);
+            if (mapping == null) {
+                mapping = new SharedMapping(map(file));
+                mappings.put(key, mapping);
+                mappedSize += mapping.length;
+            }
+            mapping.references++;
+            unmapUnused();
+        }
+        return new SharedMappingRandomAccessSource(mapping);
+    }
+
+    synchronized void release(SharedMapping mapping) {
+        mapping.references--;
+        unmapUnused();
+    }
+
+    private void unmapUnused() {
+        Iterator<SharedMapping> iterator = mappings.values().iterator();
+        while (mappedSize > memoryCeiling && iterator.hasNext()) {
+            SharedMapping mapping = iterator.next();
+            if (mapping.references == 0) {
+                iterator.remove();
+                mappedSize -= mapping.length;
+                for (java.nio.ByteBuffer segment : mapping.segments) {
+                    ByteBufferRandomAccessSource.clean(segment);
+                }
+            }
+        }
+    }
+
+    private static java.nio.ByteBuffer[] map(File file) throws java.io.IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size == 0) {
+                throw new java.io.IOException("File size is 0 bytes");
+            }
+            List<java.nio.ByteBuffer> segments = new ArrayList<>();
+            try {
+                for (long offset = 0; offset < size; offset += SEGMENT_SIZE) {
+                    segments.add(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, size - offset)));
+                }
+            } catch (java.io.IOException e) {
+                for (java.nio.ByteBuffer segment : segments) {
+                    ByteBufferRandomAccessSource.clean(segment);
+                }
+                throw e;
+            }
+            return segments.toArray(new java.nio.ByteBuffer[segments.size()]);
+        } finally {
+            // the mapping stays valid after the channel is closed
+            raf.close();
+        }
+    }
+
+    /**
+     * The mapped regions of a file shared between sources.
+     */
+    static class SharedMapping {
+        final java.nio.ByteBuffer[] segments;
+        final long length;
+        int references;
+
+        SharedMapping(java.nio.ByteBuffer[] segments) {
+            this.segments = segments;
+            long length = 0;
+            for (java.nio.ByteBuffer segment : segments) {
+                length += segment.capacity();
+            }
+            this.length = length;
+        }
+    }
+
+    private static class FileKey {
+        private final String path;
+        private final long lastModified;
+        private final long length;
+
+        FileKey(String path, long lastModified, long length) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FileKey)) {
+                return false;
+            }
+            FileKey other = (FileKey) obj;
+            return path.equals(other.path) && lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+            result = 31 * result + (int) (length ^ (length >>> 32));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.nio.Buffer;
+
+/**
+ * A RandomAccessSource which reads a file mapping shared by means of {@link SharedFileMappingCache}.
+ * The source keeps its own duplicates of the shared buffers, so it doesn't interfere with other sources
+ * reading the same mapping. Closing the source releases the mapping but never unmaps it directly.
+ */
+class SharedMappingRandomAccessSource implements IRandomAccessSource {
+
+    private final SharedFileMappingCache.SharedMapping mapping;
+
+    /**
+     * Duplicates of the shared buffers which are created on demand.
+     */
+    private final java.nio.ByteBuffer[] buffers;
+
+    private boolean closed;
+
+    SharedMappingRandomAccessSource(SharedFileMappingCache.SharedMapping mapping) {
+        this.mapping = mapping;
+        this.buffers = new java.nio.ByteBuffer[mapping.segments.length];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position) throws java.io.IOException {
+        if (position < 0 || position >= mapping.length) {
+            return -1;
+        }
+        return getBuffer((int) (position / SharedFileMappingCache.SEGMENT_SIZE))
+                .get((int) (position % SharedFileMappingCache.SEGMENT_SIZE)) & 0xff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position, byte[] bytes, int off, int len) throws java.io.IOException {
+        if (position < 0 || position >= mapping.length) {
+            return -1;
+        }
+        int read = 0;
+        while (read < len && position < mapping.length) {
+            java.nio.ByteBuffer buffer = getBuffer((int) (position / SharedFileMappingCache.SEGMENT_SIZE));
+            ((Buffer) buffer).position((int) (position % SharedFileMappingCache.SEGMENT_SIZE));
+            int n = Math.min(len - read, buffer.remaining());
+            buffer.get(bytes, off + read, n);
+            read += n;
+            position += n;
+        }
+        return read;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long length() {
+        return mapping.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Releases the shared mapping. The mapping is unmapped by the cache when it is no longer used.
+     */
+    public void close() throws java.io.IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SharedFileMappingCache.getInstance().release(mapping);
+    }
+
+    private java.nio.ByteBuffer getBuffer(int segment) throws java.io.IOException {
+        if (closed) {
+            throw new java.io.IOException("RandomAccessSource is closed");
+        }
+        if (buffers[segment] == null) {
+            buffers[segment] = mapping.segments[segment].duplicate();
+        }
+        return buffers[segment];
+    }
+}
@@ -0,0 +1,98 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class BoundedByteArrayPoolTest {
+
+    @Test
+    public void releasedArrayIsReusedTest() {
+        BoundedByteArrayPool pool = new BoundedByteArrayPool(4096, 2);
+        byte[] array = pool.acquire(1000);
+        Assert.assertEquals(1024, array.length);
+        pool.release(array);
+        Assert.assertSame(array, pool.acquire(600));
+        Assert.assertNotSame(array, pool.acquire(600));
+    }
+
+    @Test
+    public void poolIsBoundedTest() {
+        BoundedByteArrayPool pool = new BoundedByteArrayPool(4096, 1);
+        byte[] large = pool.acquire(5000);
+        Assert.assertEquals(5000, large.length);
+        pool.release(large);
+        Assert.assertNotSame(large, pool.acquire(5000));
+
+        byte[] first = pool.acquire(256);
+        byte[] second = pool.acquire(256);
+        pool.release(first);
+        pool.release(second);
+        Assert.assertSame(first, pool.acquire(256));
+        Assert.assertNotSame(second, pool.acquire(256));
+    }
+
+    @Test
+    public void pooledStreamTest() {
+        BoundedByteArrayPool pool = new BoundedByteArrayPool();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(32, pool);
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        stream.write(content, 0, 500);
+        stream.write(content, 500, 500);
+        Assert.assertArrayEquals(content, stream.toByteArray());
+
+        stream.releaseBuffer();
+        Assert.assertEquals(0, stream.size());
+        stream.write(7);
+        Assert.assertArrayEquals(new byte[] {7}, stream.toByteArray());
+    }
+}
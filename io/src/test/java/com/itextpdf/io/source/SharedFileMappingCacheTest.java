@@ -0,0 +1,150 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class SharedFileMappingCacheTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/io/source/SharedFileMappingCacheTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        new File(destinationFolder).mkdirs();
+    }
+
+    @After
+    public void after() {
+        SharedFileMappingCache.getInstance().setMemoryCeiling(SharedFileMappingCache.DEFAULT_MEMORY_CEILING).clear();
+    }
+
+    @Test
+    public void sourcesShareMappingTest() throws IOException {
+        byte[] content = createContent(10000);
+        File file = createFile("shared.bin", content);
+        SharedFileMappingCache cache = SharedFileMappingCache.getInstance();
+        cache.clear();
+
+        IRandomAccessSource first = cache.createSource(file);
+        IRandomAccessSource second = cache.createSource(file);
+        Assert.assertEquals(content.length, cache.getMappedSize());
+
+        byte[] bytes = new byte[content.length];
+        Assert.assertEquals(content.length, first.get(0, bytes, 0, bytes.length));
+        Assert.assertArrayEquals(content, bytes);
+        Assert.assertEquals(content[5000] & 0xff, second.get(5000));
+        Assert.assertEquals(-1, second.get(content.length));
+
+        first.close();
+        Assert.assertEquals(content[9999] & 0xff, second.get(9999));
+        second.close();
+        // not used mapping is kept until the memory ceiling is exceeded
+        Assert.assertEquals(content.length, cache.getMappedSize());
+
+        cache.setMemoryCeiling(0);
+        Assert.assertEquals(0, cache.getMappedSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedMappingIsUnmappedTest() throws IOException {
+        File first = createFile("first.bin", createContent(1000));
+        File second = createFile("second.bin", createContent(2000));
+        SharedFileMappingCache cache = SharedFileMappingCache.getInstance().setMemoryCeiling(2500);
+        cache.clear();
+
+        IRandomAccessSource firstSource = cache.createSource(first);
+        IRandomAccessSource secondSource = cache.createSource(second);
+        // mappings in use are never unmapped
+        Assert.assertEquals(3000, cache.getMappedSize());
+
+        firstSource.close();
+        Assert.assertEquals(2000, cache.getMappedSize());
+        Assert.assertEquals(1, secondSource.get(1));
+        secondSource.close();
+        Assert.assertEquals(2000, cache.getMappedSize());
+    }
+
+    @Test
+    public void modifiedFileIsMappedAnewTest() throws IOException {
+        File file = createFile("modified.bin", createContent(1000));
+        SharedFileMappingCache cache = SharedFileMappingCache.getInstance();
+        cache.clear();
+
+        IRandomAccessSource source = cache.createSource(file);
+        source.close();
+        createFile("modified.bin", createContent(1500));
+        source = cache.createSource(file);
+        Assert.assertEquals(1500, source.length());
+        source.close();
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static File createFile(String name, byte[] content) throws IOException {
+        File file = new File(destinationFolder + name);
+        FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content);
+        } finally {
+            fos.close();
+        }
+        return file;
+    }
+}
@@ -129,6 +129,7 @@ public class PdfException extends RuntimeException {
     public static final String CodabarMustHaveAtLeastStartAndStopCharacter = "Codabar must have at least start and stop character.";
     public static final String CodabarMustHaveOneAbcdAsStartStopCharacter = "Codabar must have one of 'ABCD' as start/stop character.";
     public static final String ColorSpaceNotFound = "ColorSpace not found.";
+    public static final String ConcurrentAccessIsSupportedInReadingModeOnly = "Concurrent access is supported for documents opened in reading mode only.";
     public static final String ContentStreamMustNotInvokeOperatorsThatSpecifyColorsOrOtherColorRelatedParameters = "Content stream must not invoke operators that specify colors or other color related parameters in the graphics state.";
     public static final String DecodeParameterType1IsNotSupported = "Decode parameter type {0} is not supported.";
     public static final String DefaultAppearanceNotFound = "DefaultAppearance is required but not found";
@@ -0,0 +1,188 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The cache of fonts created from the font dictionaries of a document in order to process the content of its pages.
+ * Fonts are kept by the indirect references of their dictionaries, so the font program and the ToUnicode CMap
+ * of a font used by many pages are parsed only once. If the cache is full, the least recently used font is evicted.
+ * <br>
+ * The cache is thread-safe, so it can be shared by all processors working on the same document.
+ */
+public class DocumentFontCache {
+
+    /**
+     * The default maximum number of fonts kept by the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private final LinkedHashMap<PdfIndirectReference, PdfFont> fonts = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxSize;
+
+    private long hitCount;
+
+    private long missCount;
+
+    /**
+     * Creates a cache which keeps up to {@link #DEFAULT_MAX_SIZE} fonts.
+     */
+    public DocumentFontCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of fonts kept by the cache
+     */
+    public DocumentFontCache(int maxSize) {
+        this.maxSize = Math.max(maxSize, 0);
+    }
+
+    /**
+     * Gets the font for the font dictionary. The font is created with {@link PdfFontFactory#createFont(PdfDictionary)}
+     * if it isn't cached yet. Fonts of direct dictionaries are created anew each time and aren't cached.
+     *
+     * @param fontDictionary the font dictionary
+     * @return the {@link PdfFont} instance
+     */
+    public PdfFont getFont(PdfDictionary fontDictionary) {
+        PdfIndirectReference reference = fontDictionary.getIndirectReference();
+        if (reference == null) {
+            return PdfFontFactory.createFont(fontDictionary);
+        }
+        synchronized (this) {
+            PdfFont font = fonts.get(reference);
+            if (font != null) {
+                ++hitCount;
+                return font;
+            }
+            ++missCount;
+        }
+        // the font is created outside of the lock, so that different fonts can be parsed concurrently
+        PdfFont font = PdfFontFactory.createFont(fontDictionary);
+        synchronized (this) {
+            PdfFont cachedFont = fonts.get(reference);
+            if (cachedFont != null) {
+                return cachedFont;
+            }
+            if (maxSize > 0) {
+                fonts.put(reference, font);
+                evictFonts();
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Gets the maximum number of fonts kept by the cache.
+     *
+     * @return the maximum number of fonts
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of fonts kept by the cache. The least recently used fonts are evicted
+     * if the cache holds more fonts.
+     *
+     * @param maxSize the maximum number of fonts, 0 to disable caching
+     * @return this {@link DocumentFontCache} instance
+     */
+    public synchronized DocumentFontCache setMaxSize(int maxSize) {
+        this.maxSize = Math.max(maxSize, 0);
+        evictFonts();
+        return this;
+    }
+
+    /**
+     * Gets the number of fonts in the cache.
+     *
+     * @return the number of cached fonts
+     */
+    public synchronized int size() {
+        return fonts.size();
+    }
+
+    /**
+     * Gets the number of requests for the fonts of indirect dictionaries, which were found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of requests for the fonts of indirect dictionaries, which required the font to be created.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Removes all fonts from the cache. The hit and miss counts are preserved.
+     */
+    public synchronized void clear() {
+        fonts.clear();
+    }
+
+    private void evictFonts() {
+        Iterator<PdfIndirectReference> iterator = fonts.keySet().iterator();
+        while (fonts.size() > maxSize) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -77,10 +77,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PdfType0Font extends PdfFont {
 
@@ -206,7 +208,8 @@ public class PdfType0Font extends PdfFont {
         } else {
             LoggerFactory.getLogger(getClass()).error(LogMessageConstant.FAILED_TO_DETERMINE_CID_FONT_SUBTYPE);
         }
-        longTag = new HashSet<>();
+        // fonts of a document may be shared by concurrent content processors
+        longTag = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
         subset = false;
     }
 
@@ -46,6 +46,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.IByteArrayPool;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.PdfException;
@@ -59,6 +60,7 @@ import com.itextpdf.kernel.events.EventDispatcher;
 import com.itextpdf.kernel.events.IEventDispatcher;
 import com.itextpdf.kernel.events.IEventHandler;
 import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.DocumentFontCache;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
@@ -193,6 +195,11 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     private Map<PdfIndirectReference, PdfFont> documentFonts = new HashMap<>();
     private PdfFont defaultFont = null;
 
+    /**
+     * The cache of fonts used to process the content of the pages.
+     */
+    private transient volatile DocumentFontCache documentFontCache;
+
     protected transient TagStructureContext tagStructureContext;
 
     private static final AtomicLong lastDocumentId = new AtomicLong();
@@ -208,7 +215,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     private LinkedHashMap<PdfPage, List<PdfLinkAnnotation>> linkAnnotations = new LinkedHashMap<>();
 
     /**
-     * Cache of already serialized objects from this document for smart mode.
+     * Cache of the structural hashes of already serialized objects from this document for smart mode.
      */
     Map<PdfIndirectReference, byte[]> serializedObjectsCache = new HashMap<>();
 
@@ -365,7 +372,14 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfObject getPdfObject(int objNum) {
         checkClosingStatus();
-        PdfIndirectReference reference = xref.get(objNum);
+        PdfIndirectReference reference;
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                reference = xref.get(objNum);
+            }
+        } else {
+            reference = xref.get(objNum);
+        }
         if (reference == null) {
             return null;
         } else {
@@ -390,6 +404,11 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfPage getPage(int pageNum) {
         checkClosingStatus();
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return catalog.getPageTree().getPage(pageNum);
+            }
+        }
         return catalog.getPageTree().getPage(pageNum);
     }
 
@@ -401,6 +420,11 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfPage getPage(PdfDictionary pageDictionary) {
         checkClosingStatus();
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return catalog.getPageTree().getPage(pageDictionary);
+            }
+        }
         return catalog.getPageTree().getPage(pageDictionary);
     }
 
@@ -524,6 +548,11 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public int getPageNumber(PdfPage page) {
         checkClosingStatus();
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return catalog.getPageTree().getPageNumber(page);
+            }
+        }
         return catalog.getPageTree().getPageNumber(page);
     }
 
@@ -534,9 +563,30 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      * @return page number by {@link PdfDictionary}.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return catalog.getPageTree().getPageNumber(pageDictionary);
+            }
+        }
         return catalog.getPageTree().getPageNumber(pageDictionary);
     }
 
+    /**
+     * Finds the {@link PdfPages} node the page belongs to. In concurrent access mode the page tree is read
+     * under the lock of the reader, as the other threads may load pages and split the page tree nodes meanwhile.
+     *
+     * @param page the page of this document
+     * @return the parent {@link PdfPages} of the page
+     */
+    PdfPages findPageParent(PdfPage page) {
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return catalog.getPageTree().findPageParent(page);
+            }
+        }
+        return catalog.getPageTree().findPageParent(page);
+    }
+
     /**
      * Moves page to new place in same document with all it tag structure
      *
@@ -844,7 +894,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
 
                     writer.flushModifiedWaitingObjects(forbiddenToFlush);
-                    for (int i = 0; i < xref.size(); i++) {
+                    for (int i = xref.getNextModifiedObjNumber(0); i >= 0; i = xref.getNextModifiedObjNumber(i + 1)) {
                         PdfIndirectReference indirectReference = xref.get(i);
                         if (indirectReference != null && !indirectReference.isFree()
                                 && indirectReference.checkState(PdfObject.MODIFIED) && !indirectReference.checkState(PdfObject.FLUSHED)
@@ -1646,6 +1696,26 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         updateValueInMarkInfoDict(PdfName.UserProperties, userPropsVal);
     }
 
+    /**
+     * Gets the cache of fonts created from the font dictionaries of this document in order to process the content
+     * of its pages, e.g. by {@link com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor}. The cache is shared
+     * by all processors working on this document.
+     *
+     * @return the {@link DocumentFontCache} of this document
+     */
+    public DocumentFontCache getDocumentFontCache() {
+        DocumentFontCache cache = documentFontCache;
+        if (cache == null) {
+            synchronized (this) {
+                if (documentFontCache == null) {
+                    documentFontCache = new DocumentFontCache();
+                }
+                cache = documentFontCache;
+            }
+        }
+        return cache;
+    }
+
     /**
      * Create a new instance of {@link PdfFont} or load already created one.
      * <p>
@@ -1654,6 +1724,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfFont getFont(PdfDictionary dictionary) {
         assert dictionary.getIndirectReference() != null;
+        if (isConcurrentAccess()) {
+            synchronized (reader) {
+                return getOrAddFont(dictionary);
+            }
+        }
+        return getOrAddFont(dictionary);
+    }
+
+    private PdfFont getOrAddFont(PdfDictionary dictionary) {
         if (documentFonts.containsKey(dictionary.getIndirectReference())) {
             return documentFonts.get(dictionary.getIndirectReference());
         } else {
@@ -1729,6 +1808,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return xref;
     }
 
+    /**
+     * Gets the pool of byte arrays for stream content buffers, see {@link WriterProperties#setByteArrayPool}.
+     *
+     * @return the pool or {@code null} if buffers are not pooled.
+     */
+    IByteArrayPool getByteArrayPool() {
+        return writer != null ? writer.properties.byteArrayPool : null;
+    }
+
     /**
      * Initialize {@link TagStructureContext}.
      */
@@ -1792,6 +1880,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         try {
             EventCounterHandler.getInstance().onEvent(CoreEvent.PROCESS, properties.metaInfo, getClass());
             if (reader != null) {
+                if (writer != null && reader.isConcurrentAccess()) {
+                    throw new PdfException(PdfException.ConcurrentAccessIsSupportedInReadingModeOnly);
+                }
                 reader.pdfDocument = this;
                 reader.readPdf();
                 for (ICounter counter : getCounters()) {
@@ -2020,6 +2111,14 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         }
     }
 
+    /**
+     * Checks whether the document is opened in concurrent access mode. In this mode the lazily loaded
+     * document structures are guarded by the lock of the reader, which is also used for reading objects.
+     */
+    private boolean isConcurrentAccess() {
+        return reader != null && reader.isConcurrentAccess();
+    }
+
     /**
      * Gets all {@link ICounter} instances.
      * @return list of {@link ICounter} instances.
@@ -63,7 +63,7 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
     /**
      * PdfObject that current PdfIndirectReference instance refers to.
      */
-    protected PdfObject refersTo = null;
+    protected volatile PdfObject refersTo = null;
 
     /**
      * Indirect reference number of object stream containing refersTo object.
@@ -297,6 +297,9 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfObject setState(short state) {
+        if ((state & MODIFIED) == MODIFIED && pdfDocument != null) {
+            pdfDocument.getXref().markModified(objNr);
+        }
         return super.setState(state);
     }
 
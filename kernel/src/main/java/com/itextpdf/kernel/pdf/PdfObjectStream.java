@@ -69,8 +69,8 @@ class PdfObjectStream extends PdfStream {
     protected PdfOutputStream indexStream;
 
     public PdfObjectStream(PdfDocument doc) {
-        this(doc, new ByteArrayOutputStream());
-        indexStream = new PdfOutputStream(new ByteArrayOutputStream());
+        this(doc, new ByteArrayOutputStream(INITIAL_BUFFER_SIZE, doc.getByteArrayPool()));
+        indexStream = new PdfOutputStream(new ByteArrayOutputStream(INITIAL_BUFFER_SIZE, doc.getByteArrayPool()));
     }
 
     /**
@@ -137,7 +137,21 @@ class PdfObjectStream extends PdfStream {
         releaseContent(false);
     }
 
-    private void releaseContent(boolean close) {
+    /**
+     * Returns the buffers of the object stream content to the byte array pool of the document, if they were
+     * acquired from the one. Shall be called only after the object stream is written, if its buffers are not
+     * reused by the next object stream.
+     */
+    void releaseContentBuffers() {
+        if (outputStream != null) {
+            ((ByteArrayOutputStream) outputStream.getOutputStream()).releaseBuffer();
+        }
+        if (indexStream != null) {
+            ((ByteArrayOutputStream) indexStream.getOutputStream()).releaseBuffer();
+        }
+    }
+
+    void releaseContent(boolean close) {
         if (close) {
             outputStream = null;
             indexStream = null;
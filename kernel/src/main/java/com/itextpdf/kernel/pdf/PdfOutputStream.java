@@ -47,6 +47,7 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.source.IByteArrayPool;
 import com.itextpdf.io.source.OutputStream;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
@@ -282,6 +283,15 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
 
     private void write(PdfStream pdfStream) {
         try {
+            PdfStream rawContentSource = pdfStream.getRawContentSource();
+            if (rawContentSource != null) {
+                if (pdfStream.getCompressionLevel() == CompressionConstants.UNDEFINED_COMPRESSION
+                        && pdfStream.containsKey(PdfName.Filter) && crypto == null) {
+                    writeRawContentCopy(pdfStream, rawContentSource);
+                    return;
+                }
+                pdfStream.loadRawContent();
+            }
             boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
             if (!userDefinedCompression) {
                 int defaultCompressionLevel = document != null ?
@@ -337,25 +347,16 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                     pdfStream.getOutputStream().write(bytes);
                 }
                 assert pdfStream.getOutputStream() != null : "PdfStream lost OutputStream";
+                java.io.OutputStream contentStream = pdfStream.getOutputStream().getOutputStream();
                 ByteArrayOutputStream byteArrayStream;
                 try {
                     if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
-                        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        }
-                        zip.finish();
+                        byteArrayStream = compressStreamContent(pdfStream);
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            byteArrayStream = new ByteArrayOutputStream();
+                            byteArrayStream = new ByteArrayOutputStream(PdfStream.INITIAL_BUFFER_SIZE, getByteArrayPool());
                             ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(byteArrayStream);
                             ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(byteArrayStream);
                         } else {
@@ -364,10 +365,13 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                         }
                     }
                     if (checkEncryption(pdfStream)) {
-                        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
+                        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream(byteArrayStream.size(), getByteArrayPool());
                         OutputStreamEncryption ose = crypto.getEncryptionStream(encodedStream);
                         byteArrayStream.writeTo(ose);
                         ose.finish();
+                        if (byteArrayStream != contentStream) {
+                            byteArrayStream.releaseBuffer();
+                        }
                         byteArrayStream = encodedStream;
                     }
                 } catch (IOException ioe) {
@@ -379,6 +383,10 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 writeBytes(PdfOutputStream.stream);
                 byteArrayStream.writeTo(this);
                 byteArrayStream.close();
+                if (byteArrayStream != contentStream) {
+                    // temporary buffers are released right away, the content buffer is released with the stream content
+                    byteArrayStream.releaseBuffer();
+                }
                 writeBytes(PdfOutputStream.endstream);
             }
         } catch (IOException e) {
@@ -386,6 +394,92 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Writes the stream which content is copied from another document, transferring the raw content
+     * from the source document without reading it to memory at once.
+     *
+     * @param pdfStream the stream to write
+     * @param source    the stream of the source document
+     * @throws IOException on error
+     */
+    private void writeRawContentCopy(PdfStream pdfStream, PdfStream source) throws IOException {
+        PdfReader reader = source.getIndirectReference().getReader();
+        int length = reader.getStreamRawLength(source);
+        pdfStream.put(PdfName.Length, new PdfNumber(length));
+        pdfStream.updateLength(length);
+        this.write((PdfDictionary) pdfStream);
+        writeBytes(PdfOutputStream.stream);
+        reader.copyStreamBytesRaw(source, this);
+        writeBytes(PdfOutputStream.endstream);
+    }
+
+    /**
+     * Compresses the content of the stream which is kept in memory using the compression level of the stream.
+     *
+     * @param pdfStream the stream which content shall be compressed
+     * @return compressed content of the stream
+     * @throws IOException on error
+     */
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        return deflateStreamContent(pdfStream, pdfStream.getCompressionLevel(), getByteArrayPool());
+    }
+
+    /**
+     * Gets the pool of byte arrays for temporary buffers, see {@link WriterProperties#setByteArrayPool}.
+     *
+     * @return the pool or {@code null} if buffers are not pooled.
+     */
+    IByteArrayPool getByteArrayPool() {
+        return document != null ? document.getByteArrayPool() : null;
+    }
+
+    /**
+     * Checks whether the in-memory content of the stream will be compressed with Flate filter when the stream
+     * is written. Unlike {@link #write(PdfObject)}, this method doesn't modify the stream.
+     *
+     * @param pdfStream the stream to check
+     * @return true if stream content will be compressed on writing, false otherwise
+     */
+    boolean isInMemoryContentToBeCompressed(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.getRawContentSource() != null
+                || pdfStream.getOutputStream() == null) {
+            return false;
+        }
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        int compressionLevel = getEffectiveCompressionLevel(pdfStream);
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return compressionLevel != CompressionConstants.NO_COMPRESSION && !containsFlateFilter(pdfStream)
+                && (allowCompression || userDefinedCompression);
+    }
+
+    /**
+     * Gets the compression level which will be applied to the stream when it is written.
+     *
+     * @param pdfStream the stream to check
+     * @return compression level, see {@link CompressionConstants}
+     */
+    int getEffectiveCompressionLevel(PdfStream pdfStream) {
+        if (pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION) {
+            return pdfStream.getCompressionLevel();
+        }
+        return document != null ? document.getWriter().getCompressionLevel() : CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
+    static ByteArrayOutputStream deflateStreamContent(PdfStream pdfStream, int compressionLevel, IByteArrayPool byteArrayPool) throws IOException {
+        ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream(PdfStream.INITIAL_BUFFER_SIZE, byteArrayPool);
+        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, compressionLevel);
+        if (pdfStream instanceof PdfObjectStream) {
+            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
+            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+        } else {
+            assert pdfStream.getOutputStream() != null : "Error in outputStream";
+            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+        }
+        zip.finish();
+        return byteArrayStream;
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
@@ -69,7 +69,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
 
@@ -102,7 +104,7 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
 
     protected PdfPage(PdfDocument pdfDocument, PageSize pageSize) {
         this((PdfDictionary) new PdfDictionary().makeIndirect(pdfDocument));
-        PdfStream contentStream = (PdfStream) new PdfStream().makeIndirect(pdfDocument);
+        PdfStream contentStream = (PdfStream) new PdfStream(pdfDocument.getByteArrayPool()).makeIndirect(pdfDocument);
         getPdfObject().put(PdfName.Contents, contentStream);
         getPdfObject().put(PdfName.Type, PdfName.Page);
         getPdfObject().put(PdfName.MediaBox, new PdfArray(pageSize));
@@ -505,6 +507,34 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         super.flush();
     }
 
+    /**
+     * Releases the content streams and the resources of the page, which were read from the document, so that
+     * they can be garbage collected once the page is processed, e.g. by
+     * {@link com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor}. The objects are released recursively
+     * with {@link PdfObject#release()}, which means that only the loaded objects, which are neither modified nor
+     * forbidden to be released, are affected. The released objects are read from the document again
+     * if they are accessed later. The resources inherited from the pages tree are kept.
+     * <br>
+     * The content is released only for the documents opened in reading mode, as the changes made to the objects
+     * of a document opened in stamping mode would be lost if the objects haven't been marked as modified.
+     * If the document is opened in concurrent access mode, only the content streams are released, as
+     * the resources, e.g. fonts, may be shared with the pages processed by other threads.
+     * <br>
+     * Note, the page shall not be processed by other threads while its content is released.
+     */
+    public void releaseContent() {
+        PdfDocument document = getDocument();
+        if (document.getWriter() != null || document.getReader() == null) {
+            return;
+        }
+        resources = null;
+        Set<PdfIndirectReference> visitedReferences = new HashSet<>();
+        releaseLoadedObjects(getPdfObject().get(PdfName.Contents, false), visitedReferences);
+        if (!document.getReader().isConcurrentAccess()) {
+            releaseLoadedObjects(getPdfObject().get(PdfName.Resources, false), visitedReferences);
+        }
+    }
+
     /**
      * Gets {@link Rectangle} object specified by page's Media Box, that defines the boundaries of the physical medium
      * on which the page shall be displayed or printed
@@ -1152,7 +1182,7 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
 
     private PdfObject getInheritedValue(PdfName pdfName, int type) {
         if (this.parentPages == null) {
-            this.parentPages = getDocument().getCatalog().getPageTree().findPageParent(this);
+            this.parentPages = getDocument().findPageParent(this);
         }
         PdfObject val = getInheritedValue(this.parentPages, pdfName);
         return val != null && val.getType() == type ? val : null;
@@ -1183,7 +1213,7 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         } else {
             array = null;
         }
-        PdfStream contentStream = (PdfStream) new PdfStream().makeIndirect(getDocument());
+        PdfStream contentStream = (PdfStream) new PdfStream(getDocument().getByteArrayPool()).makeIndirect(getDocument());
         if (array != null) {
             if (before) {
                 array.add(0, contentStream);
@@ -1201,6 +1231,33 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         return contentStream;
     }
 
+    private static void releaseLoadedObjects(PdfObject object, Set<PdfIndirectReference> visitedReferences) {
+        if (object == null) {
+            return;
+        }
+        if (object.isIndirectReference()) {
+            PdfIndirectReference reference = (PdfIndirectReference) object;
+            // the objects which haven't been read yet are skipped
+            PdfObject loadedObject = reference.refersTo;
+            if (loadedObject == null || reference.checkState(PdfObject.MODIFIED) || !visitedReferences.add(reference)) {
+                return;
+            }
+            releaseLoadedObjects(loadedObject, visitedReferences);
+            if (!loadedObject.isReleaseForbidden()) {
+                loadedObject.release();
+            }
+        } else if (object.isDictionary() || object.isStream()) {
+            for (PdfObject value : ((PdfDictionary) object).values(false)) {
+                releaseLoadedObjects(value, visitedReferences);
+            }
+        } else if (object.isArray()) {
+            PdfArray array = (PdfArray) object;
+            for (int i = 0; i < array.size(); i++) {
+                releaseLoadedObjects(array.get(i, false), visitedReferences);
+            }
+        }
+    }
+
     private void tryFlushPageTags() {
         try {
             if (!getDocument().isClosing) {
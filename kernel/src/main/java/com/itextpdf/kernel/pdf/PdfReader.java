@@ -48,6 +48,7 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.source.WindowRandomAccessSource;
@@ -56,14 +57,19 @@ import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.securityhandler.UnsupportedSecurityHandlerException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -112,6 +118,11 @@ public class PdfReader implements Closeable, Serializable {
     protected boolean fixedXref = false;
     protected boolean xrefStm = false;
 
+    /**
+     * Streams of other documents which are copied from this reader and which raw content is still to be read.
+     */
+    private transient Set<PdfStream> pendingRawContentCopies;
+
     /**
      * Constructs a new PdfReader.
      *
@@ -121,6 +132,10 @@ public class PdfReader implements Closeable, Serializable {
     public PdfReader(IRandomAccessSource byteSource, ReaderProperties properties) throws IOException {
         this.properties = properties;
         this.tokens = getOffsetTokeniser(byteSource);
+        if (properties.concurrentAccess) {
+            // make the byte source thread safe before the reader is shared, as creating a view wraps the source
+            tokens.getSafeFile();
+        }
     }
 
     /**
@@ -168,6 +183,7 @@ public class PdfReader implements Closeable, Serializable {
         this(
                 new RandomAccessSourceFactory()
                         .setForceRead(false)
+                        .setUseSharedFileMapping(properties.sharedFileMapping)
                         .createBestSource(filename),
                 properties
         );
@@ -191,6 +207,11 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public void close() throws IOException {
+        if (pendingRawContentCopies != null) {
+            for (PdfStream copy : new ArrayList<>(pendingRawContentCopies)) {
+                copy.loadRawContent();
+            }
+        }
         tokens.close();
     }
 
@@ -295,8 +316,12 @@ public class PdfReader implements Closeable, Serializable {
      */
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
         PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
-            checkPdfStreamLength(stream);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            // the main tokenizer is used to check the length, so the check shall not interleave with reading objects
+            synchronized (this) {
+                checkPdfStreamLength(stream);
+            }
+        }
         long offset = stream.getOffset();
         if (offset <= 0)
             return null;
@@ -327,8 +352,10 @@ public class PdfReader implements Closeable, Serializable {
                     filter.release();
                 }
                 if (!skip) {
-                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
-                    bytes = decrypt.decryptByteArray(bytes);
+                    synchronized (this) {
+                        decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+                        bytes = decrypt.decryptByteArray(bytes);
+                    }
                 }
             }
         } finally {
@@ -341,7 +368,66 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     /**
-     * Reads, decrypt and optionally decode stream bytes into {@link ByteArrayInputStream}.
+     * Gets the length of the raw stream bytes, correcting the /Length entry of the stream if necessary.
+     *
+     * @param stream a {@code PdfStream} read by this reader
+     * @return the length of the raw stream bytes
+     * @throws IOException on error
+     */
+    int getStreamRawLength(PdfStream stream) throws IOException {
+        checkPdfStreamLength(stream);
+        return Math.max(stream.getLength(), 0);
+    }
+
+    /**
+     * Copies the raw stream bytes to the passed output stream in chunks, without reading the whole stream to memory.
+     * The stream bytes are not decrypted, so this method shall be used with not encrypted documents only.
+     *
+     * @param stream a {@code PdfStream} read by this reader which length is already checked
+     *               with {@link #getStreamRawLength(PdfStream)}
+     * @param os     the output stream to copy raw bytes to
+     * @throws IOException on error
+     */
+    void copyStreamBytesRaw(PdfStream stream, java.io.OutputStream os) throws IOException {
+        int remaining = stream.getLength();
+        if (stream.getOffset() <= 0 || remaining <= 0) {
+            return;
+        }
+        RandomAccessFileOrArray file = tokens.getSafeFile();
+        try {
+            file.seek(stream.getOffset());
+            byte[] buf = new byte[Math.min(remaining, 8192)];
+            while (remaining > 0) {
+                int n = Math.min(remaining, buf.length);
+                file.readFully(buf, 0, n);
+                os.write(buf, 0, n);
+                remaining -= n;
+            }
+        } finally {
+            try {
+                file.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    void addPendingRawContentCopy(PdfStream copy) {
+        if (pendingRawContentCopies == null) {
+            pendingRawContentCopies = new LinkedHashSet<>();
+        }
+        pendingRawContentCopies.add(copy);
+    }
+
+    void removePendingRawContentCopy(PdfStream copy) {
+        if (pendingRawContentCopies != null) {
+            pendingRawContentCopies.remove(copy);
+        }
+    }
+
+    /**
+     * Reads, decrypt and optionally decode stream bytes into {@link InputStream}.
+     * If the document is not encrypted and all filters of the stream are handled by {@link IStreamingFilterHandler}s,
+     * the stream is decoded incrementally as it is read, otherwise the bytes are read into {@link ByteArrayInputStream}.
      * User is responsible for closing returned stream.
      *
      * @param decode true if to get decoded stream, false if to leave it originally encoded.
@@ -349,6 +435,12 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
+        if (decode && (decrypt == null || decrypt.isEmbeddedFilesOnly())) {
+            Map<PdfName, IFilterHandler> filterHandlers = FilterHandlers.getDefaultFilterHandlers();
+            if (isStreamingDecodeSupported(stream, filterHandlers)) {
+                return readStreamDecoded(stream, filterHandlers);
+            }
+        }
         byte[] bytes = readStreamBytes(stream, decode);
         return bytes != null ? new ByteArrayInputStream(bytes) : null;
     }
@@ -378,6 +470,43 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParamsArray(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null)
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+            b = filterHandler.decode(b, filterName, getDecodeParams(dp, j), streamDictionary);
+        }
+        return b;
+    }
+
+    /**
+     * Decode an input stream applying the filters specified in the provided dictionary using the provided filter handlers.
+     * The data is decoded incrementally as the returned stream is read, so neither encoded nor decoded data
+     * is held in memory as a whole. All the filters of the stream shall be handled by {@link IStreamingFilterHandler}s.
+     *
+     * @param in               the stream of the data to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of the decoded data
+     * @throws PdfException if there are any problems decoding the data or if a filter doesn't support streaming decoding
+     */
+    public static InputStream decodeStream(InputStream in, PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers) {
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParamsArray(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (!(filterHandler instanceof IStreamingFilterHandler))
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+            in = ((IStreamingFilterHandler) filterHandler).decode(in, filterName, getDecodeParams(dp, j), streamDictionary);
+        }
+        return in;
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
         PdfObject filter = streamDictionary.get(PdfName.Filter);
         PdfArray filters = new PdfArray();
         if (filter != null) {
@@ -387,6 +516,10 @@ public class PdfReader implements Closeable, Serializable {
                 filters = ((PdfArray) filter);
             }
         }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParamsArray(PdfDictionary streamDictionary) {
         PdfArray dp = new PdfArray();
         PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
         if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
@@ -401,28 +534,58 @@ public class PdfReader implements Closeable, Serializable {
             }
             dpo.release();
         }
+        return dp;
+    }
+
+    private static PdfDictionary getDecodeParams(PdfArray dp, int index) {
+        if (index >= dp.size()) {
+            return null;
+        }
+        PdfObject dpEntry = dp.get(index, true);
+        if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+            return null;
+        } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+            return (PdfDictionary) dpEntry;
+        } else {
+            throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
+        }
+    }
+
+    private static boolean isStreamingDecodeSupported(PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers) {
+        PdfArray filters = getFilters(streamDictionary);
         for (int j = 0; j < filters.size(); ++j) {
-            PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+            if (!(filterHandlers.get(filters.get(j)) instanceof IStreamingFilterHandler)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
-            } else {
-                decodeParams = null;
+    /**
+     * Opens the raw bytes of a not encrypted stream as an input stream, which decodes the data as it is read.
+     *
+     * @return InputStream or {@code null} if the stream has no data in the document.
+     */
+    private InputStream readStreamDecoded(PdfStream stream, Map<PdfName, IFilterHandler> filterHandlers) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            // the main tokenizer is used to check the length, so the check shall not interleave with reading objects
+            synchronized (this) {
+                checkPdfStreamLength(stream);
             }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
         }
-        return b;
+        long offset = stream.getOffset();
+        if (offset <= 0)
+            return null;
+        int length = stream.getLength();
+        InputStream raw;
+        if (length <= 0) {
+            raw = new ByteArrayInputStream(new byte[0]);
+        } else {
+            IRandomAccessSource source = new WindowRandomAccessSource(tokens.getSafeFile().createSourceView(), offset, length);
+            raw = new BufferedInputStream(new RASInputStream(source));
+        }
+        return decodeStream(raw, stream, filterHandlers);
     }
 
     /**
@@ -520,6 +683,15 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    /**
+     * Checks if the reader is in concurrent access mode, see {@link ReaderProperties#setConcurrentAccess(boolean)}.
+     *
+     * @return true if the document read by this reader can be accessed from several threads at the same time
+     */
+    public boolean isConcurrentAccess() {
+        return properties.concurrentAccess;
+    }
+
     public boolean isEncrypted() {
         return encrypted;
     }
@@ -600,7 +772,17 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfObject readObject(PdfIndirectReference reference) {
-        return readObject(reference, true);
+        if (!properties.concurrentAccess) {
+            return readObject(reference, true);
+        }
+        synchronized (this) {
+            // the object is assigned to the reference under the lock, so that it is read only once
+            // even if the reference is resolved by several threads at the same time
+            if (reference.refersTo == null) {
+                reference.refersTo = readObject(reference, true);
+            }
+            return reference.refersTo;
+        }
     }
 
     protected PdfObject readObject(boolean readAsDirect) throws IOException {
@@ -833,11 +1015,23 @@ public class PdfReader implements Closeable, Serializable {
                     end--;
                     continue;
                 }
+                if (xref.isLazyEntry(num)) {
+                    // entry has been already read from the more recent cross-reference section
+                    continue;
+                }
                 PdfIndirectReference reference = xref.get(num);
                 boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen;
                 boolean refFirstEncountered = reference == null
                         || !refReadingState && reference.getDocument() == null; // for references that are added by xref table itself (like 0 entry)
 
+                if (reference == null && properties.lazyXrefLoading && tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
+                    if (pos == 0) {
+                        tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
+                    }
+                    xref.addLazyEntry(pdfDocument, num, gen, pos, 0);
+                    continue;
+                }
+
                 if (refFirstEncountered) {
                     reference = new PdfIndirectReference(pdfDocument, num, gen, pos);
                 } else if (reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen) {
@@ -957,6 +1151,20 @@ public class PdfReader implements Closeable, Serializable {
                     field3 = (field3 << 8) + (b[bptr++] & 0xff);
                 }
                 int base = start;
+                if (xref.isLazyEntry(base)) {
+                    // entry has been already read from the more recent cross-reference stream
+                    ++start;
+                    continue;
+                }
+                if ((type == 1 || type == 2) && properties.lazyXrefLoading && xref.get(base) == null) {
+                    if (type == 1) {
+                        xref.addLazyEntry(pdfDocument, base, field3, field2, 0);
+                    } else {
+                        xref.addLazyEntry(pdfDocument, base, 0, field3, (int) field2);
+                    }
+                    ++start;
+                    continue;
+                }
                 PdfIndirectReference newReference;
                 switch (type) {
                     case 0:
@@ -1052,8 +1260,12 @@ public class PdfReader implements Closeable, Serializable {
                     continue;
                 int num = obj[0];
                 int gen = obj[1];
-                if (xref.get(num) == null || xref.get(num).getGenNumber() <= gen) {
-                    xref.add(new PdfIndirectReference(pdfDocument, num, gen, pos));
+                if (!xref.contains(num) || xref.getGenNumber(num) <= gen) {
+                    if (properties.lazyXrefLoading && xref.getIfLoaded(num) == null) {
+                        xref.addLazyEntry(pdfDocument, num, gen, pos, 0);
+                    } else {
+                        xref.add(new PdfIndirectReference(pdfDocument, num, gen, pos));
+                    }
                 }
             }
         }
@@ -1215,7 +1427,8 @@ public class PdfReader implements Closeable, Serializable {
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
         if (sourcePath != null && tokens == null) {
-            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath));
+            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false)
+                    .setUseSharedFileMapping(properties != null && properties.sharedFileMapping).createBestSource(sourcePath));
         }
     }
 
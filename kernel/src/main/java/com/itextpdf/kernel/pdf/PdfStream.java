@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.IByteArrayPool;
 import com.itextpdf.kernel.PdfException;
 import org.slf4j.LoggerFactory;
 
@@ -60,12 +61,22 @@ public class PdfStream extends PdfDictionary {
 
     private static final long serialVersionUID = -8259929152054328141L;
 
+    /**
+     * The initial size of the content buffer of a stream created with a byte array pool.
+     */
+    static final int INITIAL_BUFFER_SIZE = 32;
+
     protected int compressionLevel;
     // Output stream associated with PDF stream.
     protected PdfOutputStream outputStream;
     private InputStream inputStream;
     private long offset;
     private int length = -1;
+    /**
+     * The not modified stream of another document which raw content is copied to the output as is,
+     * without reading it to memory, when this stream is written.
+     */
+    private transient PdfStream rawContentSource;
 
     /**
      * Constructs a {@code PdfStream}-object.
@@ -164,6 +175,16 @@ public class PdfStream extends PdfDictionary {
         setState(MUST_BE_INDIRECT);
     }
 
+    /**
+     * Creates an empty PdfStream instance which content buffer is acquired from the given pool.
+     * The buffer is returned to the pool when the content of the stream is released.
+     *
+     * @param byteArrayPool the pool of byte arrays, or {@code null} to allocate the buffer as usual
+     */
+    PdfStream(IByteArrayPool byteArrayPool) {
+        this(new ByteArrayOutputStream(INITIAL_BUFFER_SIZE, byteArrayPool));
+    }
+
     //NOTE This constructor only for PdfReader.
     PdfStream(long offset, PdfDictionary keys) {
         super();
@@ -184,6 +205,7 @@ public class PdfStream extends PdfDictionary {
      * @return output stream
      */
     public PdfOutputStream getOutputStream() {
+        loadRawContent();
         return outputStream;
     }
 
@@ -236,6 +258,7 @@ public class PdfStream extends PdfDictionary {
         if (isFlushed()) {
             throw new PdfException(PdfException.CannotOperateWithFlushedPdfStream);
         }
+        loadRawContent();
         if (inputStream != null) {
             LoggerFactory.getLogger(PdfStream.class).warn("PdfStream was created by InputStream." +
                     "getBytes() always returns null in this case");
@@ -298,6 +321,11 @@ public class PdfStream extends PdfDictionary {
         if (inputStream != null) {
             throw new PdfException(PdfException.CannotSetDataToPdfStreamWhichWasCreatedByInputStream);
         }
+        if (append) {
+            loadRawContent();
+        } else {
+            releaseRawContentSource();
+        }
 
         boolean outputStreamIsUninitialized = outputStream == null;
         if (outputStreamIsUninitialized) {
@@ -359,6 +387,13 @@ public class PdfStream extends PdfDictionary {
         super.copyContent(from, document);
         PdfStream stream = (PdfStream) from;
         assert inputStream == null : "Try to copy the PdfStream that has been just created.";
+        if (isRawContentCopyAllowed(stream, document)) {
+            // the content will be transferred from the source document directly to the output on writing
+            rawContentSource = stream;
+            outputStream = null;
+            stream.getIndirectReference().getReader().addPendingRawContentCopy(this);
+            return;
+        }
         byte[] bytes = stream.getBytes(false);
         try {
             outputStream.write(bytes);
@@ -377,9 +412,14 @@ public class PdfStream extends PdfDictionary {
      */
     protected void releaseContent() {
         super.releaseContent();
+        releaseRawContentSource();
         try {
             if (outputStream != null) {
                 outputStream.close();
+                if (outputStream.getOutputStream() instanceof ByteArrayOutputStream) {
+                    // the buffer is returned to the pool if it was acquired from the one
+                    ((ByteArrayOutputStream) outputStream.getOutputStream()).releaseBuffer();
+                }
                 outputStream = null;
             }
         } catch (IOException e) {
@@ -391,7 +431,63 @@ public class PdfStream extends PdfDictionary {
         return inputStream;
     }
 
+    /**
+     * Gets the stream of another document which raw content shall be written as the content of this stream.
+     *
+     * @return the source stream, or {@code null} if the content of this stream is kept in memory
+     */
+    PdfStream getRawContentSource() {
+        return rawContentSource;
+    }
+
+    /**
+     * Reads the content which was copied by reference to the source stream into memory.
+     * Is called when the content is accessed or changed, or when the source document is being closed.
+     */
+    void loadRawContent() {
+        if (rawContentSource == null) {
+            return;
+        }
+        PdfStream source = rawContentSource;
+        releaseRawContentSource();
+        byte[] bytes;
+        try {
+            bytes = source.getIndirectReference().getReader().readStreamBytesRaw(source);
+        } catch (IOException ioe) {
+            throw new PdfException(PdfException.CannotCopyObjectContent, ioe, source);
+        }
+        outputStream = new PdfOutputStream(new ByteArrayOutputStream(bytes.length));
+        outputStream.writeBytes(bytes);
+    }
+
+    private void releaseRawContentSource() {
+        if (rawContentSource != null) {
+            rawContentSource.getIndirectReference().getReader().removePendingRawContentCopy(this);
+            rawContentSource = null;
+        }
+    }
+
+    /**
+     * Checks if the raw content of the stream may be written to the document it is copied to as is, so that
+     * it is not needed to read the content to memory on copying. It is so if the source stream is not modified,
+     * neither of the documents is encrypted and the stream is already encoded, so that its filters won't be
+     * changed on writing.
+     */
+    private static boolean isRawContentCopyAllowed(PdfStream stream, PdfDocument document) {
+        if (document == null || document.getWriter() == null || document.getWriter().crypto != null) {
+            return false;
+        }
+        if (stream.inputStream != null || stream.outputStream != null || stream.rawContentSource != null
+                || stream.getOffset() <= 0 || !stream.containsKey(PdfName.Filter)) {
+            return false;
+        }
+        PdfIndirectReference reference = stream.getIndirectReference();
+        PdfReader reader = reference != null ? reference.getReader() : null;
+        return reader != null && !reader.isEncrypted();
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
+        loadRawContent();
         if (inputStream == null || inputStream instanceof Serializable) {
             out.defaultWriteObject();
         } else {
@@ -46,6 +46,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.kernel.PdfException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -91,7 +92,18 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     /**
      * Is used in smart mode to serialize and store serialized objects content.
      */
-    private SmartModePdfObjectsSerializer smartModeSerializer = new SmartModePdfObjectsSerializer();
+    private SmartModePdfObjectsSerializer smartModeSerializer;
+
+    /**
+     * Is used to compress streams on worker threads if {@link WriterProperties#useParallelStreamCompression(int)}
+     * is enabled.
+     */
+    private transient StreamCompressionPipeline compressionPipeline;
+
+    /**
+     * Indicates that pending objects of {@link #compressionPipeline} are being written at the moment.
+     */
+    private transient boolean writingPendingObjects = false;
 
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
@@ -117,9 +129,13 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     public PdfWriter(java.io.OutputStream os, WriterProperties properties) {
         super(FileUtil.wrapWithBufferedOutputStream(os));
         this.properties = properties;
+        this.smartModeSerializer = new SmartModePdfObjectsSerializer(properties.smartModeCacheCapacity);
         if (properties.debugMode) {
             setDebugMode();
         }
+        if (properties.streamCompressionWorkers > 0) {
+            compressionPipeline = new StreamCompressionPipeline(properties.streamCompressionWorkers, properties.byteArrayPool);
+        }
     }
 
     /**
@@ -197,6 +213,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     @Override
     public void write(int b) throws java.io.IOException {
+        if (compressionPipeline != null) {
+            writePendingObjects(true);
+        }
         super.write(b);
         if (duplicateStream != null) {
             duplicateStream.write(b);
@@ -211,6 +230,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     @Override
     public void write(byte[] b) throws java.io.IOException {
+        if (compressionPipeline != null) {
+            writePendingObjects(true);
+        }
         super.write(b);
         if (duplicateStream != null) {
             duplicateStream.write(b);
@@ -227,6 +249,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     @Override
     public void write(byte[] b, int off, int len) throws java.io.IOException {
+        if (compressionPipeline != null) {
+            writePendingObjects(true);
+        }
         super.write(b, off, len);
         if (duplicateStream != null) {
             duplicateStream.write(b, off, len);
@@ -242,8 +267,14 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     @Override
     public void close() throws IOException {
         try {
+            if (compressionPipeline != null) {
+                writePendingObjects(true);
+            }
             super.close();
         } finally {
+            if (compressionPipeline != null) {
+                compressionPipeline.shutdown();
+            }
             try {
                 if (duplicateStream != null) {
                     duplicateStream.close();
@@ -255,6 +286,20 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    /**
+     * Gets current position in the output. If streams are compressed in parallel, all objects flushed so far
+     * are written to the output first, the same is done before any bytes are written directly to the writer.
+     *
+     * @return current position in the output.
+     */
+    @Override
+    public long getCurrentPos() {
+        if (compressionPipeline != null) {
+            writeAllPendingObjects();
+        }
+        return super.getCurrentPos();
+    }
+
     /**
      * Gets the current object stream.
      *
@@ -268,7 +313,8 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream = new PdfObjectStream(document);
         } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
             objectStream.flush();
-            objectStream = new PdfObjectStream(objectStream);
+            // buffers of the flushed object stream can't be reused while its content is being compressed
+            objectStream = compressionPipeline == null ? new PdfObjectStream(objectStream) : new PdfObjectStream(document);
         }
         return objectStream;
     }
@@ -296,11 +342,103 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (isFullCompression() && canBeInObjStm) {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
+        } else if (compressionPipeline != null) {
+            Integer compressionLevel = null;
+            if (pdfObject.getType() == PdfObject.STREAM && isInMemoryContentToBeCompressed((PdfStream) pdfObject)) {
+                compressionLevel = getEffectiveCompressionLevel((PdfStream) pdfObject);
+            }
+            if (compressionLevel != null || !compressionPipeline.isEmpty()) {
+                // the object is written, and its content is released, when the preceding objects are written
+                indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+                markObjectContentToFlush(pdfObject);
+                compressionPipeline.add(pdfObject, compressionLevel);
+                writePendingObjects(false);
+                return;
+            }
+            indirectReference.setOffset(getCurrentPos());
+            writeToBody(pdfObject);
+            indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+            markObjectContentToFlush(pdfObject);
+            releaseWrittenObjectContent(pdfObject);
+            return;
         } else {
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+        markObjectContentToFlush(pdfObject);
+        releaseObjectContent(pdfObject);
+    }
+
+    @Override
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        ByteArrayOutputStream compressedContent = compressionPipeline != null ?
+                compressionPipeline.getCompressedContent(pdfStream) : null;
+        return compressedContent != null ? compressedContent : super.compressStreamContent(pdfStream);
+    }
+
+    /**
+     * Writes the objects which were flushed while streams are compressed in parallel, keeping the flushing order.
+     *
+     * @param waitForAll true to write all pending objects, false to write only those ones which don't require waiting
+     * @throws IOException on error
+     */
+    private void writePendingObjects(boolean waitForAll) throws IOException {
+        if (writingPendingObjects) {
+            return;
+        }
+        writingPendingObjects = true;
+        try {
+            while (!compressionPipeline.isEmpty() && (waitForAll || compressionPipeline.isFirstToBeWritten())) {
+                PdfObject pdfObject = compressionPipeline.getFirst();
+                pdfObject.getIndirectReference().setOffset(getCurrentPos());
+                writeToBody(pdfObject);
+                // objects which are made indirect while writing shall be flushed too
+                markObjectContentToFlush(pdfObject);
+                compressionPipeline.removeFirst();
+                releaseWrittenObjectContent(pdfObject);
+            }
+        } finally {
+            writingPendingObjects = false;
+        }
+    }
+
+    /**
+     * Releases the content of the object written while streams are compressed in parallel. The buffers of
+     * the object streams are returned to the pool, as they are not reused by the next object stream in this case.
+     */
+    private void releaseWrittenObjectContent(PdfObject pdfObject) {
+        if (pdfObject instanceof PdfObjectStream) {
+            ((PdfObjectStream) pdfObject).releaseContentBuffers();
+            ((PdfObjectStream) pdfObject).releaseContent(true);
+        } else {
+            releaseObjectContent(pdfObject);
+        }
+    }
+
+    private void writeAllPendingObjects() {
+        try {
+            writePendingObjects(true);
+        } catch (IOException e) {
+            throw new PdfException(PdfException.IoException, e);
+        }
+    }
+
+    private void markObjectContentToFlush(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.ARRAY:
+                markArrayContentToFlush((PdfArray) pdfObject);
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                markDictionaryContentToFlush((PdfDictionary) pdfObject);
+                break;
+            case PdfObject.INDIRECT_REFERENCE:
+                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        }
+    }
+
+    private void releaseObjectContent(PdfObject pdfObject) {
         switch (pdfObject.getType()) {
             case PdfObject.BOOLEAN:
             case PdfObject.NAME:
@@ -310,18 +448,12 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
                 ((PdfPrimitiveObject) pdfObject).content = null;
                 break;
             case PdfObject.ARRAY:
-                PdfArray array = ((PdfArray) pdfObject);
-                markArrayContentToFlush(array);
-                array.releaseContent();
+                ((PdfArray) pdfObject).releaseContent();
                 break;
             case PdfObject.STREAM:
             case PdfObject.DICTIONARY:
-                PdfDictionary dictionary = ((PdfDictionary) pdfObject);
-                markDictionaryContentToFlush(dictionary);
-                dictionary.releaseContent();
+                ((PdfDictionary) pdfObject).releaseContent();
                 break;
-            case PdfObject.INDIRECT_REFERENCE:
-                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
         }
     }
 
@@ -412,6 +544,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         boolean needFlush = true;
         while (needFlush) {
             needFlush = false;
+            if (compressionPipeline != null) {
+                writeAllPendingObjects();
+            }
             for (int i = 1; i < xref.size(); i++) {
                 PdfIndirectReference indirectReference = xref.get(i);
                 if (indirectReference != null && !indirectReference.isFree()
@@ -427,6 +562,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
         if (objectStream != null && objectStream.getSize() > 0) {
             objectStream.flush();
+            if (compressionPipeline == null) {
+                // otherwise the buffers are released when the object stream is written by the pipeline
+                objectStream.releaseContentBuffers();
+            }
             objectStream = null;
         }
     }
@@ -437,7 +576,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects(Set<PdfIndirectReference> forbiddenToFlush) {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
+        for (int i = xref.getNextModifiedObjNumber(1); i >= 0; i = xref.getNextModifiedObjNumber(i + 1)) {
             PdfIndirectReference indirectReference = xref.get(i);
             if (null != indirectReference && !indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
                 boolean isModified = indirectReference.checkState(PdfObject.MODIFIED);
@@ -446,6 +585,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
                     if (obj != null) {
                         if (!obj.equals(objectStream)) {
                             obj.flush();
+                            if (compressionPipeline != null) {
+                                // objects made indirect while writing are to be found by this loop
+                                writeAllPendingObjects();
+                            }
                         }
                     }
                 }
@@ -453,6 +596,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
         if (objectStream != null && objectStream.getSize() > 0) {
             objectStream.flush();
+            if (compressionPipeline == null) {
+                // otherwise the buffers are released when the object stream is written by the pipeline
+                objectStream.releaseContentBuffers();
+            }
             objectStream = null;
         }
     }
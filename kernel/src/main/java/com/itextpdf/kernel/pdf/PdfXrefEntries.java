@@ -0,0 +1,139 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Compact storage of cross-reference entries which were read from the document but
+ * for which no {@link PdfIndirectReference} instance has been created yet.
+ * Every entry costs a few primitive array slots instead of a separate object,
+ * the corresponding reference is created only when it is requested for the first time.
+ */
+class PdfXrefEntries implements Serializable {
+
+    private static final long serialVersionUID = -2539417207213627433L;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final PdfDocument document;
+
+    /**
+     * Offset of the object in a document or its index inside the object stream.
+     */
+    private long[] offsets;
+    private int[] generations;
+    private int[] objStreamNumbers;
+    private final BitSet entries;
+
+    PdfXrefEntries(PdfDocument document) {
+        this.document = document;
+        this.offsets = new long[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.objStreamNumbers = new int[INITIAL_CAPACITY];
+        this.entries = new BitSet();
+    }
+
+    void put(int objNr, int genNr, long offsetOrIndex, int objStreamNumber) {
+        ensureCapacity(objNr);
+        offsets[objNr] = offsetOrIndex;
+        generations[objNr] = genNr;
+        objStreamNumbers[objNr] = objStreamNumber;
+        entries.set(objNr);
+    }
+
+    boolean contains(int objNr) {
+        return objNr >= 0 && entries.get(objNr);
+    }
+
+    int getGenNumber(int objNr) {
+        return generations[objNr];
+    }
+
+    /**
+     * Creates indirect reference for the stored entry and removes the entry from this storage.
+     *
+     * @param objNr object number of the entry
+     * @return created {@link PdfIndirectReference} or {@code null} if there is no such entry.
+     */
+    PdfIndirectReference createReference(int objNr) {
+        if (!contains(objNr)) {
+            return null;
+        }
+        PdfIndirectReference reference;
+        if (objStreamNumbers[objNr] == 0) {
+            reference = new PdfIndirectReference(document, objNr, generations[objNr], offsets[objNr]);
+        } else {
+            reference = new PdfIndirectReference(document, objNr, 0, offsets[objNr]);
+            reference.setObjStreamNumber(objStreamNumbers[objNr]);
+        }
+        entries.clear(objNr);
+        return reference;
+    }
+
+    void remove(int objNr) {
+        if (objNr >= 0) {
+            entries.clear(objNr);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private void ensureCapacity(int objNr) {
+        if (objNr >= offsets.length) {
+            int capacity = Math.max(objNr + 1, offsets.length << 1);
+            long[] newOffsets = new long[capacity];
+            System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+            offsets = newOffsets;
+            int[] newGenerations = new int[capacity];
+            System.arraycopy(generations, 0, newGenerations, 0, generations.length);
+            generations = newGenerations;
+            int[] newObjStreamNumbers = new int[capacity];
+            System.arraycopy(objStreamNumbers, 0, newObjStreamNumbers, 0, objStreamNumbers.length);
+            objStreamNumbers = newObjStreamNumbers;
+        }
+    }
+}
@@ -53,12 +53,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.BitSet;
 
 class PdfXrefTable implements Serializable {
 
@@ -69,16 +65,30 @@ class PdfXrefTable implements Serializable {
 
     private static final byte[] freeXRefEntry = ByteUtils.getIsoBytes("f \n");
     private static final byte[] inUseXRefEntry = ByteUtils.getIsoBytes("n \n");
+    private static final int XREF_ENTRY_LENGTH = 20;
 
     private PdfIndirectReference[] xref;
     private int count = 0;
 
     /**
-     * Free references linked list is stored in a form of a map, where:
-     * key - free reference obj number;
-     * value - previous item in the linked list of free references for the object denoted by the key.
+     * Free references linked list is stored in a form of an array indexed by object numbers, where
+     * {@code freeRefPrevs[objNr]} is the obj number of the previous item in the linked list of free references
+     * for the object denoted by objNr. The array is only meaningful for the object numbers set in {@link #freeRefs}.
      */
-    private final TreeMap<Integer, PdfIndirectReference> freeReferencesLinkedList;
+    private int[] freeRefPrevs;
+    private final BitSet freeRefs;
+
+    /**
+     * Object numbers of the references which were marked as {@link PdfObject#MODIFIED}.
+     * Allows to visit only changed objects when saving incremental updates.
+     */
+    private final BitSet modifiedRefs;
+
+    /**
+     * Entries that were read in lazy mode and for which indirect references were not created yet.
+     * See {@link ReaderProperties#setLazyXrefLoading(boolean)}.
+     */
+    private PdfXrefEntries lazyEntries;
 
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
@@ -89,7 +99,9 @@ class PdfXrefTable implements Serializable {
             capacity = INITIAL_CAPACITY;
         }
         xref = new PdfIndirectReference[capacity];
-        freeReferencesLinkedList = new TreeMap<>();
+        freeRefPrevs = new int[capacity];
+        freeRefs = new BitSet();
+        modifiedRefs = new BitSet();
         add((PdfIndirectReference) new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -106,6 +118,9 @@ class PdfXrefTable implements Serializable {
         this.count = Math.max(this.count, objNr);
         ensureCount(objNr);
         xref[objNr] = reference;
+        if (lazyEntries != null) {
+            lazyEntries.remove(objNr);
+        }
         return reference;
     }
 
@@ -117,38 +132,119 @@ class PdfXrefTable implements Serializable {
         if (index > count) {
             return null;
         }
-        return xref[index];
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && lazyEntries != null && lazyEntries.contains(index)) {
+            reference = lazyEntries.createReference(index);
+            xref[index] = reference;
+        }
+        return reference;
+    }
+
+    /**
+     * Registers an in-use entry read from the document's cross-reference section without creating
+     * {@link PdfIndirectReference} for it. The reference is created on the first {@link #get(int)} call.
+     *
+     * @param document        the document the entry belongs to
+     * @param objNr           object number
+     * @param genNr           generation number
+     * @param offsetOrIndex   object offset in the document or its index in the object stream
+     * @param objStreamNumber number of the object stream containing the object or 0
+     */
+    void addLazyEntry(PdfDocument document, int objNr, int genNr, long offsetOrIndex, int objStreamNumber) {
+        if (lazyEntries == null) {
+            lazyEntries = new PdfXrefEntries(document);
+        }
+        this.count = Math.max(this.count, objNr);
+        ensureCount(objNr);
+        xref[objNr] = null;
+        lazyEntries.put(objNr, genNr, offsetOrIndex, objStreamNumber);
+    }
+
+    /**
+     * Checks whether there is an entry for the given object number, either as already created
+     * indirect reference or as a not yet loaded entry. Doesn't create lazily loaded references.
+     */
+    boolean contains(int objNr) {
+        return objNr <= count && (xref[objNr] != null || isLazyEntry(objNr));
+    }
+
+    /**
+     * Gets the generation number of the entry without creating lazily loaded reference.
+     *
+     * @return generation number or -1 if there is no such entry.
+     */
+    int getGenNumber(int objNr) {
+        if (objNr > count) {
+            return -1;
+        }
+        if (xref[objNr] != null) {
+            return xref[objNr].getGenNumber();
+        }
+        return isLazyEntry(objNr) ? lazyEntries.getGenNumber(objNr) : -1;
+    }
+
+    /**
+     * Gets already created indirect reference, without loading the lazy entry if there is one.
+     */
+    PdfIndirectReference getIfLoaded(int objNr) {
+        return objNr > count ? null : xref[objNr];
+    }
+
+    /**
+     * Remembers that the reference with the given object number was modified.
+     * Called by {@link PdfIndirectReference} whenever its {@link PdfObject#MODIFIED} state is set.
+     */
+    void markModified(int objNr) {
+        if (objNr >= 0) {
+            modifiedRefs.set(objNr);
+        }
+    }
+
+    /**
+     * Gets the least object number, which is greater than or equal to the given one,
+     * of the reference which was marked as modified. The returned reference may have been replaced
+     * in the table since then, so its state still shall be checked.
+     *
+     * @param fromObjNr the object number to start searching from
+     * @return the object number of the modified reference or -1 if there is no such reference.
+     */
+    int getNextModifiedObjNumber(int fromObjNr) {
+        int objNr = modifiedRefs.nextSetBit(fromObjNr);
+        return objNr <= count ? objNr : -1;
+    }
+
+    boolean isLazyEntry(int objNr) {
+        return lazyEntries != null && lazyEntries.contains(objNr);
     }
 
     void initFreeReferencesList(PdfDocument pdfDocument) {
-        freeReferencesLinkedList.clear();
+        freeRefs.clear();
 
         xref[0].setState(PdfObject.FREE); // ensure zero object is free
-        TreeSet<Integer> freeReferences = new TreeSet<>();
+        BitSet freeReferences = new BitSet(size());
         for (int i = 1; i < size(); ++i) {
             PdfIndirectReference ref = xref[i];
-            if (ref == null || ref.isFree()) {
-                freeReferences.add(i);
+            if (ref == null && !isLazyEntry(i) || ref != null && ref.isFree()) {
+                freeReferences.set(i);
             }
         }
 
         PdfIndirectReference prevFreeRef = xref[0];
-        while (!freeReferences.<Integer>isEmpty()) {
+        while (!freeReferences.isEmpty()) {
             int currFreeRefObjNr = -1;
             if (prevFreeRef.getOffset() <= Integer.MAX_VALUE) {
                 currFreeRefObjNr = (int) prevFreeRef.getOffset();
             }
-            if (!freeReferences.contains(currFreeRefObjNr) || xref[currFreeRefObjNr] == null) {
+            if (currFreeRefObjNr < 0 || !freeReferences.get(currFreeRefObjNr) || xref[currFreeRefObjNr] == null) {
                 break;
             }
 
-            freeReferencesLinkedList.put(currFreeRefObjNr, prevFreeRef);
+            putFreeRef(currFreeRefObjNr, prevFreeRef);
             prevFreeRef = xref[currFreeRefObjNr];
-            freeReferences.remove(currFreeRefObjNr);
+            freeReferences.clear(currFreeRefObjNr);
         }
 
-        while (!freeReferences.<Integer>isEmpty()) {
-            int next = freeReferences.pollFirst();
+        for (int next = freeReferences.nextSetBit(0); next >= 0; next = freeReferences.nextSetBit(next + 1)) {
             if (xref[next] == null) {
                 if (pdfDocument.properties.appendMode) {
                     continue;
@@ -160,14 +256,14 @@ class PdfXrefTable implements Serializable {
             if (prevFreeRef.getOffset() != (long)next) {
                 ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(next);
             }
-            freeReferencesLinkedList.put(next, prevFreeRef);
+            putFreeRef(next, prevFreeRef);
             prevFreeRef = xref[next];
         }
 
         if (prevFreeRef.getOffset() != 0) {
             ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(0);
         }
-        freeReferencesLinkedList.put(0, prevFreeRef);
+        putFreeRef(0, prevFreeRef);
     }
 
     //For Object streams
@@ -229,7 +325,7 @@ class PdfXrefTable implements Serializable {
 
         if (!document.properties.appendMode) {
             for (int i = count; i > 0; --i) {
-                PdfIndirectReference lastRef = xref[i];
+                PdfIndirectReference lastRef = get(i);
                 if (lastRef == null || lastRef.isFree()) {
                     removeFreeRefFromList(i);
                     --count;
@@ -239,8 +335,8 @@ class PdfXrefTable implements Serializable {
             }
         }
 
-        List<Integer> sections = createSections(document, false);
-        if (document.properties.appendMode && sections.size() == 0) { // no modifications.
+        int[] sections = createSections(document, false);
+        if (document.properties.appendMode && sections.length == 0) { // no modifications.
             xref = null;
             return;
         }
@@ -262,8 +358,8 @@ class PdfXrefTable implements Serializable {
             xrefStream.put(PdfName.Info, document.getDocumentInfo().getPdfObject());
             xrefStream.put(PdfName.Root, document.getCatalog().getPdfObject());
             PdfArray index = new PdfArray();
-            for (Integer section : sections) {
-                index.add(new PdfNumber((int) section));
+            for (int section : sections) {
+                index.add(new PdfNumber(section));
             }
             if (document.properties.appendMode && !document.reader.hybridXref) {
                 // "not meaningful in hybrid-reference files"
@@ -272,23 +368,24 @@ class PdfXrefTable implements Serializable {
             }
             xrefStream.put(PdfName.Index, index);
             PdfXrefTable xrefTable = document.getXref();
-            for (int k = 0; k < sections.size(); k += 2) {
-                int first = (int) sections.get(k);
-                int len = (int) sections.get(k + 1);
+            PdfOutputStream xrefStreamOutput = xrefStream.getOutputStream();
+            for (int k = 0; k < sections.length; k += 2) {
+                int first = sections[k];
+                int len = sections[k + 1];
                 for (int i = first; i < first + len; i++) {
                     PdfIndirectReference reference = xrefTable.get(i);
                     if (reference.isFree()) {
-                        xrefStream.getOutputStream().write(0);
-                        xrefStream.getOutputStream().write(reference.getOffset(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getGenNumber(), 2);
+                        xrefStreamOutput.write(0);
+                        xrefStreamOutput.write(reference.getOffset(), offsetSize);
+                        xrefStreamOutput.write(reference.getGenNumber(), 2);
                     } else if (reference.getObjStreamNumber() == 0) {
-                        xrefStream.getOutputStream().write(1);
-                        xrefStream.getOutputStream().write(reference.getOffset(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getGenNumber(), 2);
+                        xrefStreamOutput.write(1);
+                        xrefStreamOutput.write(reference.getOffset(), offsetSize);
+                        xrefStreamOutput.write(reference.getGenNumber(), 2);
                     } else {
-                        xrefStream.getOutputStream().write(2);
-                        xrefStream.getOutputStream().write(reference.getObjStreamNumber(), offsetSize);
-                        xrefStream.getOutputStream().write(reference.getIndex(), 2);
+                        xrefStreamOutput.write(2);
+                        xrefStreamOutput.write(reference.getObjStreamNumber(), offsetSize);
+                        xrefStreamOutput.write(reference.getIndex(), 2);
                     }
                 }
             }
@@ -309,22 +406,15 @@ class PdfXrefTable implements Serializable {
                 // Get rid of all objects from object stream. This is done for hybrid documents
                 sections = createSections(document, true);
             }
-            for (int k = 0; k < sections.size(); k += 2) {
-                int first = (int) sections.get(k);
-                int len = (int) sections.get(k + 1);
+            byte[] entry = new byte[XREF_ENTRY_LENGTH];
+            for (int k = 0; k < sections.length; k += 2) {
+                int first = sections[k];
+                int len = sections[k + 1];
                 writer.writeInteger(first).writeSpace().writeInteger(len).writeByte((byte) '\n');
                 for (int i = first; i < first + len; i++) {
                     PdfIndirectReference reference = xrefTable.get(i);
-
-                    StringBuilder off = new StringBuilder("0000000000").append(reference.getOffset());
-                    StringBuilder gen = new StringBuilder("00000").append(reference.getGenNumber());
-                    writer.writeString(off.substring(off.length() - 10, off.length())).writeSpace().
-                            writeString(gen.substring(gen.length() - 5, gen.length())).writeSpace();
-                    if (reference.isFree()) {
-                        writer.writeBytes(freeXRefEntry);
-                    } else {
-                        writer.writeBytes(inUseXRefEntry);
-                    }
+                    fillXrefEntry(entry, reference.getOffset(), reference.getGenNumber(), reference.isFree());
+                    writer.writeBytes(entry);
                 }
             }
             PdfDictionary trailer = document.getTrailer();
@@ -353,10 +443,14 @@ class PdfXrefTable implements Serializable {
                 writeLong(startxref).
                 writeString("\n%%EOF\n");
         xref = null;
-        freeReferencesLinkedList.clear();
+        freeRefPrevs = null;
+        freeRefs.clear();
     }
 
     void clear() {
+        if (lazyEntries != null) {
+            lazyEntries.clear();
+        }
         for (int i = 1; i <= count; i++) {
             if (xref[i] != null && xref[i].isFree()) {
                 continue;
@@ -366,40 +460,76 @@ class PdfXrefTable implements Serializable {
         count = 1;
     }
 
-    private List<Integer> createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
-        List<Integer> sections = new ArrayList<>();
+    /**
+     * Creates the subsections of the cross-reference section.
+     *
+     * @return the array of pairs: the first object number and the number of entries of the subsection.
+     */
+    private int[] createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
+        int[] sections = new int[INITIAL_CAPACITY];
+        int sectionsSize = 0;
         int first = 0;
         int len = 0;
-        for (int i = 0; i < size(); i++) {
-            PdfIndirectReference reference = xref[i];
-            if (document.properties.appendMode && reference != null &&
+        boolean appendMode = document.properties.appendMode;
+        // only modified references are written in append mode, so only they are visited
+        for (int i = appendMode ? getNextModifiedObjNumber(0) : 0; i >= 0 && i < size();
+                i = appendMode ? getNextModifiedObjNumber(i + 1) : i + 1) {
+            // not loaded entries are never modified, so there is no need to load them in append mode
+            PdfIndirectReference reference = appendMode ? xref[i] : get(i);
+            if (appendMode && reference != null &&
                     (!reference.checkState(PdfObject.MODIFIED) || dropObjectsFromObjectStream && reference.getObjStreamNumber() != 0)) {
                 reference = null;
             }
-
             if (reference == null) {
-                if (len > 0) {
-                    sections.add(first);
-                    sections.add(len);
-                }
-                len = 0;
+                continue;
+            }
+
+            if (len > 0 && first + len == i) {
+                len++;
             } else {
                 if (len > 0) {
-                    len++;
-                } else {
-                    first = i;
-                    len = 1;
+                    sections = addSection(sections, sectionsSize, first, len);
+                    sectionsSize += 2;
                 }
+                first = i;
+                len = 1;
             }
         }
         if (len > 0) {
-            sections.add(first);
-            sections.add(len);
+            sections = addSection(sections, sectionsSize, first, len);
+            sectionsSize += 2;
         }
 
+        return Arrays.copyOf(sections, sectionsSize);
+    }
+
+    private static int[] addSection(int[] sections, int sectionsSize, int first, int len) {
+        if (sectionsSize + 2 > sections.length) {
+            sections = Arrays.copyOf(sections, sections.length << 1);
+        }
+        sections[sectionsSize] = first;
+        sections[sectionsSize + 1] = len;
         return sections;
     }
 
+    /**
+     * Fills 20 bytes long entry of the cross-reference table: 10 digits of the offset,
+     * 5 digits of the generation number and the entry type. Only the last digits are taken if the numbers are longer.
+     */
+    private static void fillXrefEntry(byte[] entry, long offset, int genNr, boolean free) {
+        for (int i = 9; i >= 0; i--) {
+            entry[i] = (byte) ('0' + offset % 10);
+            offset /= 10;
+        }
+        entry[10] = ' ';
+        for (int i = 15; i >= 11; i--) {
+            entry[i] = (byte) ('0' + genNr % 10);
+            genNr /= 10;
+        }
+        entry[16] = ' ';
+        System.arraycopy(free ? freeXRefEntry : inUseXRefEntry, 0, entry, 17, 3);
+    }
+
     /**
      * Gets size of the offset. Max size is 2^40, i.e. 1 Tb.
      */
@@ -443,15 +573,15 @@ class PdfXrefTable implements Serializable {
 
     private void appendNewRefToFreeList(PdfIndirectReference reference) {
         reference.setOffset(0);
-        if (freeReferencesLinkedList.<Integer, PdfIndirectReference>isEmpty()) {
+        if (freeRefs.isEmpty()) {
             assert false;
             // free references list is not initialized yet
             return;
         }
-        PdfIndirectReference lastFreeRef = freeReferencesLinkedList.get(0);
+        PdfIndirectReference lastFreeRef = getPrevFreeRef(0);
         ((PdfIndirectReference) lastFreeRef.setState(PdfObject.MODIFIED)).setOffset(reference.getObjNumber());
-        freeReferencesLinkedList.put(reference.getObjNumber(), lastFreeRef);
-        freeReferencesLinkedList.put(0, reference);
+        putFreeRef(reference.getObjNumber(), lastFreeRef);
+        putFreeRef(0, reference);
     }
 
     /**
@@ -464,7 +594,7 @@ class PdfXrefTable implements Serializable {
      * passed as parameter. {@code null} - if given object number doesn't correspond to free reference or equals to zero.
      */
     private PdfIndirectReference removeFreeRefFromList(int freeRefObjNr) {
-        if (freeReferencesLinkedList.<Integer, PdfIndirectReference>isEmpty()) {
+        if (freeRefs.isEmpty()) {
             assert false;
             // free references list is not initialized yet
             return null;
@@ -473,34 +603,40 @@ class PdfXrefTable implements Serializable {
             return null;
         }
         if (freeRefObjNr < 0) {
-            Integer leastFreeRefObjNum = null;
-            for (Map.Entry<Integer, PdfIndirectReference> entry : freeReferencesLinkedList.entrySet()) {
-                if (entry.getKey() <= 0 || xref[entry.getKey()].getGenNumber() >= MAX_GENERATION) {
-                    continue;
-                }
-                leastFreeRefObjNum = entry.getKey();
-                break;
+            int leastFreeRefObjNum = freeRefs.nextSetBit(1);
+            while (leastFreeRefObjNum >= 0 && xref[leastFreeRefObjNum].getGenNumber() >= MAX_GENERATION) {
+                leastFreeRefObjNum = freeRefs.nextSetBit(leastFreeRefObjNum + 1);
             }
-            if (leastFreeRefObjNum == null) {
+            if (leastFreeRefObjNum < 0) {
                 return null;
             }
-            freeRefObjNr = (int)leastFreeRefObjNum;
+            freeRefObjNr = leastFreeRefObjNum;
         }
 
         PdfIndirectReference freeRef = xref[freeRefObjNr];
-        if (!freeRef.isFree()) {
+        if (freeRef == null || !freeRef.isFree()) {
             return null;
         }
 
-        PdfIndirectReference prevFreeRef = freeReferencesLinkedList.remove(freeRef.getObjNumber());
+        PdfIndirectReference prevFreeRef = getPrevFreeRef(freeRefObjNr);
         if (prevFreeRef != null) {
-            freeReferencesLinkedList.put((int) freeRef.getOffset(), prevFreeRef);
+            freeRefs.clear(freeRefObjNr);
+            putFreeRef((int) freeRef.getOffset(), prevFreeRef);
             ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(freeRef.getOffset());
         }
 
         return freeRef;
     }
 
+    private void putFreeRef(int objNr, PdfIndirectReference prevFreeRef) {
+        freeRefPrevs[objNr] = prevFreeRef.getObjNumber();
+        freeRefs.set(objNr);
+    }
+
+    private PdfIndirectReference getPrevFreeRef(int objNr) {
+        return freeRefs.get(objNr) ? xref[freeRefPrevs[objNr]] : null;
+    }
+
     private void ensureCount(int count) {
         if (count >= xref.length) {
             extendXref(count << 1);
@@ -511,5 +647,8 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(xref, 0, newXref, 0, xref.length);
         xref = newXref;
+        int[] newFreeRefPrevs = new int[capacity];
+        System.arraycopy(freeRefPrevs, 0, newFreeRefPrevs, 0, freeRefPrevs.length);
+        freeRefPrevs = newFreeRefPrevs;
     }
 }
@@ -59,6 +59,12 @@ public class ReaderProperties implements Serializable {
     protected String certificateKeyProvider; //added by Aiken Sam for certificate decryption
     protected IExternalDecryptionProcess externalDecryptionProcess;
 
+    protected boolean lazyXrefLoading = false;
+
+    protected boolean sharedFileMapping = false;
+
+    protected boolean concurrentAccess = false;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -94,6 +100,54 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines whether cross-reference entries shall be loaded lazily.
+     * In this mode, cross-reference offsets are kept in a compact primitive form and {@link PdfIndirectReference}
+     * instances are created only when corresponding objects are requested. This considerably reduces
+     * the time and memory needed to open documents with large number of objects when only a few of them are accessed.
+     * Default value is {@code false}.
+     *
+     * @param lazyXrefLoading true to load cross-reference entries lazily, false otherwise.
+     * @return this {@link ReaderProperties} instance.
+     */
+    public ReaderProperties setLazyXrefLoading(boolean lazyXrefLoading) {
+        this.lazyXrefLoading = lazyXrefLoading;
+        return this;
+    }
+
+    /**
+     * Defines whether the memory mapping of the document file shall be shared with other readers of the same file.
+     * In this mode the file is mapped by means of the process-wide {@link com.itextpdf.io.source.SharedFileMappingCache},
+     * which keeps a single reference-counted mapping per file and hands out independent read views of it.
+     * This is useful when the same file is opened by many readers, possibly in different threads.
+     * The setting only applies to the readers created with a file name.
+     * Default value is {@code false}.
+     *
+     * @param sharedFileMapping true to share the file mapping with other readers, false otherwise.
+     * @return this {@link ReaderProperties} instance.
+     */
+    public ReaderProperties setSharedFileMapping(boolean sharedFileMapping) {
+        this.sharedFileMapping = sharedFileMapping;
+        return this;
+    }
+
+    /**
+     * Defines whether the document opened in reading mode shall support access from several threads at the same time.
+     * In this mode different threads may get pages of the document and process their content concurrently,
+     * e.g. with {@link com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor}, so that the same file doesn't need
+     * to be opened once per thread. Objects are parsed one at a time, while reading and decoding of streams
+     * is performed concurrently. Already read objects are accessed without locking.
+     * The mode is not supported for documents opened in stamping mode.
+     * Default value is {@code false}.
+     *
+     * @param concurrentAccess true to allow concurrent access to the document, false otherwise.
+     * @return this {@link ReaderProperties} instance.
+     */
+    public ReaderProperties setConcurrentAccess(boolean concurrentAccess) {
+        this.concurrentAccess = concurrentAccess;
+        return this;
+    }
+
     private void clearEncryptionParams() {
         this.password = null;
         this.certificate = null;
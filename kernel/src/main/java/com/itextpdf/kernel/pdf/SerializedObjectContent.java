@@ -44,20 +44,51 @@ package com.itextpdf.kernel.pdf;
 
 import java.util.Arrays;
 
+/**
+ * The digest of a copied object, used as a key of the smart mode index of written objects. The objects with
+ * the same digest are compared by their own serialized content, in which the referred objects are represented
+ * by their digests, so that a digest collision of the object never leads to reusing an object with different content.
+ */
 class SerializedObjectContent {
-    private final byte[] serializedContent;
+    private final byte[] digest;
     private final int hash;
+    private PdfObject object;
+    private byte[] streamDataDigest;
+    private SmartModePdfObjectsSerializer serializer;
+    private byte[] serializedContent;
+
+    SerializedObjectContent(byte[] digest, PdfObject object, SmartModePdfObjectsSerializer serializer) {
+        this(digest, object, null, serializer);
+    }
+
+    SerializedObjectContent(byte[] digest, PdfObject object, byte[] streamDataDigest,
+                            SmartModePdfObjectsSerializer serializer) {
+        this.digest = digest;
+        this.hash = calculateHash(digest);
+        this.object = object;
+        this.streamDataDigest = streamDataDigest;
+        this.serializer = serializer;
+    }
 
-    SerializedObjectContent(byte[] serializedContent) {
-        this.serializedContent = serializedContent;
-        this.hash = calculateHash(serializedContent);
+    /**
+     * Serializes the content of the object, so that it can be compared after the object is not available anymore,
+     * e.g. when its document is closed.
+     */
+    void retainSerializedContent() {
+        getSerializedContent();
+        object = null;
+        streamDataDigest = null;
+        serializer = null;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof SerializedObjectContent
-                && hashCode() == obj.hashCode()
-                && Arrays.equals(serializedContent, ((SerializedObjectContent) obj).serializedContent);
+        if (!(obj instanceof SerializedObjectContent) || hashCode() != obj.hashCode()) {
+            return false;
+        }
+        SerializedObjectContent other = (SerializedObjectContent) obj;
+        return Arrays.equals(digest, other.digest)
+                && Arrays.equals(getSerializedContent(), other.getSerializedContent());
     }
 
     @Override
@@ -65,6 +96,13 @@ class SerializedObjectContent {
         return hash;
     }
 
+    private byte[] getSerializedContent() {
+        if (serializedContent == null) {
+            serializedContent = serializer.serializeContent(object, streamDataDigest);
+        }
+        return serializedContent;
+    }
+
     private static int calculateHash(byte[] b) {
         int hash = 0;
         int len = b.length;
@@ -43,29 +43,59 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.PdfException;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Computes structural hashes of the copied objects in smart mode and keeps the index of already written objects.
+ * <p>
+ * The structure of an object is streamed directly into an MD5 digest, so only a fixed-size 128-bit hash is kept
+ * for each object instead of its whole serialized form. The hashes of indirect objects are memoized per indirect
+ * reference in {@link PdfDocument#serializedObjectsCache} and are fed into the hash of the referring objects.
+ * The data of the streams is represented by its SHA-256 hash.
+ * <p>
+ * As different objects may have the same digest, the written objects are indexed along with their own
+ * serialized content, see {@link #serializeContent(PdfObject, byte[])}, which is compared whenever the digests match.
+ */
 class SmartModePdfObjectsSerializer implements Serializable {
 
     private static final long serialVersionUID = 2502203520776244051L;
 
-    private transient MessageDigest md5;
-    private HashMap<SerializedObjectContent, PdfIndirectReference> serializedContentToObj = new HashMap<>();
+    private static final int MAX_SERIALIZATION_LEVEL = 100;
 
-    SmartModePdfObjectsSerializer() {
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (Exception e) {
-            throw new PdfException(e);
-        }
+    /**
+     * Digests used to hash the objects, one per nesting level of indirect objects being hashed.
+     */
+    private transient List<MessageDigest> digests;
+    private transient MessageDigest contentDigest;
+    /**
+     * The hash of the data of the last serialized stream which is not referred to by another object.
+     */
+    private transient byte[] streamDataDigest;
+    private IndexMap serializedContentToObj;
+
+    /**
+     * Creates the serializer.
+     *
+     * @param indexCapacity the maximum number of entries in the index of written objects; the least
+     *                      recently used entries are evicted if the index grows larger. 0 means no limit.
+     */
+    SmartModePdfObjectsSerializer(int indexCapacity) {
+        serializedContentToObj = new IndexMap(indexCapacity);
+        getDigest(0);
     }
 
     public void saveSerializedObject(SerializedObjectContent serializedContent, PdfIndirectReference objectReference) {
+        // the copied object may be not available anymore by the time an object with the same digest is copied
+        serializedContent.retainSerializedContent();
         serializedContentToObj.put(serializedContent, objectReference);
     }
 
@@ -85,94 +115,238 @@ class SmartModePdfObjectsSerializer implements Serializable {
         Map<PdfIndirectReference, byte[]> serializedCache = indRef.getDocument().serializedObjectsCache;
 
         byte[] content = serializedCache.get(indRef);
+        byte[] dataDigest = null;
         if (content == null) {
-            ByteBuffer bb = new ByteBuffer();
-            int level = 100;
-            serObject(obj, bb, level, serializedCache);
-            content = bb.toByteArray();
+            MessageDigest digest = getDigest(0);
+            streamDataDigest = null;
+            serObject(obj, digest, 0, MAX_SERIALIZATION_LEVEL, serializedCache);
+            content = digest.digest();
+            dataDigest = streamDataDigest;
         }
-        return new SerializedObjectContent(content);
+        return new SerializedObjectContent(content, obj, dataDigest, this);
     }
 
-    private void serObject(PdfObject obj, ByteBuffer bb, int level, Map<PdfIndirectReference, byte[]> serializedCache) {
+    /**
+     * Serializes the own content of the object. The objects it refers to are written as their memoized digests,
+     * so the size of the serialized content doesn't depend on the size of the referred objects. The data
+     * of the stream is written as its SHA-256 hash.
+     *
+     * @param obj        the object to be serialized
+     * @param dataDigest the SHA-256 hash of the data if the object is a stream and the hash is already known,
+     *                   otherwise null
+     * @return the serialized content
+     */
+    byte[] serializeContent(PdfObject obj, byte[] dataDigest) {
+        ByteBuffer bb = new ByteBuffer();
+        if (obj.isStream()) {
+            writeDic((PdfDictionary) obj, bb, MAX_SERIALIZATION_LEVEL - 1);
+            bb.append("$B");
+            bb.append(dataDigest != null ? dataDigest : getContentDigest().digest(((PdfStream) obj).getBytes(false)));
+        } else {
+            writeObject(obj, bb, MAX_SERIALIZATION_LEVEL);
+        }
+        return bb.toByteArray();
+    }
+
+    private void serObject(PdfObject obj, MessageDigest digest, int depth, int level, Map<PdfIndirectReference, byte[]> serializedCache) {
         if (level <= 0) {
             return;
         }
         if (obj == null) {
-            bb.append("$Lnull");
+            update(digest, "$Lnull");
             return;
         }
         PdfIndirectReference reference = null;
-        ByteBuffer savedBb = null;
+        MessageDigest savedDigest = null;
 
         if (obj.isIndirectReference()) {
             reference = (PdfIndirectReference) obj;
             byte[] cached = serializedCache.get(reference);
             if (cached != null) {
-                bb.append(cached);
+                digest.update(cached);
                 return;
             } else {
-                savedBb = bb;
-                bb = new ByteBuffer();
+                savedDigest = digest;
+                digest = getDigest(++depth);
                 obj = reference.getRefersTo();
             }
         }
 
         if (obj.isStream()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
-            bb.append("$B");
-            if (level > 0) {
-                bb.append(md5.digest(((PdfStream) obj).getBytes(false)));
+            serDic((PdfDictionary) obj, digest, depth, level - 1, serializedCache);
+            update(digest, "$B");
+            byte[] dataDigest = getContentDigest().digest(((PdfStream) obj).getBytes(false));
+            digest.update(dataDigest);
+            if (depth == 0) {
+                // the streams are always indirect, so this is the stream being serialized itself
+                streamDataDigest = dataDigest;
             }
         } else if (obj.isDictionary()) {
-            serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
+            serDic((PdfDictionary) obj, digest, depth, level - 1, serializedCache);
         } else if (obj.isArray()) {
-            serArray((PdfArray) obj, bb, level - 1, serializedCache);
+            serArray((PdfArray) obj, digest, depth, level - 1, serializedCache);
         } else if (obj.isString()) {
-            bb.append("$S").append(obj.toString()); // TODO specify length for strings, streams, may be names?
+            update(digest, "$S");
+            update(digest, obj.toString()); // TODO specify length for strings, streams, may be names?
         } else if (obj.isName()) {
-            bb.append("$N").append(obj.toString());
+            update(digest, "$N");
+            update(digest, obj.toString());
         } else {
-            bb.append("$L").append(obj.toString()); // PdfNull case is also here
+            update(digest, "$L");
+            update(digest, obj.toString()); // PdfNull case is also here
         }
 
-        if (savedBb != null) {
-            serializedCache.put(reference, bb.toByteArray());
-            savedBb.append(bb.getInternalBuffer());
+        if (savedDigest != null) {
+            byte[] hash = digest.digest();
+            serializedCache.put(reference, hash);
+            savedDigest.update(hash);
         }
     }
 
-    private void serDic(PdfDictionary dic, ByteBuffer bb, int level,
+    private void serDic(PdfDictionary dic, MessageDigest digest, int depth, int level,
                         Map<PdfIndirectReference, byte[]> serializedCache) {
-        bb.append("$D");
+        update(digest, "$D");
         if (level <= 0)
             return;
         for (PdfName key : dic.keySet()) {
             if (isKeyRefersBack(dic, key)) {
                 continue;
             }
-            serObject(key, bb, level, serializedCache);
-            serObject(dic.get(key, false), bb, level, serializedCache);
+            serObject(key, digest, depth, level, serializedCache);
+            serObject(dic.get(key, false), digest, depth, level, serializedCache);
 
         }
-        bb.append("$\\D");
+        update(digest, "$\\D");
     }
 
-    private void serArray(PdfArray array, ByteBuffer bb, int level,
+    private void serArray(PdfArray array, MessageDigest digest, int depth, int level,
                           Map<PdfIndirectReference, byte[]> serializedCache) {
+        update(digest, "$A");
+        if (level <= 0)
+            return;
+        for (int k = 0; k < array.size(); ++k) {
+            serObject(array.get(k, false), digest, depth, level, serializedCache);
+        }
+        update(digest, "$\\A");
+    }
+
+    private void writeObject(PdfObject obj, ByteBuffer bb, int level) {
+        if (level <= 0) {
+            return;
+        }
+        if (obj == null) {
+            bb.append("$Lnull");
+        } else if (obj.isIndirectReference()) {
+            bb.append("$R").append(getReferenceDigest((PdfIndirectReference) obj));
+        } else if (obj.isDictionary()) {
+            writeDic((PdfDictionary) obj, bb, level - 1);
+        } else if (obj.isArray()) {
+            writeArray((PdfArray) obj, bb, level - 1);
+        } else if (obj.isString()) {
+            writeValue("$S", ((PdfString) obj).getValue(), bb);
+        } else if (obj.isName()) {
+            writeValue("$N", ((PdfName) obj).getValue(), bb);
+        } else {
+            writeValue("$L", obj.toString(), bb); // PdfNull case is also here
+        }
+    }
+
+    private void writeDic(PdfDictionary dic, ByteBuffer bb, int level) {
+        bb.append("$D");
+        if (level <= 0)
+            return;
+        for (PdfName key : dic.keySet()) {
+            if (isKeyRefersBack(dic, key)) {
+                continue;
+            }
+            writeObject(key, bb, level);
+            writeObject(dic.get(key, false), bb, level);
+        }
+        bb.append("$\\D");
+    }
+
+    private void writeArray(PdfArray array, ByteBuffer bb, int level) {
         bb.append("$A");
         if (level <= 0)
             return;
         for (int k = 0; k < array.size(); ++k) {
-            serObject(array.get(k, false), bb, level, serializedCache);
+            writeObject(array.get(k, false), bb, level);
         }
         bb.append("$\\A");
     }
 
+    private byte[] getReferenceDigest(PdfIndirectReference reference) {
+        Map<PdfIndirectReference, byte[]> serializedCache = reference.getDocument().serializedObjectsCache;
+        byte[] referenceDigest = serializedCache.get(reference);
+        if (referenceDigest == null) {
+            // the digest is memoized while the referring digest is computed
+            serObject(reference, getDigest(0), 0, MAX_SERIALIZATION_LEVEL, serializedCache);
+            referenceDigest = serializedCache.get(reference);
+        }
+        return referenceDigest;
+    }
+
+    private static void writeValue(String type, String value, ByteBuffer bb) {
+        // the length makes the values distinguishable from the tokens following them
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        bb.append(type + bytes.length + ":").append(bytes);
+    }
+
     private boolean isKeyRefersBack(PdfDictionary dic, PdfName key) {
         // TODO review this method?
         // ignore recursive call
         return key.equals(PdfName.P) && (dic.get(key).isIndirectReference() || dic.get(key).isDictionary())
                 || key.equals(PdfName.Parent);
     }
+
+    private MessageDigest getDigest(int depth) {
+        if (digests == null) {
+            digests = new ArrayList<>();
+        }
+        try {
+            while (digests.size() <= depth) {
+                digests.add(MessageDigest.getInstance("MD5"));
+            }
+        } catch (Exception e) {
+            throw new PdfException(e);
+        }
+        MessageDigest digest = digests.get(depth);
+        digest.reset();
+        return digest;
+    }
+
+    private MessageDigest getContentDigest() {
+        if (contentDigest == null) {
+            try {
+                contentDigest = MessageDigest.getInstance("SHA-256");
+            } catch (Exception e) {
+                throw new PdfException(e);
+            }
+        }
+        return contentDigest;
+    }
+
+    private static void update(MessageDigest digest, String str) {
+        digest.update(ByteUtils.getIsoBytes(str));
+    }
+
+    /**
+     * Index of written objects, optionally limited in size with the least recently used entries evicted first.
+     */
+    private static class IndexMap extends LinkedHashMap<SerializedObjectContent, PdfIndirectReference> {
+
+        private static final long serialVersionUID = -1520178287853398566L;
+
+        private final int capacity;
+
+        IndexMap(int capacity) {
+            super(16, 0.75f, capacity > 0);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SerializedObjectContent, PdfIndirectReference> eldest) {
+            return capacity > 0 && size() > capacity;
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.IByteArrayPool;
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Keeps the objects flushed by {@link PdfWriter} in the order they were flushed while the content of
+ * the streams among them is compressed on a bounded pool of worker threads.
+ * Only the compression is performed by the workers: objects are serialized, and their offsets are assigned,
+ * by the writer's thread in the original order, so the output is identical to the one of the serial writing.
+ */
+class StreamCompressionPipeline {
+
+    private final ExecutorService workers;
+    private final Deque<PendingObject> pendingObjects = new ArrayDeque<>();
+    private final int maxPendingObjects;
+    private final IByteArrayPool byteArrayPool;
+
+    StreamCompressionPipeline(int workersCount, IByteArrayPool byteArrayPool) {
+        this.byteArrayPool = byteArrayPool;
+        this.workers = Executors.newFixedThreadPool(workersCount, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "pdf-stream-compression");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.maxPendingObjects = workersCount * 4;
+    }
+
+    /**
+     * Adds the flushed object to the end of the queue. If the object is a stream which content is to be compressed,
+     * compression is started on one of the workers.
+     *
+     * @param pdfObject        flushed object
+     * @param compressionLevel compression level of the stream content, or {@code null} if no compression is needed
+     */
+    void add(PdfObject pdfObject, Integer compressionLevel) {
+        Future<ByteArrayOutputStream> compressedContent = null;
+        if (compressionLevel != null) {
+            final PdfStream pdfStream = (PdfStream) pdfObject;
+            final int level = (int) compressionLevel;
+            compressedContent = workers.submit(new Callable<ByteArrayOutputStream>() {
+                @Override
+                public ByteArrayOutputStream call() throws IOException {
+                    return PdfOutputStream.deflateStreamContent(pdfStream, level, byteArrayPool);
+                }
+            });
+        }
+        pendingObjects.addLast(new PendingObject(pdfObject, compressedContent));
+    }
+
+    boolean isEmpty() {
+        return pendingObjects.isEmpty();
+    }
+
+    /**
+     * Checks whether the first object in the queue can be written without waiting, or whether
+     * the queue is full and the writer shall wait for the first object to avoid unbounded memory consumption.
+     */
+    boolean isFirstToBeWritten() {
+        PendingObject first = pendingObjects.peekFirst();
+        return first != null && (first.compressedContent == null || first.compressedContent.isDone()
+                || pendingObjects.size() > maxPendingObjects);
+    }
+
+    PdfObject getFirst() {
+        return pendingObjects.getFirst().pdfObject;
+    }
+
+    void removeFirst() {
+        pendingObjects.removeFirst();
+    }
+
+    /**
+     * Gets compressed content of the stream if it is the first object in the queue and its compression was started.
+     *
+     * @return compressed stream content or {@code null} if the stream is not compressed by the pipeline
+     */
+    ByteArrayOutputStream getCompressedContent(PdfStream pdfStream) {
+        PendingObject first = pendingObjects.peekFirst();
+        if (first == null || first.pdfObject != pdfStream || first.compressedContent == null) {
+            return null;
+        }
+        try {
+            return first.compressedContent.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotWriteToPdfStream, e, pdfStream);
+        } catch (ExecutionException e) {
+            throw new PdfException(PdfException.CannotWriteToPdfStream, e.getCause(), pdfStream);
+        }
+    }
+
+    void shutdown() {
+        pendingObjects.clear();
+        workers.shutdownNow();
+    }
+
+    private static class PendingObject {
+        final PdfObject pdfObject;
+        final Future<ByteArrayOutputStream> compressedContent;
+
+        PendingObject(PdfObject pdfObject, Future<ByteArrayOutputStream> compressedContent) {
+            this.pdfObject = pdfObject;
+            this.compressedContent = compressedContent;
+        }
+    }
+}
@@ -43,6 +43,8 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.IByteArrayPool;
+
 import java.io.Serializable;
 import java.security.cert.Certificate;
 
@@ -62,6 +64,10 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+    /**
+     * The maximum number of objects remembered in smart mode. 0 means no limit.
+     */
+    protected int smartModeCacheCapacity;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected boolean addUAXmpMetadata;
@@ -77,6 +83,17 @@ public class WriterProperties implements Serializable {
      */
     protected PdfString modifiedDocumentId;
 
+    /**
+     * The number of worker threads used for stream compression. 0 means that streams are compressed
+     * by the thread which writes the document.
+     */
+    protected int streamCompressionWorkers;
+
+    /**
+     * The pool of byte arrays which are used as buffers of stream content. {@code null} means no pooling.
+     */
+    protected transient IByteArrayPool byteArrayPool;
+
     public WriterProperties() {
         smartMode = false;
         debugMode = false;
@@ -113,6 +130,20 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Limits the number of distinct objects remembered in smart mode. If the limit is reached, the
+     * least recently reused objects are forgotten, so their later duplicates will be written again.
+     * This bounds the memory consumed by smart mode when a large number of documents is merged.
+     * Default value is 0, which means no limit.
+     *
+     * @param capacity the maximum number of remembered objects, or 0 for no limit
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setSmartModeCacheCapacity(int capacity) {
+        this.smartModeCacheCapacity = Math.max(0, capacity);
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * For PDF 2.0 documents, metadata will be added in any case.
@@ -224,6 +255,37 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables compression of stream content on a bounded pool of worker threads. Objects are still
+     * written, and their offsets assigned, in the order they are flushed, so the resultant document
+     * is identical to the one written without this option. Flushed objects are kept in memory until
+     * the content of the preceding streams is compressed.
+     * Note that encryption, if any, is still performed by the thread writing the document.
+     *
+     * @param workersCount the number of worker threads; 0 disables parallel compression
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useParallelStreamCompression(int workersCount) {
+        this.streamCompressionWorkers = Math.max(0, workersCount);
+        return this;
+    }
+
+    /**
+     * Sets the pool of byte arrays used as buffers for the content of page content streams and object streams,
+     * and as temporary buffers for compressed and encrypted stream content. The buffers are drawn from the pool
+     * when the streams are created and returned to it as soon as the streams are written.
+     * The same pool may be shared by writers of different documents, also in different threads,
+     * e.g. {@link com.itextpdf.io.source.BoundedByteArrayPool}.
+     * Default value is {@code null}, which means that buffers are allocated for every stream.
+     *
+     * @param byteArrayPool the pool of byte arrays or {@code null} to disable pooling
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setByteArrayPool(IByteArrayPool byteArrayPool) {
+        this.byteArrayPool = byteArrayPool;
+        return this;
+    }
+
     /**
      * This activates debug mode with pdfDebug tool.
      * It causes additional overhead of duplicating document bytes into memory, so use it careful.
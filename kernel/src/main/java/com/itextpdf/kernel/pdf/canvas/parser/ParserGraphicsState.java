@@ -59,6 +59,8 @@ import com.itextpdf.kernel.pdf.canvas.parser.clipper.DefaultClipper;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.IClipper;
 import com.itextpdf.kernel.pdf.canvas.parser.clipper.PolyTree;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -71,6 +73,14 @@ public class ParserGraphicsState extends CanvasGraphicsState {
     // NOTE: From the spec default value of this field should be the boundary of the entire imageable portion of the output page.
     private Path clippingPath;
 
+    /**
+     * The clipping path together with the clips and transformations which are not applied to it yet.
+     * It is used instead of {@link #clippingPath} when the clipping path is computed lazily.
+     */
+    private LazyClippingPath lazyClippingPath;
+
+    private boolean lazyClipping;
+
     /**
      * Internal empty & default constructor.
      */
@@ -88,6 +98,9 @@ public class ParserGraphicsState extends CanvasGraphicsState {
         if (source.clippingPath != null) {
             clippingPath = new Path(source.clippingPath);
         }
+        // lazy clipping paths are never modified, so they can be shared between the states
+        lazyClippingPath = source.lazyClippingPath;
+        lazyClipping = source.lazyClipping;
     }
 
     /**
@@ -100,15 +113,21 @@ public class ParserGraphicsState extends CanvasGraphicsState {
     public void setClippingPath(Path clippingPath) {
         Path pathCopy = new Path(clippingPath);
         pathCopy.closeAllSubpaths();
-        this.clippingPath = pathCopy;
+        if (lazyClipping) {
+            this.lazyClippingPath = new LazyClippingPath(pathCopy);
+        } else {
+            this.clippingPath = pathCopy;
+        }
     }
 
     @Override
     public void updateCtm(Matrix newCtm) {
         super.updateCtm(newCtm);
 
-        if (clippingPath != null) {
-            transformClippingPath(newCtm);
+        if (lazyClippingPath != null) {
+            lazyClippingPath = new LazyClippingPath(lazyClippingPath, newCtm);
+        } else if (clippingPath != null) {
+            clippingPath = transformPath(clippingPath, newCtm);
         }
     }
 
@@ -123,35 +142,194 @@ public class ParserGraphicsState extends CanvasGraphicsState {
      *                    {@link FillingRule#NONZERO_WINDING}
      */
     public void clip(Path path, int fillingRule) {
+        if (lazyClippingPath != null) {
+            Path pathCopy = new Path(path);
+            pathCopy.closeAllSubpaths();
+            lazyClippingPath = new LazyClippingPath(lazyClippingPath, pathCopy, fillingRule);
+            return;
+        }
+
         if (clippingPath == null || clippingPath.isEmpty()) {
             return;
         }
 
         Path pathCopy = new Path(path);
         pathCopy.closeAllSubpaths();
+        clippingPath = intersect(clippingPath, pathCopy, fillingRule);
+    }
+
+    /**
+     * Getter for the current clipping path.
+     *
+     * <strong>Note:</strong> The returned clipping path is in the transformed user space, so
+     * if you want to get it in default user space, apply transformation matrix ({@link CanvasGraphicsState#getCtm()}).
+     * If the clipping path is computed lazily, the returned path may be shared with other graphics states
+     * and therefore shall not be modified.
+     * @return The current clipping path.
+     */
+    public Path getClippingPath() {
+        if (lazyClippingPath != null) {
+            return lazyClippingPath.getPath();
+        }
+        return clippingPath;
+    }
+
+    /**
+     * Checks whether the clipping path is computed lazily, i.e. only when it is requested.
+     *
+     * @return true if the clipping path is computed lazily, false otherwise.
+     */
+    boolean isLazyClipping() {
+        return lazyClipping;
+    }
+
+    /**
+     * Specifies whether the clipping path shall be computed lazily. If so, {@link #clip(Path, int)} and
+     * {@link #updateCtm(Matrix)} only record the operations, which are applied to the clipping path
+     * when {@link #getClippingPath()} is called for the first time.
+     *
+     * @param lazyClipping true if the clipping path shall be computed lazily, false otherwise.
+     */
+    void setLazyClipping(boolean lazyClipping) {
+        if (this.lazyClipping == lazyClipping) {
+            return;
+        }
+        if (lazyClipping) {
+            if (clippingPath != null) {
+                lazyClippingPath = new LazyClippingPath(clippingPath);
+                clippingPath = null;
+            }
+        } else if (lazyClippingPath != null) {
+            clippingPath = lazyClippingPath.getPath();
+            lazyClippingPath = null;
+        }
+        this.lazyClipping = lazyClipping;
+    }
+
+    /**
+     * Gets the lazily computed clipping path.
+     *
+     * @return the lazily computed clipping path or null if the clipping path is not computed lazily or
+     * is not initialized.
+     */
+    LazyClippingPath getLazyClippingPath() {
+        return lazyClippingPath;
+    }
+
+    private static Path intersect(Path clippingPath, Path path, int fillingRule) {
+        Path rectanglesIntersection = intersectRectangles(clippingPath, path);
+        if (rectanglesIntersection != null) {
+            return rectanglesIntersection;
+        }
 
         IClipper clipper = new DefaultClipper();
         ClipperBridge.addPath(clipper, clippingPath, IClipper.PolyType.SUBJECT);
-        ClipperBridge.addPath(clipper, pathCopy, IClipper.PolyType.CLIP);
+        ClipperBridge.addPath(clipper, path, IClipper.PolyType.CLIP);
 
         PolyTree resultTree = new PolyTree();
         clipper.execute(IClipper.ClipType.INTERSECTION, resultTree, IClipper.PolyFillType.NON_ZERO, ClipperBridge.getFillType(fillingRule));
 
-        clippingPath = ClipperBridge.convertToPath(resultTree);
+        return ClipperBridge.convertToPath(resultTree);
     }
 
     /**
-     * Getter for the current clipping path.
+     * Intersects two paths in case both of them are axis-aligned rectangles, which is by far the most
+     * common case of clipping. The result is exactly the same as the one computed by the {@link DefaultClipper},
+     * i.e. the coordinates are rounded in the same way and the vertices of the resultant rectangle
+     * go in the same order.
      *
-     * <strong>Note:</strong> The returned clipping path is in the transformed user space, so
-     * if you want to get it in default user space, apply transformation matrix ({@link CanvasGraphicsState#getCtm()}).
-     * @return The current clipping path.
+     * @return the intersection of the rectangles or null if any of the paths is not an axis-aligned rectangle.
      */
-    public Path getClippingPath() {
-        return clippingPath;
+    private static Path intersectRectangles(Path clippingPath, Path path) {
+        long[] clippingRect = toLongRectangle(clippingPath);
+        if (clippingRect == null) {
+            return null;
+        }
+        long[] rect = toLongRectangle(path);
+        if (rect == null) {
+            return null;
+        }
+
+        long minX = Math.max(clippingRect[0], rect[0]);
+        long minY = Math.max(clippingRect[1], rect[1]);
+        long maxX = Math.min(clippingRect[2], rect[2]);
+        long maxY = Math.min(clippingRect[3], rect[3]);
+
+        Path result = new Path();
+        if (minX < maxX && minY < maxY) {
+            float left = (float) (minX / ClipperBridge.floatMultiplier);
+            float bottom = (float) (minY / ClipperBridge.floatMultiplier);
+            float right = (float) (maxX / ClipperBridge.floatMultiplier);
+            float top = (float) (maxY / ClipperBridge.floatMultiplier);
+            result.moveTo(right, top);
+            result.lineTo(left, top);
+            result.lineTo(left, bottom);
+            result.lineTo(right, bottom);
+            result.closeSubpath();
+        }
+        return result;
     }
 
-    private void transformClippingPath(Matrix newCtm) {
+    /**
+     * Converts the path to the clipper coordinates in case it consists of a single closed subpath which
+     * is an axis-aligned rectangle.
+     *
+     * @return the array of minimal x, minimal y, maximal x and maximal y clipper coordinates of the rectangle or
+     * null if the path is not an axis-aligned rectangle.
+     */
+    private static long[] toLongRectangle(Path path) {
+        Subpath rectangle = null;
+        for (Subpath subpath : path.getSubpaths()) {
+            // single point subpaths are ignored by the clipper
+            if (subpath.getSegments().isEmpty()) {
+                continue;
+            }
+            if (rectangle != null || !subpath.isClosed()) {
+                return null;
+            }
+            rectangle = subpath;
+        }
+        if (rectangle == null) {
+            return null;
+        }
+
+        List<IShape> segments = rectangle.getSegments();
+        int segmentsNumber = segments.size();
+        if (segmentsNumber != 3 && segmentsNumber != 4) {
+            return null;
+        }
+        long[] xs = new long[segmentsNumber + 1];
+        long[] ys = new long[segmentsNumber + 1];
+        for (int i = 0; i < segmentsNumber; i++) {
+            if (!(segments.get(i) instanceof Line)) {
+                return null;
+            }
+            List<Point> basePoints = segments.get(i).getBasePoints();
+            if (i == 0) {
+                xs[0] = (long) (ClipperBridge.floatMultiplier * basePoints.get(0).getX());
+                ys[0] = (long) (ClipperBridge.floatMultiplier * basePoints.get(0).getY());
+            }
+            xs[i + 1] = (long) (ClipperBridge.floatMultiplier * basePoints.get(1).getX());
+            ys[i + 1] = (long) (ClipperBridge.floatMultiplier * basePoints.get(1).getY());
+        }
+        if (segmentsNumber == 4 && (xs[4] != xs[0] || ys[4] != ys[0])) {
+            return null;
+        }
+
+        // the sides shall be alternately horizontal and vertical and have nonzero length
+        boolean firstSideHorizontal = ys[0] == ys[1];
+        for (int i = 0; i < 4; i++) {
+            int next = (i + 1) % 4;
+            boolean horizontal = firstSideHorizontal == (i % 2 == 0);
+            boolean sideValid = horizontal ? ys[i] == ys[next] && xs[i] != xs[next] : xs[i] == xs[next] && ys[i] != ys[next];
+            if (!sideValid) {
+                return null;
+            }
+        }
+        return new long[] {Math.min(xs[0], xs[2]), Math.min(ys[0], ys[2]), Math.max(xs[0], xs[2]), Math.max(ys[0], ys[2])};
+    }
+
+    private static Path transformPath(Path clippingPath, Matrix newCtm) {
         Path path = new Path();
 
         for (Subpath subpath : clippingPath.getSubpaths()) {
@@ -159,10 +337,10 @@ public class ParserGraphicsState extends CanvasGraphicsState {
             path.addSubpath(transformedSubpath);
         }
 
-        clippingPath = path;
+        return path;
     }
 
-    private Subpath transformSubpath(Subpath subpath, Matrix newCtm) {
+    private static Subpath transformSubpath(Subpath subpath, Matrix newCtm) {
         Subpath newSubpath = new Subpath();
         newSubpath.setClosed(subpath.isClosed());
 
@@ -174,7 +352,7 @@ public class ParserGraphicsState extends CanvasGraphicsState {
         return newSubpath;
     }
 
-    private IShape transformSegment(IShape segment, Matrix newCtm) {
+    private static IShape transformSegment(IShape segment, Matrix newCtm) {
         IShape newSegment;
         List<Point> segBasePts = segment.getBasePoints();
         Point[] transformedPoints = transformPoints(newCtm, segBasePts.toArray(new Point[segBasePts.size()]));
@@ -188,7 +366,7 @@ public class ParserGraphicsState extends CanvasGraphicsState {
         return newSegment;
     }
 
-    private Point[] transformPoints(Matrix transformationMatrix, Point... points) {
+    private static Point[] transformPoints(Matrix transformationMatrix, Point... points) {
         try {
 
             AffineTransform t = new AffineTransform(
@@ -206,4 +384,62 @@ public class ParserGraphicsState extends CanvasGraphicsState {
             throw new RuntimeException(e.getMessage(), e);
         }
     }
+
+    /**
+     * The clipping path which is computed only when it is requested. Each instance represents either the initial
+     * clipping path or the result of the operation, i.e. a clip or a transformation, applied to the previous
+     * lazy clipping path. Once computed, the path is stored, so the lazy clipping paths with the common history
+     * share the computations.
+     */
+    static final class LazyClippingPath implements Serializable {
+        private static final long serialVersionUID = -1693573813522484405L;
+
+        private LazyClippingPath previous;
+        private Path clip;
+        private int fillingRule;
+        private Matrix ctm;
+        private Path path;
+
+        LazyClippingPath(Path path) {
+            this.path = path;
+        }
+
+        LazyClippingPath(LazyClippingPath previous, Path clip, int fillingRule) {
+            this.previous = previous;
+            this.clip = clip;
+            this.fillingRule = fillingRule;
+        }
+
+        LazyClippingPath(LazyClippingPath previous, Matrix ctm) {
+            this.previous = previous;
+            this.ctm = ctm;
+        }
+
+        Path getPath() {
+            if (path == null) {
+                // the pending operations are collected iteratively as the chain may be long
+                List<LazyClippingPath> pending = new ArrayList<>();
+                LazyClippingPath computed = this;
+                while (computed.path == null) {
+                    pending.add(computed);
+                    computed = computed.previous;
+                }
+                Path result = computed.path;
+                for (int i = pending.size() - 1; i >= 0; i--) {
+                    LazyClippingPath operation = pending.get(i);
+                    if (operation.ctm != null) {
+                        result = transformPath(result, operation.ctm);
+                    } else if (!result.isEmpty()) {
+                        result = intersect(result, operation.clip, operation.fillingRule);
+                    }
+                    operation.path = result;
+                    // the history is not needed anymore
+                    operation.previous = null;
+                    operation.clip = null;
+                    operation.ctm = null;
+                }
+            }
+            return path;
+        }
+    }
 }
@@ -44,9 +44,6 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
-import com.itextpdf.io.source.PdfTokenizer;
-import com.itextpdf.io.source.RandomAccessFileOrArray;
-import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.colors.CalGray;
@@ -85,7 +82,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
-import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasLexer;
 import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
 import com.itextpdf.kernel.pdf.colorspace.PdfPattern;
@@ -94,13 +91,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.lang.ref.WeakReference;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Stack;
 
@@ -142,6 +140,19 @@ public class PdfCanvasProcessor {
      */
     private Map<String, IContentOperator> operators;
 
+    /**
+     * The trie of the registered operators, which allows to find an operator by the bytes of the content
+     * without creating a string.
+     */
+    private final ContentOperatorNode operatorsTrie = new ContentOperatorNode();
+
+    /**
+     * The operator found by {@link #processContent(byte[], PdfResources)} for the literal it is going to invoke.
+     */
+    private PdfLiteral dispatchedOperatorLiteral;
+
+    private IContentOperator dispatchedOperator;
+
     /**
      * Resources for the content stream.
      * Current resources are always at the top of the stack.
@@ -164,14 +175,14 @@ public class PdfCanvasProcessor {
     private Map<PdfName, IXObjectDoHandler> xobjectDoHandlers;
 
     /**
-     * The font cache
+     * A stack containing marked content info.
      */
-    private Map<Integer, WeakReference<PdfFont>> cachedFonts = new HashMap<>();
+    private Stack<CanvasTag> markedContentStack = new Stack<>();
 
     /**
-     * A stack containing marked content info.
+     * Indicates whether the clipping path is computed only when it is requested.
      */
-    private Stack<CanvasTag> markedContentStack = new Stack<>();
+    private boolean lazyClipping;
 
     /**
      * Creates a new PDF Content Stream Processor that will send its output to the
@@ -230,6 +241,7 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
+        operatorsTrie.put(operatorString, operator);
         return operators.put(operatorString, operator);
     }
 
@@ -243,16 +255,48 @@ public class PdfCanvasProcessor {
     }
 
     /**
-     * Resets the graphics state stack, matrices and resources.
+     * Resets the graphics state stack, matrices, resources and marked content.
      */
     public void reset() {
         gsStack.removeAllElements();
-        gsStack.push(new ParserGraphicsState());
+        ParserGraphicsState gs = new ParserGraphicsState();
+        gs.setLazyClipping(lazyClipping);
+        gsStack.push(gs);
         textMatrix = null;
         textLineMatrix = null;
         resourcesStack = new Stack<>();
         isClip = false;
         currentPath = new Path();
+        markedContentStack.clear();
+    }
+
+    /**
+     * Checks whether the clipping path is computed lazily.
+     *
+     * @return true if the clipping path is computed lazily, false otherwise
+     */
+    public boolean isLazyClipping() {
+        return lazyClipping;
+    }
+
+    /**
+     * Specifies whether the clipping path shall be computed lazily, i.e. only when
+     * {@link ParserGraphicsState#getClippingPath()} or {@link ClippingPathInfo#getClippingPath()} is called.
+     * This speeds up processing of the content with lots of clips, e.g. when the listener doesn't
+     * need the clipping path at all or needs it for a few events only.
+     * By default the clipping path is computed eagerly.
+     *
+     * <strong>Note:</strong> If the clipping path is computed lazily, the {@link Path} objects returned by
+     * {@link ParserGraphicsState#getClippingPath()} and {@link ClippingPathInfo#getClippingPath()} may be
+     * shared between graphics states and therefore shall not be modified.
+     *
+     * @param lazyClipping true if the clipping path shall be computed lazily, false otherwise
+     */
+    public void setLazyClipping(boolean lazyClipping) {
+        this.lazyClipping = lazyClipping;
+        for (ParserGraphicsState gs : gsStack) {
+            gs.setLazyClipping(lazyClipping);
+        }
     }
 
     /**
@@ -276,12 +320,20 @@ public class PdfCanvasProcessor {
             throw new PdfException(PdfException.ResourcesCannotBeNull);
         }
         this.resourcesStack.push(resources);
-        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
-        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
-        List<PdfObject> operands = new ArrayList<>();
+        PdfCanvasLexer lexer = new PdfCanvasLexer(contentBytes, resources);
+        ContentOperandList operands = new ContentOperandList(lexer);
         try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
+            while (lexer.nextOperator()) {
+                ContentOperatorNode node = operatorsTrie.find(lexer);
+                PdfLiteral operator;
+                if (node != null && node.operator != null) {
+                    operator = node.literal;
+                    dispatchedOperatorLiteral = operator;
+                    dispatchedOperator = node.operator;
+                } else {
+                    operator = lexer.createOperator();
+                }
+                operands.reset(operator);
                 invokeOperator(operator, operands);
             }
         } catch (IOException e) {
@@ -302,7 +354,7 @@ public class PdfCanvasProcessor {
     public void processPageContent(PdfPage page) {
         initClippingPath(page);
         ParserGraphicsState gs = getGraphicsState();
-        eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+        eventOccurred(createClippingPathInfo(gs), EventType.CLIP_PATH_CHANGED);
         processContent(page.getContentBytes(), page.getResources());
     }
 
@@ -437,7 +489,7 @@ public class PdfCanvasProcessor {
         if (isClip) {
             isClip = false;
             gs.clip(currentPath, clippingRule);
-            eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            eventOccurred(createClippingPathInfo(gs), EventType.CLIP_PATH_CHANGED);
         }
 
         currentPath = new Path();
@@ -450,7 +502,7 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
-        IContentOperator op = operators.get(operator.toString());
+        IContentOperator op = operator == dispatchedOperatorLiteral ? dispatchedOperator : operators.get(operator.toString());
         if (op == null)
             op = operators.get(DEFAULT_OPERATOR);
         op.invoke(this, operator, operands);
@@ -476,7 +528,8 @@ public class PdfCanvasProcessor {
     }
 
     /**
-     * Creates a {@link PdfFont} object by a font dictionary. The font may have been cached in case it is an indirect object.
+     * Creates a {@link PdfFont} object by a font dictionary. The font of an indirect dictionary is taken from
+     * the {@link com.itextpdf.kernel.font.DocumentFontCache} of its document, which is shared by all processors.
      *
      * @param fontDict
      * @return the font
@@ -485,14 +538,7 @@ public class PdfCanvasProcessor {
         if (fontDict.getIndirectReference() == null) {
             return PdfFontFactory.createFont(fontDict);
         } else {
-            int n = fontDict.getIndirectReference().getObjNumber();
-            WeakReference<PdfFont> fontRef = cachedFonts.get(n);
-            PdfFont font = (PdfFont) (fontRef == null ? null : fontRef.get());
-            if (font == null) {
-                font = PdfFontFactory.createFont(fontDict);
-                cachedFonts.put(n, new WeakReference<>(font));
-            }
-            return font;
+            return fontDict.getIndirectReference().getDocument().getDocumentFontCache().getFont(fontDict);
         }
     }
 
@@ -542,6 +588,14 @@ public class PdfCanvasProcessor {
         }
     }
 
+    private ClippingPathInfo createClippingPathInfo(ParserGraphicsState gs) {
+        ParserGraphicsState.LazyClippingPath lazyClippingPath = gs.getLazyClippingPath();
+        if (lazyClippingPath != null) {
+            return new LazyClippingPathInfo(gs, lazyClippingPath, gs.getCtm());
+        }
+        return new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm());
+    }
+
     /**
      * Displays text.
      *
@@ -742,12 +796,12 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+            float a = getFloatOperand(operands, 0);
+            float b = getFloatOperand(operands, 1);
+            float c = getFloatOperand(operands, 2);
+            float d = getFloatOperand(operands, 3);
+            float e = getFloatOperand(operands, 4);
+            float f = getFloatOperand(operands, 5);
 
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
@@ -770,7 +824,7 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+            float ty = getFloatOperand(operands, 1);
 
             List<PdfObject> tlOperands = new ArrayList<PdfObject>(1);
             tlOperands.add(0, new PdfNumber(-ty));
@@ -787,8 +841,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float tx = ((PdfNumber) operands.get(0)).floatValue();
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+            float tx = getFloatOperand(operands, 0);
+            float ty = getFloatOperand(operands, 1);
 
             Matrix translationMatrix = new Matrix(tx, ty);
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
@@ -805,7 +859,7 @@ public class PdfCanvasProcessor {
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             PdfName fontResourceName = (PdfName) operands.get(0);
-            float size = ((PdfNumber) operands.get(1)).floatValue();
+            float size = getFloatOperand(operands, 1);
 
             PdfDictionary fontsDictionary = processor.getResources().getResource(PdfName.Font);
             PdfDictionary fontDict = fontsDictionary.getAsDictionary(fontResourceName);
@@ -839,8 +893,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber rise = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRise(rise.floatValue());
+            float rise = getFloatOperand(operands, 0);
+            processor.getGraphicsState().setTextRise(rise);
         }
     }
 
@@ -852,8 +906,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber leading = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setLeading(leading.floatValue());
+            float leading = getFloatOperand(operands, 0);
+            processor.getGraphicsState().setLeading(leading);
         }
     }
 
@@ -865,8 +919,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber scale = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
+            float scale = getFloatOperand(operands, 0);
+            processor.getGraphicsState().setHorizontalScaling(scale);
         }
     }
 
@@ -878,8 +932,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber charSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
+            float charSpace = getFloatOperand(operands, 0);
+            processor.getGraphicsState().setCharSpacing(charSpace);
         }
     }
 
@@ -891,8 +945,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber wordSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
+            float wordSpace = getFloatOperand(operands, 0);
+            processor.getGraphicsState().setWordSpacing(wordSpace);
         }
     }
 
@@ -948,12 +1002,12 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+            float a = getFloatOperand(operands, 0);
+            float b = getFloatOperand(operands, 1);
+            float c = getFloatOperand(operands, 2);
+            float d = getFloatOperand(operands, 3);
+            float e = getFloatOperand(operands, 4);
+            float f = getFloatOperand(operands, 5);
             Matrix matrix = new Matrix(a, b, c, d, e, f);
             processor.getGraphicsState().updateCtm(matrix);
         }
@@ -1026,7 +1080,7 @@ public class PdfCanvasProcessor {
     private static Color getColor(int nOperands, List<PdfObject> operands) {
         float[] c = new float[nOperands];
         for (int i = 0; i < nOperands; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
+            c[i] = getFloatOperand(operands, i);
         }
 
         switch (nOperands) {
@@ -1040,10 +1094,21 @@ public class PdfCanvasProcessor {
         return null;
     }
 
+    /**
+     * Gets the value of a numeric operand, reading it from the primitive buffer of {@link PdfCanvasLexer}
+     * if possible.
+     */
+    private static float getFloatOperand(List<PdfObject> operands, int index) {
+        if (operands instanceof ContentOperandList) {
+            return ((ContentOperandList) operands).getFloatOperand(index);
+        }
+        return ((PdfNumber) operands.get(index)).floatValue();
+    }
+
     private static float[] getColorants(List<PdfObject> operands) {
         float[] c = new float[operands.size() - 1];
         for (int i = 0; i < operands.size() - 1; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
+            c[i] = getFloatOperand(operands, i);
         }
         return c;
     }
@@ -1058,7 +1123,7 @@ public class PdfCanvasProcessor {
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.gsStack.pop();
             ParserGraphicsState gs = processor.getGraphicsState();
-            processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
+            processor.eventOccurred(processor.createClippingPathInfo(gs), EventType.CLIP_PATH_CHANGED);
         }
     }
 
@@ -1326,7 +1391,7 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
+            float lineWidth = getFloatOperand(operands, 0);
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
     }
@@ -1368,7 +1433,7 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
+            float miterLimit = getFloatOperand(operands, 0);
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
     }
@@ -1455,8 +1520,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+            float x = getFloatOperand(operands, 0);
+            float y = getFloatOperand(operands, 1);
             processor.currentPath.moveTo(x, y);
         }
     }
@@ -1470,8 +1535,8 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+            float x = getFloatOperand(operands, 0);
+            float y = getFloatOperand(operands, 1);
             processor.currentPath.lineTo(x, y);
         }
     }
@@ -1485,12 +1550,12 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x2 = ((PdfNumber) operands.get(2)).floatValue();
-            float y2 = ((PdfNumber) operands.get(3)).floatValue();
-            float x3 = ((PdfNumber) operands.get(4)).floatValue();
-            float y3 = ((PdfNumber) operands.get(5)).floatValue();
+            float x1 = getFloatOperand(operands, 0);
+            float y1 = getFloatOperand(operands, 1);
+            float x2 = getFloatOperand(operands, 2);
+            float y2 = getFloatOperand(operands, 3);
+            float x3 = getFloatOperand(operands, 4);
+            float y3 = getFloatOperand(operands, 5);
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
     }
@@ -1504,10 +1569,10 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x2 = ((PdfNumber) operands.get(0)).floatValue();
-            float y2 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+            float x2 = getFloatOperand(operands, 0);
+            float y2 = getFloatOperand(operands, 1);
+            float x3 = getFloatOperand(operands, 2);
+            float y3 = getFloatOperand(operands, 3);
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
     }
@@ -1521,10 +1586,10 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+            float x1 = getFloatOperand(operands, 0);
+            float y1 = getFloatOperand(operands, 1);
+            float x3 = getFloatOperand(operands, 2);
+            float y3 = getFloatOperand(operands, 3);
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
     }
@@ -1551,10 +1616,10 @@ public class PdfCanvasProcessor {
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
-            float w = ((PdfNumber) operands.get(2)).floatValue();
-            float h = ((PdfNumber) operands.get(3)).floatValue();
+            float x = getFloatOperand(operands, 0);
+            float y = getFloatOperand(operands, 1);
+            float w = getFloatOperand(operands, 2);
+            float h = getFloatOperand(operands, 3);
             processor.currentPath.rectangle(x, y, w, h);
         }
     }
@@ -1615,4 +1680,141 @@ public class PdfCanvasProcessor {
             processor.clippingRule = rule;
         }
     }
+
+    /**
+     * A node of the trie of the registered operators. The operators are looked up by the bytes read by
+     * {@link PdfCanvasLexer}, the operators with characters outside of the printable ASCII range
+     * are only kept in the operators map.
+     */
+    private static class ContentOperatorNode {
+        private static final int MIN_CHAR = '!';
+        private static final int MAX_CHAR = '~';
+
+        private ContentOperatorNode[] children;
+        private IContentOperator operator;
+        private PdfLiteral literal;
+
+        void put(String operatorString, IContentOperator operator) {
+            ContentOperatorNode node = this;
+            for (int i = 0; i < operatorString.length(); i++) {
+                int ch = operatorString.charAt(i);
+                if (ch < MIN_CHAR || ch > MAX_CHAR) {
+                    return;
+                }
+                if (node.children == null) {
+                    node.children = new ContentOperatorNode[MAX_CHAR - MIN_CHAR + 1];
+                }
+                ContentOperatorNode child = node.children[ch - MIN_CHAR];
+                if (child == null) {
+                    child = new ContentOperatorNode();
+                    node.children[ch - MIN_CHAR] = child;
+                }
+                node = child;
+            }
+            if (node.literal == null) {
+                node.literal = new PdfLiteral(operatorString);
+            }
+            node.operator = operator;
+        }
+
+        ContentOperatorNode find(PdfCanvasLexer lexer) {
+            ContentOperatorNode node = this;
+            for (int i = 0; i < lexer.getOperatorLength(); i++) {
+                int ch = lexer.getOperatorByte(i) & 0xff;
+                if (node.children == null || ch < MIN_CHAR || ch > MAX_CHAR) {
+                    return null;
+                }
+                node = node.children[ch - MIN_CHAR];
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The list of the operands of the current command of {@link PdfCanvasLexer} followed by the operator.
+     * The operand objects are created only when they are requested, so that the built-in operators can read
+     * numeric operands without creating {@link PdfNumber} objects. The list is copied on the first modification.
+     */
+    private static class ContentOperandList extends AbstractList<PdfObject> implements RandomAccess {
+        private final PdfCanvasLexer lexer;
+        private PdfLiteral operator;
+        private List<PdfObject> modifiedOperands;
+
+        ContentOperandList(PdfCanvasLexer lexer) {
+            this.lexer = lexer;
+        }
+
+        void reset(PdfLiteral operator) {
+            this.operator = operator;
+            this.modifiedOperands = null;
+        }
+
+        float getFloatOperand(int index) {
+            if (modifiedOperands == null && index < lexer.getOperandsCount() && lexer.isNumberOperand(index)) {
+                return (float) lexer.getNumberOperand(index);
+            }
+            return ((PdfNumber) get(index)).floatValue();
+        }
+
+        @Override
+        public PdfObject get(int index) {
+            if (modifiedOperands != null) {
+                return modifiedOperands.get(index);
+            }
+            if (index == lexer.getOperandsCount()) {
+                return operator;
+            }
+            return lexer.getOperand(index);
+        }
+
+        @Override
+        public int size() {
+            return modifiedOperands != null ? modifiedOperands.size() : lexer.getOperandsCount() + 1;
+        }
+
+        @Override
+        public PdfObject set(int index, PdfObject element) {
+            return getModifiedOperands().set(index, element);
+        }
+
+        @Override
+        public void add(int index, PdfObject element) {
+            getModifiedOperands().add(index, element);
+            ++modCount;
+        }
+
+        @Override
+        public PdfObject remove(int index) {
+            PdfObject removed = getModifiedOperands().remove(index);
+            ++modCount;
+            return removed;
+        }
+
+        private List<PdfObject> getModifiedOperands() {
+            if (modifiedOperands == null) {
+                modifiedOperands = new ArrayList<>(this);
+            }
+            return modifiedOperands;
+        }
+    }
+
+    /**
+     * The {@link ClippingPathInfo} which computes the clipping path only when it is requested.
+     */
+    private static class LazyClippingPathInfo extends ClippingPathInfo {
+        private final ParserGraphicsState.LazyClippingPath lazyClippingPath;
+
+        LazyClippingPathInfo(ParserGraphicsState gs, ParserGraphicsState.LazyClippingPath lazyClippingPath, Matrix ctm) {
+            super(gs, null, ctm);
+            this.lazyClippingPath = lazyClippingPath;
+        }
+
+        @Override
+        public Path getClippingPath() {
+            return lazyClippingPath.getPath();
+        }
+    }
 }
@@ -0,0 +1,221 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Extracts the images drawn on the pages of a document and passes them with their decoded bytes to
+ * an {@link IImageExtractionSink}.
+ */
+public final class PdfImageExtractor {
+
+    private PdfImageExtractor() {
+    }
+
+    /**
+     * Extract the images from the range of pages. The pages are processed one after another in the calling thread.
+     * Each image XObject is extracted only once, at the first page it is drawn on, while inline images are
+     * extracted each time they occur. The images are decoded by the workers of a fork/join pool and passed
+     * to the sink as soon as they are decoded, so they don't necessarily go in the order of pages.
+     * <br>
+     * At most the given number of images are decoded or waiting for the sink at the same time. When this
+     * limit is reached, the processing of the pages waits until the sink consumes an image, so the memory
+     * consumed by the decoded images is limited even if the sink is slower than the decoding.
+     * <br>
+     * Images are decoded concurrently only if the document is opened with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentAccess(boolean)}, otherwise they are decoded
+     * in the calling thread as soon as they are found.
+     * <br>
+     * If decoding an image or the sink fails, no more images are extracted and the exception is rethrown
+     * once the images being decoded are processed.
+     *
+     * @param document         the document for the images to be extracted from
+     * @param startPage        the number of the first page of the range
+     * @param endPage          the number of the last page of the range, inclusive
+     * @param sink             the sink to pass the extracted images to
+     * @param parallelism      the maximum number of images decoded at the same time
+     * @param maxPendingImages the maximum number of images decoded or waiting for the sink at the same time
+     */
+    public static void extractImages(PdfDocument document, int startPage, int endPage, IImageExtractionSink sink,
+            int parallelism, int maxPendingImages) {
+        if (startPage < 1 || endPage > document.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException(MessageFormatUtil.format(PdfException.RequestedPageNumberIsOutOfBounds,
+                    startPage < 1 ? startPage : endPage));
+        }
+        ForkJoinPool pool = null;
+        if (parallelism > 1 && document.getReader() != null && document.getReader().isConcurrentAccess()) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        ImageCollector collector = new ImageCollector(sink, pool, Math.max(maxPendingImages, 1));
+        try {
+            PdfCanvasProcessor processor = new PdfCanvasProcessor(collector);
+            for (int pageNumber = startPage; pageNumber <= endPage && !collector.isFailed(); pageNumber++) {
+                collector.pageNumber = pageNumber;
+                processor.reset();
+                processor.processPageContent(document.getPage(pageNumber));
+            }
+        } finally {
+            collector.awaitPendingImages();
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        collector.rethrowFailure();
+    }
+
+    /**
+     * Extract the images from all pages of the document using a fork/join pool with a worker per
+     * available processor. See {@link #extractImages(PdfDocument, int, int, IImageExtractionSink, int, int)}
+     * for details.
+     *
+     * @param document the document for the images to be extracted from
+     * @param sink     the sink to pass the extracted images to
+     */
+    public static void extractImages(PdfDocument document, IImageExtractionSink sink) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        extractImages(document, 1, document.getNumberOfPages(), sink, parallelism, 2 * parallelism);
+    }
+
+    /**
+     * Collects the images of the pages and either decodes them at once or submits them to the pool.
+     */
+    private static class ImageCollector implements IEventListener {
+        private final IImageExtractionSink sink;
+        private final ForkJoinPool pool;
+        private final int maxPendingImages;
+        private final Semaphore pendingImages;
+        private final Set<PdfIndirectReference> extractedImages = new HashSet<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final Object sinkLock = new Object();
+        private int pageNumber;
+
+        ImageCollector(IImageExtractionSink sink, ForkJoinPool pool, int maxPendingImages) {
+            this.sink = sink;
+            this.pool = pool;
+            this.maxPendingImages = maxPendingImages;
+            this.pendingImages = new Semaphore(maxPendingImages);
+        }
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            if (type != EventType.RENDER_IMAGE || isFailed()) {
+                return;
+            }
+            final PdfImageXObject image = ((ImageRenderInfo) data).getImage();
+            PdfIndirectReference reference = image.getPdfObject().getIndirectReference();
+            if (reference != null && !extractedImages.add(reference)) {
+                return;
+            }
+            if (pool == null) {
+                passToSink(new ExtractedImage(image, pageNumber, image.getImageBytes()));
+                return;
+            }
+
+            pendingImages.acquireUninterruptibly();
+            final int imagePageNumber = pageNumber;
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (!isFailed()) {
+                            passToSink(new ExtractedImage(image, imagePageNumber, image.getImageBytes()));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        pendingImages.release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return Collections.singleton(EventType.RENDER_IMAGE);
+        }
+
+        boolean isFailed() {
+            return failure.get() != null;
+        }
+
+        void awaitPendingImages() {
+            if (pool != null) {
+                pendingImages.acquireUninterruptibly(maxPendingImages);
+                pendingImages.release(maxPendingImages);
+            }
+        }
+
+        void rethrowFailure() {
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            } else if (e instanceof Error) {
+                throw (Error) e;
+            } else if (e != null) {
+                throw new PdfException(e);
+            }
+        }
+
+        private void passToSink(ExtractedImage extractedImage) {
+            synchronized (sinkLock) {
+                sink.imageExtracted(extractedImage);
+            }
+        }
+    }
+}
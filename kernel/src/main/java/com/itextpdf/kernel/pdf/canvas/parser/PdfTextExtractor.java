@@ -43,12 +43,29 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.MultiRegionTextEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfPage;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class PdfTextExtractor {
 
@@ -93,4 +110,264 @@ public final class PdfTextExtractor {
     public static String getTextFromPage(PdfPage page) {
         return getTextFromPage(page, new LocationTextExtractionStrategy());
     }
+
+    /**
+     * Extract text from several regions of a specified page with a single pass over the page content.
+     * The text of each region is extracted with a {@link LocationTextExtractionStrategy}, see
+     * {@link MultiRegionTextEventListener} for details.
+     *
+     * @param page    the page for the text to be extracted from
+     * @param regions the regions of the page
+     * @return the list of extracted texts in the order of regions
+     */
+    public static List<String> getTextFromRegions(PdfPage page, List<Rectangle> regions) {
+        MultiRegionTextEventListener listener = new MultiRegionTextEventListener();
+        List<LocationTextExtractionStrategy> strategies = new ArrayList<>(regions.size());
+        for (Rectangle region : regions) {
+            strategies.add(listener.addRegion(region));
+        }
+        new PdfCanvasProcessor(listener).processPageContent(page);
+        List<String> texts = new ArrayList<>(strategies.size());
+        for (LocationTextExtractionStrategy strategy : strategies) {
+            texts.add(strategy.getResultantText());
+        }
+        return texts;
+    }
+
+    /**
+     * Extract text from the range of pages using a fork/join pool.
+     * Each worker thread uses its own {@link PdfCanvasProcessor}, while the fonts are shared by all the workers.
+     * A new strategy is created for each page.
+     * <br>
+     * Pages are processed concurrently only if the document is opened with
+     * {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentAccess(boolean)}, otherwise they are processed
+     * one after another in the calling thread. The strategies and the additional content operators shall be
+     * thread-safe, if the same instances are used by several workers.
+     *
+     * @param document                   the document for the text to be extracted from
+     * @param startPage                  the number of the first page of the range
+     * @param endPage                    the number of the last page of the range, inclusive
+     * @param strategyFactory            the factory of strategies to use for extracting text
+     * @param additionalContentOperators an optional map of custom {@link IContentOperator}s for rendering instructions
+     * @param parallelism                the maximum number of pages processed at the same time
+     * @return the list of extracted texts in the order of pages
+     */
+    public static List<String> getTextFromPages(PdfDocument document, int startPage, int endPage,
+            ITextExtractionStrategyFactory strategyFactory, Map<String, IContentOperator> additionalContentOperators,
+            int parallelism) {
+        if (startPage < 1 || endPage > document.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException(MessageFormatUtil.format(PdfException.RequestedPageNumberIsOutOfBounds,
+                    startPage < 1 ? startPage : endPage));
+        }
+        if (endPage < startPage) {
+            return new ArrayList<>();
+        }
+        String[] texts = new String[endPage - startPage + 1];
+        AtomicInteger nextPage = new AtomicInteger(startPage);
+        int workersCount = Math.min(parallelism, texts.length);
+        if (workersCount <= 1 || document.getReader() == null || !document.getReader().isConcurrentAccess()) {
+            new PageTextExtractionWorker(document, startPage, endPage, nextPage, texts, strategyFactory,
+                    additionalContentOperators).compute();
+        } else {
+            final List<PageTextExtractionWorker> workers = new ArrayList<>(workersCount);
+            for (int i = 0; i < workersCount; i++) {
+                workers.add(new PageTextExtractionWorker(document, startPage, endPage, nextPage, texts,
+                        strategyFactory, additionalContentOperators));
+            }
+            ForkJoinPool pool = new ForkJoinPool(workersCount);
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(workers);
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return Arrays.asList(texts);
+    }
+
+    /**
+     * Extract text from all pages of the document using a fork/join pool with a worker per available processor.
+     * See {@link #getTextFromPages(PdfDocument, int, int, ITextExtractionStrategyFactory, Map, int)} for details.
+     *
+     * @param document        the document for the text to be extracted from
+     * @param strategyFactory the factory of strategies to use for extracting text
+     * @return the list of extracted texts in the order of pages
+     */
+    public static List<String> getTextFromPages(PdfDocument document, ITextExtractionStrategyFactory strategyFactory) {
+        return getTextFromPages(document, 1, document.getNumberOfPages(), strategyFactory,
+                new HashMap<String, IContentOperator>(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Extract text from all pages of the document with the default strategy using a fork/join pool
+     * with a worker per available processor.
+     * Note: the default strategy is subject to change. If using a specific strategy
+     * is important, please use {@link PdfTextExtractor#getTextFromPages(PdfDocument, ITextExtractionStrategyFactory)}.
+     *
+     * @param document the document for the text to be extracted from
+     * @return the list of extracted texts in the order of pages
+     */
+    public static List<String> getTextFromPages(PdfDocument document) {
+        return getTextFromPages(document, new ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy() {
+                return new LocationTextExtractionStrategy();
+            }
+        });
+    }
+
+    /**
+     * Extract text from the pages of the document one by one as the returned iterator is advanced, which suits
+     * processing huge documents, e.g. feeding the text to a search indexer. The pages are processed with the same
+     * {@link PdfCanvasProcessor} and a new strategy is created for each page. Once the text of a page is extracted,
+     * the content of the page is released with {@link PdfPage#releaseContent()}, so the memory consumed
+     * by the content streams and resources of the processed pages can be reclaimed.
+     *
+     * @param document        the document for the text to be extracted from
+     * @param strategyFactory the factory of strategies to use for extracting text
+     * @return the iterator over the extracted texts in the order of pages
+     */
+    public static Iterator<String> iterateTextFromPages(PdfDocument document,
+            ITextExtractionStrategyFactory strategyFactory) {
+        return new PageTextIterator(document, strategyFactory);
+    }
+
+    /**
+     * Extract text from the pages of the document one by one with the default strategy.
+     * See {@link #iterateTextFromPages(PdfDocument, ITextExtractionStrategyFactory)} for details.
+     * Note: the default strategy is subject to change. If using a specific strategy
+     * is important, please use {@link PdfTextExtractor#iterateTextFromPages(PdfDocument, ITextExtractionStrategyFactory)}.
+     *
+     * @param document the document for the text to be extracted from
+     * @return the iterator over the extracted texts in the order of pages
+     */
+    public static Iterator<String> iterateTextFromPages(PdfDocument document) {
+        return iterateTextFromPages(document, new ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy() {
+                return new LocationTextExtractionStrategy();
+            }
+        });
+    }
+
+    /**
+     * Takes the next page of the range until all pages are processed. The worker processes pages with the same
+     * {@link PdfCanvasProcessor} and passes the events to the strategy of the current page.
+     */
+    private static class PageTextExtractionWorker extends RecursiveAction implements IEventListener {
+        private static final long serialVersionUID = 6004727245361738254L;
+
+        private final PdfDocument document;
+        private final int startPage;
+        private final int endPage;
+        private final AtomicInteger nextPage;
+        private final String[] texts;
+        private final ITextExtractionStrategyFactory strategyFactory;
+        private final Map<String, IContentOperator> additionalContentOperators;
+        private ITextExtractionStrategy strategy;
+
+        PageTextExtractionWorker(PdfDocument document, int startPage, int endPage, AtomicInteger nextPage,
+                String[] texts, ITextExtractionStrategyFactory strategyFactory,
+                Map<String, IContentOperator> additionalContentOperators) {
+            this.document = document;
+            this.startPage = startPage;
+            this.endPage = endPage;
+            this.nextPage = nextPage;
+            this.texts = texts;
+            this.strategyFactory = strategyFactory;
+            this.additionalContentOperators = additionalContentOperators;
+        }
+
+        @Override
+        protected void compute() {
+            PdfCanvasProcessor processor = null;
+            int pageNumber;
+            while ((pageNumber = nextPage.getAndIncrement()) <= endPage) {
+                strategy = strategyFactory.createStrategy();
+                if (processor == null) {
+                    // the supported events of the first strategy are used for all pages
+                    processor = new PdfCanvasProcessor(this, additionalContentOperators);
+                } else {
+                    processor.reset();
+                }
+                processor.processPageContent(document.getPage(pageNumber));
+                texts[pageNumber - startPage] = strategy.getResultantText();
+            }
+            strategy = null;
+        }
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            strategy.eventOccurred(data, type);
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return strategy.getSupportedEvents();
+        }
+    }
+
+    /**
+     * Extracts the text of the next page on each {@link #next()} call and releases the content of the page afterwards.
+     */
+    private static class PageTextIterator implements Iterator<String>, IEventListener {
+        private final PdfDocument document;
+        private final ITextExtractionStrategyFactory strategyFactory;
+        private PdfCanvasProcessor processor;
+        private ITextExtractionStrategy strategy;
+        private int nextPage = 1;
+
+        PageTextIterator(PdfDocument document, ITextExtractionStrategyFactory strategyFactory) {
+            this.document = document;
+            this.strategyFactory = strategyFactory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextPage <= document.getNumberOfPages();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            strategy = strategyFactory.createStrategy();
+            if (processor == null) {
+                // the supported events of the first strategy are used for all pages
+                processor = new PdfCanvasProcessor(this);
+            } else {
+                processor.reset();
+            }
+            PdfPage page = document.getPage(nextPage++);
+            String text;
+            try {
+                processor.processPageContent(page);
+                text = strategy.getResultantText();
+            } finally {
+                strategy = null;
+                page.releaseContent();
+            }
+            return text;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            strategy.eventOccurred(data, type);
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return strategy.getSupportedEvents();
+        }
+    }
 }
@@ -65,6 +65,10 @@ public class ImageRenderInfo extends AbstractRenderInfo {
      * The coordinate transformation matrix that was in effect when the image was rendered
      */
     private Matrix ctm;
+    private PdfStream imageStream;
+    /**
+     * The image wrapping {@link #imageStream}, which is created only if requested
+     */
     private PdfImageXObject image;
     /**
      * the color space dictionary from resources which are associated with the image
@@ -95,7 +99,7 @@ public class ImageRenderInfo extends AbstractRenderInfo {
         this.canvasTagHierarchy = Collections.<CanvasTag>unmodifiableList(new ArrayList<>(canvasTagHierarchy));
         this.resourceName = resourceName;
         this.ctm = ctm;
-        this.image = new PdfImageXObject(imageStream);
+        this.imageStream = imageStream;
         this.colorSpaceDictionary = colorSpaceDictionary;
         this.isInline = isInline;
     }
@@ -111,6 +115,9 @@ public class ImageRenderInfo extends AbstractRenderInfo {
      * </ul>
      */
     public PdfImageXObject getImage() {
+        if (image == null) {
+            image = new PdfImageXObject(imageStream);
+        }
         return image;
     }
 
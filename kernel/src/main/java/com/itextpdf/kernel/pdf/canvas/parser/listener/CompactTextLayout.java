@@ -0,0 +1,213 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import java.io.Serializable;
+
+/**
+ * The compact representation of the text of a page together with its layout. The information on the glyphs is
+ * stored in parallel arrays of primitives, i.e. column by column, rather than in an object per glyph, so
+ * it takes little memory and can be serialized fast.
+ * <br/>
+ * The glyphs go in the order they are drawn on the page. All the coordinates are in the user space.
+ * Use {@link CompactTextLayoutListener} to create an instance of this class.
+ */
+public class CompactTextLayout implements Serializable {
+
+    private static final long serialVersionUID = -2837104462309172736L;
+
+    private final int glyphCount;
+    private final float[] startXs;
+    private final float[] startYs;
+    private final float[] endXs;
+    private final float[] endYs;
+    private final float[] fontSizes;
+    private final int[] fontIds;
+    private final int[] codePoints;
+    /**
+     * The offsets of the glyphs' texts in {@link #text}. The text of the i-th glyph lies between
+     * the i-th and the (i+1)-th offsets.
+     */
+    private final int[] textOffsets;
+    private final String text;
+    private final String[] fontNames;
+
+    CompactTextLayout(int glyphCount, float[] startXs, float[] startYs, float[] endXs, float[] endYs, float[] fontSizes,
+            int[] fontIds, int[] codePoints, int[] textOffsets, String text, String[] fontNames) {
+        this.glyphCount = glyphCount;
+        this.startXs = startXs;
+        this.startYs = startYs;
+        this.endXs = endXs;
+        this.endYs = endYs;
+        this.fontSizes = fontSizes;
+        this.fontIds = fontIds;
+        this.codePoints = codePoints;
+        this.textOffsets = textOffsets;
+        this.text = text;
+        this.fontNames = fontNames;
+    }
+
+    /**
+     * Gets the number of the glyphs.
+     *
+     * @return the number of the glyphs
+     */
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+
+    /**
+     * Gets the x coordinate of the start point of the glyph's baseline.
+     *
+     * @param glyph the index of the glyph
+     * @return the x coordinate of the start point of the baseline
+     */
+    public float getStartX(int glyph) {
+        return startXs[glyph];
+    }
+
+    /**
+     * Gets the y coordinate of the start point of the glyph's baseline.
+     *
+     * @param glyph the index of the glyph
+     * @return the y coordinate of the start point of the baseline
+     */
+    public float getStartY(int glyph) {
+        return startYs[glyph];
+    }
+
+    /**
+     * Gets the x coordinate of the end point of the glyph's baseline.
+     *
+     * @param glyph the index of the glyph
+     * @return the x coordinate of the end point of the baseline
+     */
+    public float getEndX(int glyph) {
+        return endXs[glyph];
+    }
+
+    /**
+     * Gets the y coordinate of the end point of the glyph's baseline.
+     *
+     * @param glyph the index of the glyph
+     * @return the y coordinate of the end point of the baseline
+     */
+    public float getEndY(int glyph) {
+        return endYs[glyph];
+    }
+
+    /**
+     * Gets the size of the glyph's font scaled to the user space.
+     *
+     * @param glyph the index of the glyph
+     * @return the font size in the user space
+     */
+    public float getFontSize(int glyph) {
+        return fontSizes[glyph];
+    }
+
+    /**
+     * Gets the id of the glyph's font. The ids are the indices of the fonts in the order they are first used
+     * on the page.
+     *
+     * @param glyph the index of the glyph
+     * @return the id of the font
+     * @see #getFontName(int)
+     */
+    public int getFontId(int glyph) {
+        return fontIds[glyph];
+    }
+
+    /**
+     * Gets the first code point of the glyph's text.
+     *
+     * @param glyph the index of the glyph
+     * @return the first code point of the text or -1 if the text is empty
+     */
+    public int getCodePoint(int glyph) {
+        return codePoints[glyph];
+    }
+
+    /**
+     * Gets the text of the glyph. In general case it might consist of many characters, e.g. for ligatures.
+     *
+     * @param glyph the index of the glyph
+     * @return the text of the glyph
+     */
+    public String getGlyphText(int glyph) {
+        if (glyph < 0 || glyph >= glyphCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(glyph));
+        }
+        return text.substring(textOffsets[glyph], textOffsets[glyph + 1]);
+    }
+
+    /**
+     * Gets the text of all the glyphs in the order they are drawn, without any separators.
+     *
+     * @return the text of all the glyphs
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the number of the fonts used on the page.
+     *
+     * @return the number of the fonts
+     */
+    public int getFontCount() {
+        return fontNames.length;
+    }
+
+    /**
+     * Gets the name of the font by its id.
+     *
+     * @param fontId the id of the font
+     * @return the name of the font or null if the font has no name
+     * @see #getFontId(int)
+     */
+    public String getFontName(int fontId) {
+        return fontNames[fontId];
+    }
+}
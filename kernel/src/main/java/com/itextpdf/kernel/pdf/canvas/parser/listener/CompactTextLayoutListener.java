@@ -0,0 +1,221 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfType0Font;
+import com.itextpdf.kernel.geom.LineSegment;
+import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.canvas.CanvasGraphicsState;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An event listener which collects the glyphs of the page into a {@link CompactTextLayout}.
+ * Unlike {@link GlyphEventListener} it doesn't create a {@link TextRenderInfo} per glyph, but computes the
+ * positions of the glyphs of a text render event directly and appends them to the growing columns.
+ * The positions are the same as the ones of the baselines of {@link TextRenderInfo#getCharacterRenderInfos()}.
+ * <br/>
+ * A listener is supposed to be used for a single page.
+ */
+public class CompactTextLayoutListener implements IEventListener {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final Set<EventType> SUPPORTED_EVENTS = Collections.singleton(EventType.RENDER_TEXT);
+
+    private int glyphCount;
+    private float[] startXs = new float[INITIAL_CAPACITY];
+    private float[] startYs = new float[INITIAL_CAPACITY];
+    private float[] endXs = new float[INITIAL_CAPACITY];
+    private float[] endYs = new float[INITIAL_CAPACITY];
+    private float[] fontSizes = new float[INITIAL_CAPACITY];
+    private int[] fontIds = new int[INITIAL_CAPACITY];
+    private int[] codePoints = new int[INITIAL_CAPACITY];
+    private int[] textOffsets = new int[INITIAL_CAPACITY + 1];
+    private final StringBuilder text = new StringBuilder();
+
+    private final Map<PdfFont, Integer> fontIdsByFont = new IdentityHashMap<>();
+    private final List<String> fontNames = new ArrayList<>();
+
+    @Override
+    public void eventOccurred(IEventData data, EventType type) {
+        if (type == EventType.RENDER_TEXT) {
+            addText((TextRenderInfo) data);
+        }
+    }
+
+    @Override
+    public Set<EventType> getSupportedEvents() {
+        return SUPPORTED_EVENTS;
+    }
+
+    /**
+     * Gets the layout of the glyphs collected so far.
+     *
+     * @return the layout of the collected glyphs
+     */
+    public CompactTextLayout getLayout() {
+        return new CompactTextLayout(glyphCount, Arrays.copyOf(startXs, glyphCount), Arrays.copyOf(startYs, glyphCount),
+                Arrays.copyOf(endXs, glyphCount), Arrays.copyOf(endYs, glyphCount), Arrays.copyOf(fontSizes, glyphCount),
+                Arrays.copyOf(fontIds, glyphCount), Arrays.copyOf(codePoints, glyphCount),
+                Arrays.copyOf(textOffsets, glyphCount + 1), text.toString(), fontNames.toArray(new String[fontNames.size()]));
+    }
+
+    private void addText(TextRenderInfo renderInfo) {
+        PdfFont font = renderInfo.getFont();
+        PdfString string = renderInfo.getPdfString();
+        GlyphLine glyphLine = font.decodeIntoGlyphLine(string);
+        boolean type0Font = font instanceof PdfType0Font;
+        byte[] bytes = string.getValueBytes();
+        if (!type0Font && glyphLine.end - glyphLine.start != bytes.length) {
+            // some bytes are not decoded into glyphs, but they are still moving the position of the next glyphs
+            addCharacterRenderInfos(renderInfo, getFontId(font));
+            return;
+        }
+
+        CanvasGraphicsState gs = renderInfo.getGraphicsState();
+        Matrix textToUserSpace = renderInfo.getTextMatrix().multiply(gs.getCtm());
+        float i11 = textToUserSpace.get(Matrix.I11);
+        float i12 = textToUserSpace.get(Matrix.I12);
+        float i21 = textToUserSpace.get(Matrix.I21);
+        float i22 = textToUserSpace.get(Matrix.I22);
+        float i31 = textToUserSpace.get(Matrix.I31);
+        float i32 = textToUserSpace.get(Matrix.I32);
+
+        float fontSize = gs.getFontSize();
+        float charSpacing = gs.getCharSpacing();
+        float wordSpacing = gs.getWordSpacing();
+        float horizontalScaling = gs.getHorizontalScaling() / 100f;
+        float rise = gs.getTextRise();
+        double fontMatrixScale = font.getFontMatrix()[0];
+        float userSpaceFontSize = new Vector(0, fontSize, 0).cross(textToUserSpace).length();
+        int fontId = getFontId(font);
+        // the word spacing is applied to the single byte code 32 only
+        boolean singleByteSpacePossible = !type0Font || ((PdfType0Font) font).getCmap().containsCodeInCodeSpaceRange(' ', 1);
+
+        float offset = 0;
+        for (int i = glyphLine.start; i < glyphLine.end; i++) {
+            Glyph glyph = glyphLine.get(i);
+            float width = (float) (glyph.getWidth() * fontMatrixScale);
+            boolean space = singleByteSpacePossible && (type0Font ? isSingleByteSpace(font.convertToBytes(glyph))
+                    : bytes[i - glyphLine.start] == ' ');
+            float spacing = charSpacing + (space ? wordSpacing : 0);
+            float baselineWidth = width * fontSize * horizontalScaling;
+
+            ensureCapacity(glyphCount + 1);
+            startXs[glyphCount] = offset * i11 + rise * i21 + i31;
+            startYs[glyphCount] = offset * i12 + rise * i22 + i32;
+            endXs[glyphCount] = (offset + baselineWidth) * i11 + rise * i21 + i31;
+            endYs[glyphCount] = (offset + baselineWidth) * i12 + rise * i22 + i32;
+            fontSizes[glyphCount] = userSpaceFontSize;
+            fontIds[glyphCount] = fontId;
+            appendText(glyph.getUnicodeChars());
+
+            offset += (width * fontSize + spacing) * horizontalScaling;
+        }
+    }
+
+    private void addCharacterRenderInfos(TextRenderInfo renderInfo, int fontId) {
+        for (TextRenderInfo characterRenderInfo : renderInfo.getCharacterRenderInfos()) {
+            LineSegment baseline = characterRenderInfo.getBaseline();
+            ensureCapacity(glyphCount + 1);
+            startXs[glyphCount] = baseline.getStartPoint().get(Vector.I1);
+            startYs[glyphCount] = baseline.getStartPoint().get(Vector.I2);
+            endXs[glyphCount] = baseline.getEndPoint().get(Vector.I1);
+            endYs[glyphCount] = baseline.getEndPoint().get(Vector.I2);
+            Matrix textToUserSpace = characterRenderInfo.getTextMatrix().multiply(characterRenderInfo.getGraphicsState().getCtm());
+            fontSizes[glyphCount] = new Vector(0, characterRenderInfo.getFontSize(), 0).cross(textToUserSpace).length();
+            fontIds[glyphCount] = fontId;
+            appendText(characterRenderInfo.getText().toCharArray());
+        }
+    }
+
+    private void appendText(char[] chars) {
+        codePoints[glyphCount] = chars.length > 0 ? Character.codePointAt(chars, 0) : -1;
+        text.append(chars);
+        textOffsets[++glyphCount] = text.length();
+    }
+
+    private int getFontId(PdfFont font) {
+        Integer fontId = fontIdsByFont.get(font);
+        if (fontId == null) {
+            fontId = fontNames.size();
+            fontIdsByFont.put(font, fontId);
+            fontNames.add(font.getFontProgram() != null ? font.getFontProgram().getFontNames().getFontName() : null);
+        }
+        return (int) fontId;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > startXs.length) {
+            int newCapacity = Math.max(capacity, startXs.length * 2);
+            startXs = Arrays.copyOf(startXs, newCapacity);
+            startYs = Arrays.copyOf(startYs, newCapacity);
+            endXs = Arrays.copyOf(endXs, newCapacity);
+            endYs = Arrays.copyOf(endYs, newCapacity);
+            fontSizes = Arrays.copyOf(fontSizes, newCapacity);
+            fontIds = Arrays.copyOf(fontIds, newCapacity);
+            codePoints = Arrays.copyOf(codePoints, newCapacity);
+            textOffsets = Arrays.copyOf(textOffsets, newCapacity + 1);
+        }
+    }
+
+    private static boolean isSingleByteSpace(byte[] bytes) {
+        return bytes.length == 1 && bytes[0] == ' ';
+    }
+}
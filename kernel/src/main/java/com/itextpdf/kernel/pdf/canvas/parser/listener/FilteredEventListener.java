@@ -47,6 +47,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.filter.IEventFilter;
 import com.itextpdf.kernel.pdf.canvas.parser.EventType;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -115,8 +116,28 @@ public class FilteredEventListener implements IEventListener {
         }
     }
 
+    /**
+     * Gets the events supported by any of the delegates, so that the content which none of them is interested in
+     * is not processed. Note, the delegates shall be attached before the listener is passed to a
+     * {@link com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor}, since the processor gets the supported events
+     * only once.
+     *
+     * @return the union of the events supported by the delegates, or null if any of them supports all events
+     * or there are no delegates
+     */
     @Override
     public Set<EventType> getSupportedEvents() {
-        return null;
+        if (delegates.isEmpty()) {
+            return null;
+        }
+        Set<EventType> supportedEvents = new LinkedHashSet<>();
+        for (IEventListener delegate : delegates) {
+            Set<EventType> delegateEvents = delegate.getSupportedEvents();
+            if (delegateEvents == null) {
+                return null;
+            }
+            supportedEvents.addAll(delegateEvents);
+        }
+        return supportedEvents;
     }
 }
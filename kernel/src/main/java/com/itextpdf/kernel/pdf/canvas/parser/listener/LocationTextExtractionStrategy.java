@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf.canvas.parser.listener;
 
 import com.itextpdf.kernel.geom.LineSegment;
 import com.itextpdf.kernel.geom.Matrix;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.geom.Vector;
 import com.itextpdf.kernel.pdf.canvas.CanvasTag;
 import com.itextpdf.kernel.pdf.canvas.parser.EventType;
@@ -52,7 +53,10 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,11 +69,40 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
      */
     private static boolean DUMP_STATE = false;
 
+    private static final Set<EventType> SUPPORTED_EVENTS = Collections.singleton(EventType.RENDER_TEXT);
+
+    /**
+     * the height of the rows of the region index
+     */
+    private static final float REGION_INDEX_ROW_HEIGHT = 16;
+
+    /**
+     * the maximum number of rows of the region index a chunk may be put into,
+     * the chunks spanning more rows are checked by each region query
+     */
+    private static final int REGION_INDEX_MAX_CHUNK_ROWS = 256;
+
     /**
      * a summary of all found text
      */
     private final List<TextChunk> locationalResult = new ArrayList<>();
 
+    /**
+     * the baselines of the found text chunks as it is rendered, four coordinates for each chunk
+     */
+    private float[] baselines = new float[64];
+
+    /**
+     * the indices of the found text chunks by the rows of the page their baselines cross,
+     * it's built on the first region query
+     */
+    private Map<Integer, List<Integer>> regionIndex;
+
+    /**
+     * the indices of the found text chunks which cross too many rows to be put into the region index
+     */
+    private List<Integer> unindexedChunks;
+
     private final ITextChunkLocationStrategy tclStrat;
 
     private boolean useActualText = false;
@@ -141,6 +174,7 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         if (type.equals(EventType.RENDER_TEXT)) {
             TextRenderInfo renderInfo = (TextRenderInfo) data;
             LineSegment segment = renderInfo.getBaseline();
+            LineSegment renderedSegment = segment;
             if (renderInfo.getRise() != 0) {
                 // remove the rise from the baseline - we do this because the text from a super/subscript render operations should probably be considered as part of the baseline of the text the super/sub is relative to
                 Matrix riseOffsetTransform = new Matrix(0, -renderInfo.getRise());
@@ -163,31 +197,84 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
                     TextChunk merged = new TextChunk(lastTextChunk.getText(), tclStrat.createLocation(renderInfo,
                             new LineSegment(mergedStart, mergedEnd)));
                     locationalResult.set(locationalResult.size() - 1, merged);
+                    mergeBaseline(locationalResult.size() - 1, renderedSegment);
                 } else {
                     String actualText = renderInfo.getActualText();
                     TextChunk tc = new TextChunk(actualText != null ? actualText : renderInfo.getText(),
                             tclStrat.createLocation(renderInfo, segment));
                     locationalResult.add(tc);
+                    addBaseline(renderedSegment);
                 }
             } else {
                 TextChunk tc = new TextChunk(renderInfo.getText(), tclStrat.createLocation(renderInfo, segment));
                 locationalResult.add(tc);
+                addBaseline(renderedSegment);
             }
 
             lastTextRenderInfo = renderInfo;
+            regionIndex = null;
         }
     }
 
+    /**
+     * Gets the events the strategy is interested in, which are only the {@link EventType#RENDER_TEXT} events,
+     * so that the paths, clipping paths and images are not processed. Subclasses handling other events shall
+     * override this method.
+     *
+     * @return the set of the supported events
+     */
     @Override
     public Set<EventType> getSupportedEvents() {
-        return null;
+        return SUPPORTED_EVENTS;
     }
 
     @Override
     public String getResultantText() {
         if (DUMP_STATE) dumpState();
 
-        List<TextChunk> textChunks = new ArrayList<>(locationalResult);
+        return getResultantText(new ArrayList<>(locationalResult));
+    }
+
+    /**
+     * Returns the text of the chunks whose baselines intersect the region. The chunks are found with
+     * an index over the rows of the page, so the text of many regions can be extracted after a single
+     * pass over the content instead of processing the content with a {@link
+     * com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter} for each region.
+     * The result is the same as the one of this strategy with the events filtered by a
+     * {@link com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter}, except for the chunks
+     * merged by /ActualText, which are checked by their merged baselines as a whole.
+     *
+     * @param region the region of the page the text of which is to be returned
+     * @return the text of the region
+     */
+    public String getResultantText(Rectangle region) {
+        if (regionIndex == null) {
+            buildRegionIndex();
+        }
+        BitSet checkedChunks = new BitSet(locationalResult.size());
+        BitSet foundChunks = new BitSet(locationalResult.size());
+        findChunksInRegion(unindexedChunks, region, checkedChunks, foundChunks);
+        int firstRow = getRegionIndexRow(region.getBottom());
+        int lastRow = getRegionIndexRow(region.getTop());
+        if ((long) lastRow - firstRow < regionIndex.size()) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                findChunksInRegion(regionIndex.get(row), region, checkedChunks, foundChunks);
+            }
+        } else {
+            for (Map.Entry<Integer, List<Integer>> rowChunks : regionIndex.entrySet()) {
+                if (rowChunks.getKey() >= firstRow && rowChunks.getKey() <= lastRow) {
+                    findChunksInRegion(rowChunks.getValue(), region, checkedChunks, foundChunks);
+                }
+            }
+        }
+        List<TextChunk> textChunks = new ArrayList<>(foundChunks.cardinality());
+        for (int i = foundChunks.nextSetBit(0); i >= 0; i = foundChunks.nextSetBit(i + 1)) {
+            textChunks.add(locationalResult.get(i));
+        }
+        return getResultantText(textChunks);
+    }
+
+    private String getResultantText(List<TextChunk> textChunks) {
         sortWithMarks(textChunks);
 
         StringBuilder sb = new StringBuilder();
@@ -249,6 +336,69 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         return str.length() != 0 && str.charAt(str.length() - 1) == ' ';
     }
 
+    private void addBaseline(LineSegment segment) {
+        int offset = (locationalResult.size() - 1) * 4;
+        if (offset + 4 > baselines.length) {
+            baselines = Arrays.copyOf(baselines, baselines.length * 2);
+        }
+        baselines[offset] = segment.getStartPoint().get(Vector.I1);
+        baselines[offset + 1] = segment.getStartPoint().get(Vector.I2);
+        baselines[offset + 2] = segment.getEndPoint().get(Vector.I1);
+        baselines[offset + 3] = segment.getEndPoint().get(Vector.I2);
+    }
+
+    private void mergeBaseline(int chunkIndex, LineSegment segment) {
+        int offset = chunkIndex * 4;
+        baselines[offset] = Math.min(baselines[offset], segment.getStartPoint().get(Vector.I1));
+        baselines[offset + 1] = Math.min(baselines[offset + 1], segment.getStartPoint().get(Vector.I2));
+        baselines[offset + 2] = Math.max(baselines[offset + 2], segment.getEndPoint().get(Vector.I1));
+        baselines[offset + 3] = Math.max(baselines[offset + 3], segment.getEndPoint().get(Vector.I2));
+    }
+
+    private void buildRegionIndex() {
+        regionIndex = new HashMap<>();
+        unindexedChunks = new ArrayList<>();
+        for (int i = 0; i < locationalResult.size(); i++) {
+            float y1 = baselines[i * 4 + 1];
+            float y2 = baselines[i * 4 + 3];
+            int firstRow = getRegionIndexRow(Math.min(y1, y2));
+            int lastRow = getRegionIndexRow(Math.max(y1, y2));
+            if ((long) lastRow - firstRow >= REGION_INDEX_MAX_CHUNK_ROWS) {
+                unindexedChunks.add(i);
+                continue;
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                List<Integer> rowChunks = regionIndex.get(row);
+                if (rowChunks == null) {
+                    rowChunks = new ArrayList<>();
+                    regionIndex.put(row, rowChunks);
+                }
+                rowChunks.add(i);
+            }
+        }
+    }
+
+    private static int getRegionIndexRow(float y) {
+        return (int) Math.floor(y / REGION_INDEX_ROW_HEIGHT);
+    }
+
+    private void findChunksInRegion(List<Integer> chunkIndices, Rectangle region, BitSet checkedChunks,
+            BitSet foundChunks) {
+        if (chunkIndices == null) {
+            return;
+        }
+        for (int chunkIndex : chunkIndices) {
+            if (!checkedChunks.get(chunkIndex)) {
+                checkedChunks.set(chunkIndex);
+                int offset = chunkIndex * 4;
+                if (region.intersectsLine(baselines[offset], baselines[offset + 1], baselines[offset + 2],
+                        baselines[offset + 3])) {
+                    foundChunks.set(chunkIndex);
+                }
+            }
+        }
+    }
+
     /**
      * Used for debugging only
      */
@@ -274,33 +424,29 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         Map<TextChunk, TextChunkMarks> marks = new HashMap<>();
         List<TextChunk> toSort = new ArrayList<>();
 
+        // the chunks a mark can be attached to are looked up by the distance perpendicular to their orientation,
+        // since the mark shall be close to the baseline of the chunk
+        Map<Integer, List<Integer>> basesByDistPerpendicular = null;
         for (int markInd = 0; markInd < textChunks.size(); markInd++) {
             ITextChunkLocation location = textChunks.get(markInd).getLocation();
             if (location.getStartLocation().equals(location.getEndLocation())) {
-                boolean foundBaseToAttachTo = false;
-                for (int baseInd = 0; baseInd < textChunks.size(); baseInd++) {
-                    if (markInd != baseInd) {
-                        ITextChunkLocation baseLocation = textChunks.get(baseInd).getLocation();
-                        if (!baseLocation.getStartLocation().equals(baseLocation.getEndLocation()) && TextChunkLocationDefaultImp.containsMark(baseLocation, location)) {
-                            TextChunkMarks currentMarks = marks.get(textChunks.get(baseInd));
-                            if (currentMarks == null) {
-                                currentMarks = new TextChunkMarks();
-                                marks.put(textChunks.get(baseInd), currentMarks);
-                            }
-
-                            if (markInd < baseInd) {
-                                currentMarks.preceding.add(textChunks.get(markInd));
-                            } else {
-                                currentMarks.succeeding.add(textChunks.get(markInd));
-                            }
-
-                            foundBaseToAttachTo = true;
-                            break;
-                        }
-                    }
+                if (basesByDistPerpendicular == null) {
+                    basesByDistPerpendicular = groupBasesByDistPerpendicular(textChunks);
                 }
+                int baseInd = findBaseToAttachTo(textChunks, basesByDistPerpendicular, markInd);
+                if (baseInd >= 0) {
+                    TextChunkMarks currentMarks = marks.get(textChunks.get(baseInd));
+                    if (currentMarks == null) {
+                        currentMarks = new TextChunkMarks();
+                        marks.put(textChunks.get(baseInd), currentMarks);
+                    }
 
-                if (!foundBaseToAttachTo) {
+                    if (markInd < baseInd) {
+                        currentMarks.preceding.add(textChunks.get(markInd));
+                    } else {
+                        currentMarks.succeeding.add(textChunks.get(markInd));
+                    }
+                } else {
                     toSort.add(textChunks.get(markInd));
                 }
             } else {
@@ -308,7 +454,7 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
             }
         }
 
-        Collections.sort(toSort, new TextChunkLocationBasedComparator(new DefaultTextChunkLocationComparator(!rightToLeftRunDirection)));
+        toSort = sortByLines(toSort);
 
         textChunks.clear();
 
@@ -340,6 +486,88 @@ public class LocationTextExtractionStrategy implements ITextExtractionStrategy {
         }
     }
 
+    private static Map<Integer, List<Integer>> groupBasesByDistPerpendicular(List<TextChunk> textChunks) {
+        Map<Integer, List<Integer>> bases = new HashMap<>();
+        for (int baseInd = 0; baseInd < textChunks.size(); baseInd++) {
+            ITextChunkLocation baseLocation = textChunks.get(baseInd).getLocation();
+            if (!baseLocation.getStartLocation().equals(baseLocation.getEndLocation())) {
+                List<Integer> sameDistBases = bases.get(baseLocation.distPerpendicular());
+                if (sameDistBases == null) {
+                    sameDistBases = new ArrayList<>();
+                    bases.put(baseLocation.distPerpendicular(), sameDistBases);
+                }
+                sameDistBases.add(baseInd);
+            }
+        }
+        return bases;
+    }
+
+    /**
+     * Finds the first chunk containing the mark, i.e. the chunk with the lowest index, or -1 if there is none.
+     */
+    private static int findBaseToAttachTo(List<TextChunk> textChunks, Map<Integer, List<Integer>> basesByDistPerpendicular,
+            int markInd) {
+        ITextChunkLocation location = textChunks.get(markInd).getLocation();
+        int allowedDeviation = (int) TextChunkLocationDefaultImp.DIACRITICAL_MARKS_ALLOWED_VERTICAL_DEVIATION;
+        int foundBaseInd = -1;
+        for (int dist = location.distPerpendicular() - allowedDeviation;
+                dist <= location.distPerpendicular() + allowedDeviation; dist++) {
+            List<Integer> sameDistBases = basesByDistPerpendicular.get(dist);
+            if (sameDistBases == null) {
+                continue;
+            }
+            for (int baseInd : sameDistBases) {
+                if (foundBaseInd >= 0 && baseInd > foundBaseInd) {
+                    break;
+                }
+                if (baseInd != markInd && TextChunkLocationDefaultImp.containsMark(textChunks.get(baseInd).getLocation(), location)) {
+                    foundBaseInd = baseInd;
+                    break;
+                }
+            }
+        }
+        return foundBaseInd;
+    }
+
+    /**
+     * Groups the chunks into lines by their orientation and the distance perpendicular to it, orders the lines
+     * and sorts the chunks of each line along it. The result is the same as the one of sorting all chunks with
+     * {@link DefaultTextChunkLocationComparator}, but most of the comparisons are avoided, since the chunks
+     * of a line usually come in the order of the content.
+     */
+    private List<TextChunk> sortByLines(List<TextChunk> textChunks) {
+        Map<Long, List<TextChunk>> lines = new HashMap<>();
+        List<List<TextChunk>> orderedLines = new ArrayList<>();
+        for (TextChunk chunk : textChunks) {
+            long lineKey = ((long) chunk.getLocation().orientationMagnitude() << 32)
+                    | (chunk.getLocation().distPerpendicular() & 0xFFFFFFFFL);
+            List<TextChunk> line = lines.get(lineKey);
+            if (line == null) {
+                line = new ArrayList<>();
+                lines.put(lineKey, line);
+                orderedLines.add(line);
+            }
+            line.add(chunk);
+        }
+        Collections.sort(orderedLines, new Comparator<List<TextChunk>>() {
+            @Override
+            public int compare(List<TextChunk> first, List<TextChunk> second) {
+                ITextChunkLocation firstLocation = first.get(0).getLocation();
+                ITextChunkLocation secondLocation = second.get(0).getLocation();
+                int result = Integer.compare(firstLocation.orientationMagnitude(), secondLocation.orientationMagnitude());
+                return result != 0 ? result : firstLocation.distPerpendicular() - secondLocation.distPerpendicular();
+            }
+        });
+        TextChunkLocationBasedComparator comparator = new TextChunkLocationBasedComparator(
+                new DefaultTextChunkLocationComparator(!rightToLeftRunDirection));
+        List<TextChunk> sorted = new ArrayList<>(textChunks.size());
+        for (List<TextChunk> line : orderedLines) {
+            Collections.sort(line, comparator);
+            sorted.addAll(line);
+        }
+        return sorted;
+    }
+
     public interface ITextChunkLocationStrategy {
         ITextChunkLocation createLocation(TextRenderInfo renderInfo, LineSegment baseline);
     }
@@ -0,0 +1,207 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.listener;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.kernel.pdf.canvas.parser.EventType;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An event listener which passes the text render events on to the delegates attached to the regions
+ * the text is rendered in. The result is the same as the one of a {@link FilteredEventListener} with a
+ * {@link com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter} for each delegate, but the regions
+ * crossed by the baseline of the text are looked up in an interval index instead of testing every region.
+ * This makes extracting the text of many regions of a page in a single pass over its content cheap.
+ */
+public class MultiRegionTextEventListener implements IEventListener {
+
+    private final List<IEventListener> delegates = new ArrayList<>();
+    private final List<Rectangle> regions = new ArrayList<>();
+
+    /**
+     * The indices of the regions sorted by their bottoms. The sorted regions form an implicit binary search tree,
+     * the root of a subtree being the middle of its range, and each node keeps the maximum top of its subtree.
+     */
+    private int[] sortedRegions;
+    private float[] bottoms;
+    private float[] tops;
+    private float[] maxTops;
+
+    /**
+     * Attaches a delegate which will get the text render events crossing the region.
+     *
+     * @param delegate the delegate to pass the events on to
+     * @param region   the region of the page
+     * @param <T>      the type of the delegate
+     * @return delegate that has been passed to the method, used for convenient call chaining
+     */
+    public <T extends IEventListener> T attachEventListener(T delegate, Rectangle region) {
+        delegates.add(delegate);
+        regions.add(region);
+        sortedRegions = null;
+        return delegate;
+    }
+
+    /**
+     * Attaches a new {@link LocationTextExtractionStrategy} to the region.
+     *
+     * @param region the region of the page
+     * @return the strategy which extracts the text of the region
+     */
+    public LocationTextExtractionStrategy addRegion(Rectangle region) {
+        return attachEventListener(new LocationTextExtractionStrategy(), region);
+    }
+
+    /**
+     * Attaches a new {@link RegexBasedLocationExtractionStrategy} to the region.
+     *
+     * @param region  the region of the page
+     * @param pattern the pattern to search for in the text of the region
+     * @return the strategy which finds the locations of the pattern occurrences in the region
+     */
+    public RegexBasedLocationExtractionStrategy addRegion(Rectangle region, Pattern pattern) {
+        return attachEventListener(new RegexBasedLocationExtractionStrategy(pattern), region);
+    }
+
+    @Override
+    public void eventOccurred(IEventData data, EventType type) {
+        if (!type.equals(EventType.RENDER_TEXT) || regions.isEmpty()) {
+            return;
+        }
+        if (sortedRegions == null) {
+            buildIndex();
+        }
+        TextRenderInfo renderInfo = (TextRenderInfo) data;
+        Vector startPoint = renderInfo.getBaseline().getStartPoint();
+        Vector endPoint = renderInfo.getBaseline().getEndPoint();
+        float x1 = startPoint.get(Vector.I1);
+        float y1 = startPoint.get(Vector.I2);
+        float x2 = endPoint.get(Vector.I1);
+        float y2 = endPoint.get(Vector.I2);
+        List<Integer> matchingRegions = new ArrayList<>();
+        findRegions(0, sortedRegions.length - 1, Math.min(y1, y2), Math.max(y1, y2), matchingRegions);
+        // the delegates get the events in the order they were attached, as with FilteredEventListener
+        Collections.sort(matchingRegions);
+        for (int regionIndex : matchingRegions) {
+            IEventListener delegate = delegates.get(regionIndex);
+            if ((delegate.getSupportedEvents() == null || delegate.getSupportedEvents().contains(type))
+                    && regions.get(regionIndex).intersectsLine(x1, y1, x2, y2)) {
+                delegate.eventOccurred(data, type);
+            }
+        }
+    }
+
+    @Override
+    public Set<EventType> getSupportedEvents() {
+        return Collections.singleton(EventType.RENDER_TEXT);
+    }
+
+    private void buildIndex() {
+        int count = regions.size();
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return Float.compare(getBottom(regions.get(first)), getBottom(regions.get(second)));
+            }
+        });
+        sortedRegions = new int[count];
+        bottoms = new float[count];
+        tops = new float[count];
+        maxTops = new float[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle region = regions.get(order.get(i));
+            sortedRegions[i] = order.get(i);
+            bottoms[i] = getBottom(region);
+            tops[i] = Math.max(region.getBottom(), region.getTop());
+        }
+        computeMaxTops(0, count - 1);
+    }
+
+    private float computeMaxTops(int low, int high) {
+        if (low > high) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        int middle = (low + high) >>> 1;
+        maxTops[middle] = Math.max(tops[middle], Math.max(computeMaxTops(low, middle - 1),
+                computeMaxTops(middle + 1, high)));
+        return maxTops[middle];
+    }
+
+    /**
+     * Finds the regions, the vertical extents of which overlap the [minY, maxY] interval.
+     */
+    private void findRegions(int low, int high, float minY, float maxY, List<Integer> result) {
+        if (low > high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (maxTops[middle] < minY) {
+            return;
+        }
+        findRegions(low, middle - 1, minY, maxY, result);
+        if (bottoms[middle] <= maxY) {
+            if (tops[middle] >= minY) {
+                result.add(sortedRegions[middle]);
+            }
+            findRegions(middle + 1, high, minY, maxY, result);
+        }
+    }
+
+    private static float getBottom(Rectangle region) {
+        return Math.min(region.getBottom(), region.getTop());
+    }
+}
@@ -62,6 +62,8 @@ import java.util.regex.Pattern;
  */
 public class RegexBasedLocationExtractionStrategy implements ILocationExtractionStrategy {
 
+    private static final Set<EventType> SUPPORTED_EVENTS = Collections.singleton(EventType.RENDER_TEXT);
+
     private Pattern pattern;
     private List<CharacterRenderInfo> parseResult = new ArrayList<>();
 
@@ -136,9 +138,16 @@ public class RegexBasedLocationExtractionStrategy implements ILocationExtraction
         }
     }
 
+    /**
+     * Gets the events the strategy is interested in, which are only the {@link EventType#RENDER_TEXT} events,
+     * so that the paths, clipping paths and images are not processed. Subclasses handling other events shall
+     * override this method.
+     *
+     * @return the set of the supported events
+     */
     @Override
     public Set<EventType> getSupportedEvents() {
-        return null;
+        return SUPPORTED_EVENTS;
     }
 
     /**
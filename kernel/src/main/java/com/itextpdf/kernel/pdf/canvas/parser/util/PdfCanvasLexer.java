@@ -0,0 +1,434 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.util;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.IOException;
+
+/**
+ * Splits the page or form XObject content into operators and their operands.
+ * <br>
+ * Unlike {@link PdfCanvasParser}, which creates a {@link PdfObject} for each operand and operator,
+ * this lexer reads numeric operands into reusable primitive buffers and keeps the operator as a range
+ * of the content bytes. The operand objects are created only when they are requested.
+ * Operands other than numbers, as well as inline images, are parsed with {@link PdfCanvasParser}.
+ */
+public class PdfCanvasLexer {
+
+    private static final byte[] BI = new byte[]{(byte) 'B', (byte) 'I'};
+    private static final byte[] EI = new byte[]{(byte) 'E', (byte) 'I'};
+
+    /**
+     * The maximum number of digits for which the value of a number can be computed exactly with double arithmetic.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15};
+
+    private final byte[] content;
+
+    private final PdfResources currentResources;
+
+    private int position;
+
+    private PdfCanvasParser parser;
+
+    private int operandsCount;
+
+    private double[] numbers = new double[8];
+
+    /**
+     * The start offsets of numeric operands in the content, or -1 for the operands which are not numbers.
+     */
+    private int[] numberStarts = new int[8];
+
+    private int[] numberEnds = new int[8];
+
+    private PdfObject[] objects = new PdfObject[8];
+
+    private byte[] operatorBytes;
+
+    private int operatorStart;
+
+    private int operatorLength;
+
+    /**
+     * Creates a new lexer for the content.
+     *
+     * @param content          the bytes of a content stream
+     * @param currentResources current resources of the content stream, which are used for inline images parsing
+     */
+    public PdfCanvasLexer(byte[] content, PdfResources currentResources) {
+        this.content = content;
+        this.currentResources = currentResources;
+    }
+
+    /**
+     * Reads the operands and the operator of the next command.
+     * <br>
+     * If inline image is encountered (BI command), the lexer continues until the end of the inline image, so that
+     * the single operand of the command is the inline image dictionary and bytes encapsulated in {@link PdfStream}
+     * and the operator is EI.
+     *
+     * @return {@code true} if a command was read, {@code false} if the end of content was reached
+     * @throws IOException on error
+     */
+    public boolean nextOperator() throws IOException {
+        operandsCount = 0;
+        operatorBytes = null;
+        while (true) {
+            int ch = skipWhitespacesAndComments();
+            if (ch == -1) {
+                return false;
+            }
+            if (ch == '-' || ch == '+' || ch == '.' || (ch >= '0' && ch <= '9')) {
+                readNumber();
+            } else if (!PdfTokenizer.delims[ch + 1] || ch == ')') {
+                int start = position;
+                do {
+                    ++position;
+                } while (position < content.length && !PdfTokenizer.delims[(content[position] & 0xff) + 1]);
+                setOperator(content, start, position - start);
+                if (isOperator(BI)) {
+                    readInlineImage();
+                }
+                return true;
+            } else {
+                addOperand(readObject());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of operands of the current command.
+     *
+     * @return the number of operands
+     */
+    public int getOperandsCount() {
+        return operandsCount;
+    }
+
+    /**
+     * Checks whether the operand of the current command is a number.
+     *
+     * @param index the index of the operand
+     * @return {@code true} if the operand is a number
+     */
+    public boolean isNumberOperand(int index) {
+        checkOperandIndex(index);
+        return numberStarts[index] >= 0;
+    }
+
+    /**
+     * Gets the value of the numeric operand of the current command without creating a {@link PdfNumber}.
+     * The value is the same as {@link PdfNumber#getValue()} would return.
+     *
+     * @param index the index of the operand
+     * @return the value of the operand
+     */
+    public double getNumberOperand(int index) {
+        if (!isNumberOperand(index)) {
+            throw new IllegalArgumentException("Operand is not a number");
+        }
+        return numbers[index];
+    }
+
+    /**
+     * Gets the operand of the current command. The object is created on the first request.
+     *
+     * @param index the index of the operand
+     * @return the operand object
+     */
+    public PdfObject getOperand(int index) {
+        checkOperandIndex(index);
+        if (objects[index] == null) {
+            objects[index] = new PdfNumber(getNumberBytes(numberStarts[index], numberEnds[index]));
+        }
+        return objects[index];
+    }
+
+    /**
+     * Gets the length of the operator of the current command.
+     *
+     * @return the number of bytes in the operator
+     */
+    public int getOperatorLength() {
+        return operatorLength;
+    }
+
+    /**
+     * Gets the byte of the operator of the current command.
+     *
+     * @param index the index of the byte
+     * @return the byte of the operator
+     */
+    public byte getOperatorByte(int index) {
+        if (index < 0 || index >= operatorLength) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return operatorBytes[operatorStart + index];
+    }
+
+    /**
+     * Checks whether the operator of the current command is equal to the given one.
+     *
+     * @param operator the bytes of the operator
+     * @return {@code true} if the operators are equal
+     */
+    public boolean isOperator(byte[] operator) {
+        if (operatorBytes == null || operator.length != operatorLength) {
+            return false;
+        }
+        for (int i = 0; i < operatorLength; i++) {
+            if (operator[i] != operatorBytes[operatorStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a new {@link PdfLiteral} for the operator of the current command.
+     *
+     * @return the operator literal
+     */
+    public PdfLiteral createOperator() {
+        byte[] bytes = new byte[operatorLength];
+        System.arraycopy(operatorBytes, operatorStart, bytes, 0, operatorLength);
+        return new PdfLiteral(bytes);
+    }
+
+    private int skipWhitespacesAndComments() {
+        while (position < content.length) {
+            int ch = content[position] & 0xff;
+            if (ch == '%') {
+                do {
+                    ++position;
+                } while (position < content.length && content[position] != '\r' && content[position] != '\n');
+            } else if (PdfTokenizer.isWhitespace(ch)) {
+                ++position;
+            } else {
+                return ch;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the number the same way as {@link PdfTokenizer} does.
+     */
+    private void readNumber() {
+        int start = position;
+        if (content[position] == '-') {
+            do {
+                ++position;
+            } while (position < content.length && content[position] == '-');
+        } else {
+            ++position;
+        }
+        while (position < content.length && (content[position] >= '0' && content[position] <= '9' || content[position] == '.')) {
+            ++position;
+        }
+        int index = addOperand(null);
+        numberStarts[index] = start;
+        numberEnds[index] = position;
+        numbers[index] = parseNumber(start, position);
+    }
+
+    /**
+     * Gets the bytes of the number token. Several minuses before the number are treated as one,
+     * and such integer numbers are treated as zero.
+     */
+    private byte[] getNumberBytes(int start, int end) {
+        int digitsStart = getNumberDigitsStart(start, end);
+        if (digitsStart - start > 1) {
+            if (!isReal(digitsStart, end)) {
+                return new byte[]{(byte) '0'};
+            }
+            byte[] bytes = new byte[end - digitsStart + 1];
+            bytes[0] = (byte) '-';
+            System.arraycopy(content, digitsStart, bytes, 1, end - digitsStart);
+            return bytes;
+        }
+        byte[] bytes = new byte[end - start];
+        System.arraycopy(content, start, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Computes the value of the number token. For up to 15 digits the value is computed with a single
+     * correctly rounded division, which gives the same result as {@link Double#parseDouble(String)}.
+     */
+    private double parseNumber(int start, int end) {
+        int digitsStart = getNumberDigitsStart(start, end);
+        boolean negative = content[start] == '-';
+        if (digitsStart - start > 1 && !isReal(digitsStart, end)) {
+            return 0;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean real = false;
+        for (int i = digitsStart; i < end; i++) {
+            if (content[i] == '.') {
+                if (real) {
+                    return Double.NaN;
+                }
+                real = true;
+            } else {
+                if (++digits > MAX_EXACT_DIGITS) {
+                    return parseNumberString(negative, digitsStart, end);
+                }
+                mantissa = mantissa * 10 + content[i] - '0';
+                if (real) {
+                    ++fractionDigits;
+                }
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double value = (double) mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double parseNumberString(boolean negative, int digitsStart, int end) {
+        String number = new String(content, digitsStart, end - digitsStart);
+        try {
+            return Double.parseDouble(negative ? "-" + number : number);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int getNumberDigitsStart(int start, int end) {
+        int digitsStart = start;
+        if (content[start] == '+') {
+            ++digitsStart;
+        } else {
+            while (digitsStart < end && content[digitsStart] == '-') {
+                ++digitsStart;
+            }
+        }
+        return digitsStart;
+    }
+
+    private boolean isReal(int digitsStart, int end) {
+        for (int i = digitsStart; i < end; i++) {
+            if (content[i] == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PdfObject readObject() throws IOException {
+        PdfCanvasParser parser = getParser();
+        parser.getTokeniser().seek(position);
+        PdfObject object = parser.readObject();
+        position = (int) parser.getTokeniser().getPosition();
+        return object;
+    }
+
+    private void readInlineImage() throws IOException {
+        PdfCanvasParser parser = getParser();
+        parser.getTokeniser().seek(position);
+        PdfStream inlineImageAsStream = InlineImageParsingUtils.parse(parser, currentResources.getResource(PdfName.ColorSpace));
+        position = (int) parser.getTokeniser().getPosition();
+        operandsCount = 0;
+        addOperand(inlineImageAsStream);
+        setOperator(EI, 0, EI.length);
+    }
+
+    private PdfCanvasParser getParser() {
+        if (parser == null) {
+            PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)));
+            parser = new PdfCanvasParser(tokeniser, currentResources);
+        }
+        return parser;
+    }
+
+    private int addOperand(PdfObject operand) {
+        if (operandsCount == objects.length) {
+            int newLength = objects.length << 1;
+            double[] newNumbers = new double[newLength];
+            System.arraycopy(numbers, 0, newNumbers, 0, operandsCount);
+            numbers = newNumbers;
+            int[] newNumberStarts = new int[newLength];
+            System.arraycopy(numberStarts, 0, newNumberStarts, 0, operandsCount);
+            numberStarts = newNumberStarts;
+            int[] newNumberEnds = new int[newLength];
+            System.arraycopy(numberEnds, 0, newNumberEnds, 0, operandsCount);
+            numberEnds = newNumberEnds;
+            PdfObject[] newObjects = new PdfObject[newLength];
+            System.arraycopy(objects, 0, newObjects, 0, operandsCount);
+            objects = newObjects;
+        }
+        objects[operandsCount] = operand;
+        numberStarts[operandsCount] = -1;
+        return operandsCount++;
+    }
+
+    private void setOperator(byte[] bytes, int start, int length) {
+        operatorBytes = bytes;
+        operatorStart = start;
+        operatorLength = length;
+    }
+
+    private void checkOperandIndex(int index) {
+        if (index < 0 || index >= operandsCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+    }
+}
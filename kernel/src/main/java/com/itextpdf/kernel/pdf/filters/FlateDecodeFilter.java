@@ -53,12 +53,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter implements IFilterHandler {
+public class FlateDecodeFilter implements IStreamingFilterHandler {
 
     /**
      * Defines how the corrupted streams should be treated.
@@ -111,6 +112,11 @@ public class FlateDecodeFilter implements IFilterHandler {
         return b;
     }
 
+    @Override
+    public InputStream decode(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        return PredictorDecodeInputStream.create(new FlateDecodeInputStream(in, strictDecoding), decodeParams);
+    }
+
     /**
      * A helper to flateDecode.
      *
@@ -165,10 +171,13 @@ public class FlateDecodeFilter implements IFilterHandler {
         obj = dic.get(PdfName.BitsPerComponent);
         if (obj != null && obj.getType() == PdfObject.NUMBER)
             bpc = ((PdfNumber) obj).intValue();
-        DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(in));
-        ByteArrayOutputStream fout = new ByteArrayOutputStream(in.length);
         int bytesPerPixel = colors * bpc / 8;
         int bytesPerRow = (colors * width * bpc + 7) / 8;
+        // the rows of invalid size can't be decoded, the data is left as is
+        if (bytesPerRow <= 0 || predictor == 2 && bytesPerPixel <= 0)
+            return in;
+        DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(in));
+        ByteArrayOutputStream fout = new ByteArrayOutputStream(in.length);
         byte[] curr = new byte[bytesPerRow];
         byte[] prior = new byte[bytesPerRow];
         if (predictor == 2) {
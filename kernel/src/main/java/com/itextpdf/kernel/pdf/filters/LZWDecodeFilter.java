@@ -48,11 +48,12 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfObject;
 
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 
 /**
  * Handles LZWDECODE filter
  */
-public class LZWDecodeFilter implements IFilterHandler {
+public class LZWDecodeFilter implements IStreamingFilterHandler {
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -61,6 +62,11 @@ public class LZWDecodeFilter implements IFilterHandler {
         return b;
     }
 
+    @Override
+    public InputStream decode(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        return PredictorDecodeInputStream.create(new LZWDecodeInputStream(in), decodeParams);
+    }
+
     /**
      * Decodes a byte[] according to the LZW encoding.
      *
@@ -253,4 +253,51 @@ public class PdfCopyTest extends ExtendedITextTest {
         assertNull(new CompareTool().compareByContent(dest, cmp, destinationFolder, "diff_"));
     }
 
+
+    @Test
+    public void copyRawStreamContentTest() throws IOException {
+        String srcFile = destinationFolder + "copyRawStreamContentSource.pdf";
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(srcFile));
+        for (int i = 0; i < 3; i++) {
+            srcDoc.addNewPage().getFirstContentStream().setData(ByteUtils.getIsoBytes(i + " 0 m 100 100 l S\n"));
+        }
+        srcDoc.close();
+
+        // destination pages are written while the source document is still open
+        srcDoc = new PdfDocument(new PdfReader(srcFile));
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(destinationFolder + "copyRawStreamContent01.pdf"));
+        for (int i = 1; i <= 3; i++) {
+            srcDoc.copyPagesTo(i, i, pdfDoc);
+            pdfDoc.getPage(i).flush();
+        }
+        srcDoc.close();
+        pdfDoc.close();
+        checkCopiedContent(destinationFolder + "copyRawStreamContent01.pdf");
+
+        // the source document is closed before destination pages are written, one copied page is modified
+        srcDoc = new PdfDocument(new PdfReader(srcFile));
+        pdfDoc = new PdfDocument(new PdfWriter(destinationFolder + "copyRawStreamContent02.pdf"));
+        srcDoc.copyPagesTo(1, 3, pdfDoc);
+        pdfDoc.getPage(3).getFirstContentStream().setData(ByteUtils.getIsoBytes("q Q\n"), true);
+        srcDoc.close();
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(destinationFolder + "copyRawStreamContent02.pdf"));
+        for (int i = 1; i <= 2; i++) {
+            assertEquals((i - 1) + " 0 m 100 100 l S\n", new String(pdfDoc.getPage(i).getContentBytes()));
+        }
+        assertEquals("2 0 m 100 100 l S\nq Q\n", new String(pdfDoc.getPage(3).getContentBytes()));
+        pdfDoc.close();
+    }
+
+    private static void checkCopiedContent(String file) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(file));
+        Assert.assertFalse(pdfDoc.getReader().hasRebuiltXref());
+        for (int i = 1; i <= 3; i++) {
+            PdfStream content = pdfDoc.getPage(i).getFirstContentStream();
+            Assert.assertEquals(PdfName.FlateDecode, content.getAsName(PdfName.Filter));
+            assertEquals((i - 1) + " 0 m 100 100 l S\n", new String(content.getBytes()));
+        }
+        pdfDoc.close();
+    }
 }
@@ -1561,6 +1561,176 @@ public class PdfReaderTest extends ExtendedITextTest {
     }
 
 
+    @Test
+    public void streamingDecodeTest() throws IOException {
+        String[] filenames = {sourceFolder + "100PagesDocumentWithFlateFilter.pdf",
+                sourceFolder + "1000PagesDocumentWithFullCompression.pdf"};
+        for (String filename : filenames) {
+            PdfReader reader = new PdfReader(filename);
+            PdfDocument pdfDoc = new PdfDocument(reader);
+            for (int i = 1; i < pdfDoc.getNumberOfPdfObjects(); i++) {
+                PdfObject object = pdfDoc.getPdfObject(i);
+                if (object != null && object.isStream()) {
+                    PdfStream stream = (PdfStream) object;
+                    byte[] expected = reader.readStreamBytes(stream, true);
+                    java.io.InputStream is = reader.readStream(stream, true);
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    byte[] buf = new byte[100];
+                    int n;
+                    while ((n = is.read(buf)) > 0) {
+                        baos.write(buf, 0, n);
+                    }
+                    is.close();
+                    Assert.assertArrayEquals(expected, baos.toByteArray());
+                }
+            }
+            pdfDoc.close();
+        }
+    }
+
+    @Test
+    public void streamingDecodeChainedFiltersTest() throws IOException {
+        byte[] content = "q 1 0 0 1 10 10 cm BT /F1 12 Tf (Hello) Tj ET Q".getBytes();
+        PdfDictionary streamDictionary = new PdfDictionary();
+        streamDictionary.put(PdfName.Filter, new PdfArray(java.util.Arrays.asList((PdfObject) PdfName.ASCIIHexDecode, PdfName.RunLengthDecode)));
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        encoded.write(content.length - 1);
+        encoded.write(content);
+        encoded.write(0x80);
+        StringBuilder hexString = new StringBuilder();
+        for (byte encodedByte : encoded.toByteArray()) {
+            hexString.append(Integer.toHexString((encodedByte & 0xff) | 0x100).substring(1)).append(' ');
+        }
+        byte[] hex = ByteUtils.getIsoBytes(hexString.append('>').toString());
+        Assert.assertArrayEquals(content, PdfReader.decodeBytes(hex, streamDictionary));
+
+        java.io.InputStream is = PdfReader.decodeStream(new java.io.ByteArrayInputStream(hex), streamDictionary,
+                com.itextpdf.kernel.pdf.filters.FilterHandlers.getDefaultFilterHandlers());
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) >= 0) {
+            decoded.write(b);
+        }
+        Assert.assertArrayEquals(content, decoded.toByteArray());
+    }
+
+    @Test
+    public void streamingDecodeZeroColumnsPredictorTest() throws IOException {
+        byte[] content = "q 1 0 0 1 10 10 cm BT /F1 12 Tf (Hello) Tj ET Q".getBytes();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        java.util.zip.DeflaterOutputStream zip = new java.util.zip.DeflaterOutputStream(encoded);
+        zip.write(content);
+        zip.close();
+        for (int predictor : new int[] {2, 12}) {
+            PdfDictionary decodeParams = new PdfDictionary();
+            decodeParams.put(PdfName.Predictor, new PdfNumber(predictor));
+            decodeParams.put(PdfName.Columns, new PdfNumber(0));
+            PdfDictionary streamDictionary = new PdfDictionary();
+            streamDictionary.put(PdfName.Filter, PdfName.FlateDecode);
+            streamDictionary.put(PdfName.DecodeParms, decodeParams);
+            Assert.assertArrayEquals(content, PdfReader.decodeBytes(encoded.toByteArray(), streamDictionary));
+
+            java.io.InputStream is = PdfReader.decodeStream(new java.io.ByteArrayInputStream(encoded.toByteArray()),
+                    streamDictionary, com.itextpdf.kernel.pdf.filters.FilterHandlers.getDefaultFilterHandlers());
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            int b;
+            while ((b = is.read()) >= 0) {
+                decoded.write(b);
+            }
+            Assert.assertArrayEquals(content, decoded.toByteArray());
+        }
+    }
+
+    @Test
+    public void sharedFileMappingTest() throws Exception {
+        final String filename = sourceFolder + "1000PagesDocumentAppended.pdf";
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(filename));
+        final byte[] expectedContent = expectedDoc.getLastPage().getContentBytes();
+        expectedDoc.close();
+
+        final List<Throwable> errors = java.util.Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 5; j++) {
+                            PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename,
+                                    new ReaderProperties().setSharedFileMapping(true)));
+                            Assert.assertArrayEquals(expectedContent, pdfDoc.getLastPage().getContentBytes());
+                            pdfDoc.close();
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    @Test
+    public void lazyXrefLoadingTest() throws IOException {
+        String[] filenames = {"1000PagesDocumentAppended.pdf", "1000PagesDocumentWithFullCompressionAppended.pdf", "stationery.pdf"};
+        for (String filename : filenames) {
+            PdfDocument eagerDoc = new PdfDocument(new PdfReader(sourceFolder + filename));
+            PdfReader lazyReader = new PdfReader(sourceFolder + filename, new ReaderProperties().setLazyXrefLoading(true));
+            PdfDocument lazyDoc = new PdfDocument(lazyReader);
+
+            Assert.assertFalse(lazyReader.hasRebuiltXref());
+            Assert.assertEquals(eagerDoc.getNumberOfPdfObjects(), lazyDoc.getNumberOfPdfObjects());
+            Assert.assertEquals(eagerDoc.getNumberOfPages(), lazyDoc.getNumberOfPages());
+            Assert.assertArrayEquals(eagerDoc.getLastPage().getContentBytes(), lazyDoc.getLastPage().getContentBytes());
+            Assert.assertTrue(lazyDoc.getXref().isLazyEntry(lazyDoc.getNumberOfPdfObjects() - 1)
+                    || lazyDoc.getXref().getIfLoaded(lazyDoc.getNumberOfPdfObjects() - 1) != null);
+
+            for (int i = 0; i < eagerDoc.getNumberOfPdfObjects(); i++) {
+                PdfIndirectReference eagerRef = eagerDoc.getXref().get(i);
+                PdfIndirectReference lazyRef = lazyDoc.getXref().get(i);
+                if (eagerRef == null) {
+                    Assert.assertNull(lazyRef);
+                } else {
+                    Assert.assertEquals(eagerRef.getGenNumber(), lazyRef.getGenNumber());
+                    Assert.assertEquals(eagerRef.isFree(), lazyRef.isFree());
+                    Assert.assertEquals(eagerRef.getOffset(), lazyRef.getOffset());
+                    Assert.assertEquals(eagerRef.getObjStreamNumber(), lazyRef.getObjStreamNumber());
+                }
+            }
+            eagerDoc.close();
+            lazyDoc.close();
+        }
+    }
+
+    @Test
+    public void lazyXrefLoadingStampingTest() throws IOException, InterruptedException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompressionAppended.pdf";
+        String outputFile = destinationFolder + "lazyXrefLoadingStamping.pdf";
+        String outputAppendFile = destinationFolder + "lazyXrefLoadingStampingAppend.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyXrefLoading(true)),
+                new PdfWriter(outputFile));
+        pdfDoc.getDocumentInfo().setTitle(title);
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyXrefLoading(true)),
+                new PdfWriter(outputAppendFile), new StampingProperties().useAppendMode());
+        pdfDoc.getDocumentInfo().setTitle(title);
+        pdfDoc.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outputFile, filename, destinationFolder, "diff_"));
+        Assert.assertNull(new CompareTool().compareByContent(outputAppendFile, filename, destinationFolder, "diff_"));
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(outputAppendFile));
+        Assert.assertEquals(title, resultDoc.getDocumentInfo().getTitle());
+        Assert.assertFalse(resultDoc.getReader().hasRebuiltXref());
+        resultDoc.close();
+    }
+
+
     private boolean objectTypeEqualTo(PdfObject object, PdfName type) {
         PdfName objectType = ((PdfDictionary) object).getAsName(PdfName.Type);
         return type.equals(objectType);
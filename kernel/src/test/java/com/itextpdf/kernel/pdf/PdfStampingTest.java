@@ -868,6 +868,38 @@ public class PdfStampingTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void stampingAppendOnlyModifiedObjects() throws IOException {
+        String filename1 = destinationFolder + "stampingAppendOnlyModifiedObjects_1.pdf";
+        String filename2 = destinationFolder + "stampingAppendOnlyModifiedObjects_2.pdf";
+
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(filename1));
+        for (int i = 0; i < 1000; i++) {
+            PdfPage page = pdfDoc1.addNewPage();
+            page.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%page " + (i + 1) + "\n"));
+            page.flush();
+        }
+        pdfDoc1.close();
+
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(filename1), new PdfWriter(filename2), new StampingProperties().useAppendMode());
+        PdfPage page500 = pdfDoc2.getPage(500);
+        page500.setRotation(90);
+        page500.setModified();
+        pdfDoc2.close();
+
+        long appendedLength = new File(filename2).length() - new File(filename1).length();
+        assertTrue("Appended " + appendedLength + " bytes", appendedLength < 3000);
+
+        PdfReader reader = new PdfReader(filename2);
+        PdfDocument pdfDoc3 = new PdfDocument(reader);
+        assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        assertEquals(1000, pdfDoc3.getNumberOfPages());
+        assertEquals(90, pdfDoc3.getPage(500).getRotation());
+        assertEquals(0, pdfDoc3.getPage(501).getRotation());
+        assertEquals("%page 1000\n", new String(pdfDoc3.getPage(1000).getContentBytes()));
+        pdfDoc3.close();
+    }
+
     @Test
     public void stampingAppend2() throws IOException {
         String filename1 = destinationFolder + "stampingAppend2_1.pdf";
@@ -43,8 +43,12 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.IByteArrayPool;
 import com.itextpdf.io.util.DateTimeUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -626,4 +630,145 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void parallelStreamCompressionTest() throws IOException {
+        for (boolean fullCompression : new boolean[] {false, true}) {
+            byte[] serialBytes = createDocumentWithContentStreams(new WriterProperties()
+                    .setFullCompressionMode(fullCompression));
+            byte[] parallelBytes = createDocumentWithContentStreams(new WriterProperties()
+                    .setFullCompressionMode(fullCompression).useParallelStreamCompression(4));
+            Assert.assertArrayEquals(serialBytes, parallelBytes);
+
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(parallelBytes)));
+            Assert.assertFalse(pdfDocument.getReader().hasRebuiltXref());
+            Assert.assertEquals(300, pdfDocument.getNumberOfPages());
+            pdfDocument.close();
+        }
+    }
+
+    @Test
+    public void parallelStreamCompressionBuffersReleaseTest() {
+        final java.util.Set<byte[]> acquiredArrays = java.util.Collections.newSetFromMap(
+                new java.util.IdentityHashMap<byte[], Boolean>());
+        IByteArrayPool byteArrayPool = new IByteArrayPool() {
+            @Override
+            public synchronized byte[] acquire(int minLength) {
+                byte[] array = new byte[minLength];
+                acquiredArrays.add(array);
+                return array;
+            }
+
+            @Override
+            public synchronized void release(byte[] array) {
+                acquiredArrays.remove(array);
+            }
+        };
+        // the object streams aren't compressed, so they are written right away
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new java.io.ByteArrayOutputStream(), new WriterProperties()
+                .setFullCompressionMode(true).setCompressionLevel(CompressionConstants.NO_COMPRESSION)
+                .useParallelStreamCompression(2).setByteArrayPool(byteArrayPool)));
+        pdfDoc.addNewPage();
+        for (int i = 0; i < 300; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Name, new PdfNumber(i));
+            dictionary.makeIndirect(pdfDoc).flush();
+        }
+        pdfDoc.close();
+        Assert.assertTrue(acquiredArrays.isEmpty());
+    }
+
+    @Test
+    public void smartModeSameDigestTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new java.io.ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        PdfDictionary first = createDictionaryWithDescriptor("Helvetica", pdfDoc);
+        PdfDictionary second = createDictionaryWithDescriptor("Courier", pdfDoc);
+        PdfDictionary copyOfFirst = createDictionaryWithDescriptor("Helvetica", pdfDoc);
+
+        SmartModePdfObjectsSerializer serializer = new SmartModePdfObjectsSerializer(0);
+        // the digests are the same, but the referenced descriptors are different
+        byte[] digest = new byte[16];
+        serializer.saveSerializedObject(new SerializedObjectContent(digest, first, serializer), first.getIndirectReference());
+        Assert.assertNull(serializer.getSavedSerializedObject(new SerializedObjectContent(digest, second, serializer)));
+        Assert.assertEquals(first.getIndirectReference(),
+                serializer.getSavedSerializedObject(new SerializedObjectContent(digest, copyOfFirst, serializer)));
+        pdfDoc.close();
+    }
+
+    private static PdfDictionary createDictionaryWithDescriptor(String fontName, PdfDocument pdfDoc) {
+        PdfDictionary descriptor = new PdfDictionary();
+        descriptor.put(PdfName.FontName, new PdfName(fontName));
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.FontDescriptor, descriptor.makeIndirect(pdfDoc));
+        return (PdfDictionary) dictionary.makeIndirect(pdfDoc);
+    }
+
+    @Test
+    public void smartModeCacheCapacityTest() throws IOException {
+        byte[] first = createDocumentWithFormXObject("0 0 m 100 100 l S");
+        byte[] second = createDocumentWithFormXObject("0 100 m 100 0 l S");
+
+        Assert.assertEquals(2, countDistinctFormXObjects(copyAlternately(first, second, new WriterProperties().useSmartMode())));
+        Assert.assertEquals(10, countDistinctFormXObjects(copyAlternately(first, second,
+                new WriterProperties().useSmartMode().setSmartModeCacheCapacity(1))));
+    }
+
+    private static byte[] createDocumentWithFormXObject(String formContent) {
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        PdfFormXObject form = new PdfFormXObject(new Rectangle(100, 100));
+        form.getPdfObject().setData(ByteUtils.getIsoBytes(formContent));
+        new PdfCanvas(pdfDoc.addNewPage()).addXObject(form, 0, 0);
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] copyAlternately(byte[] first, byte[] second, WriterProperties properties) throws IOException {
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        for (int i = 0; i < 10; i++) {
+            PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(i % 2 == 0 ? first : second)));
+            srcDoc.copyPagesTo(1, 1, pdfDoc);
+            srcDoc.close();
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static int countDistinctFormXObjects(byte[] document) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        java.util.Set<Integer> formNumbers = new java.util.HashSet<>();
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            PdfDictionary xObjects = pdfDoc.getPage(i).getResources().getResource(PdfName.XObject);
+            for (PdfName name : xObjects.keySet()) {
+                formNumbers.add(xObjects.get(name).getIndirectReference().getObjNumber());
+            }
+        }
+        pdfDoc.close();
+        return formNumbers.size();
+    }
+
+    private static byte[] createDocumentWithContentStreams(WriterProperties properties) throws IOException {
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+        PdfWriter writer = new PdfWriter(baos, properties
+                .setInitialDocumentId(new PdfString("initial id"))
+                .setModifiedDocumentId(new PdfString("modified id")));
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.CreationDate, new PdfString("D:20180101000000"));
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.ModDate, new PdfString("D:20180101000000"));
+        for (int i = 0; i < 300; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j < 200; j++) {
+                content.append(i).append(' ').append(j).append(" m ").append(j).append(' ').append(i).append(" l S\n");
+            }
+            page.getFirstContentStream().setData(ByteUtils.getIsoBytes(content.toString()));
+            if (i % 3 == 0) {
+                page.flush();
+            }
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
 }
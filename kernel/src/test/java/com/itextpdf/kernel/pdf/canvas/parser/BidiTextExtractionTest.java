@@ -109,6 +109,29 @@ public class BidiTextExtractionTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void regionTextExtractionTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(sourceFolder + "in02.pdf"));
+
+        final Rectangle[] regions = new Rectangle[]{
+                new Rectangle(493, 765, 23, 11),
+                new Rectangle(522, 784, 38, 12),
+                new Rectangle(332, 784, 185, 12)
+        };
+
+        FilteredEventListener listener = new FilteredEventListener();
+        LocationTextExtractionStrategy[] extractionStrategies = new LocationTextExtractionStrategy[regions.length];
+        for (int i = 0; i < regions.length; i++)
+            extractionStrategies[i] = listener.attachEventListener(new LocationTextExtractionStrategy().setRightToLeftRunDirection(true), new TextRegionEventFilter(regions[i]));
+        LocationTextExtractionStrategy pageStrategy = listener.attachEventListener(new LocationTextExtractionStrategy().setRightToLeftRunDirection(true));
+
+        new PdfCanvasProcessor(listener).processPageContent(pdfDocument.getPage(1));
+
+        for (int i = 0; i < regions.length; i++) {
+            Assert.assertEquals(extractionStrategies[i].getResultantText(), pageStrategy.getResultantText(regions[i]));
+        }
+    }
+
     @Test
     // This is an example from the spec section 14.8.2.5.3. Not actually bidi, just reversedChars
     public void test03() throws IOException {
@@ -45,14 +45,19 @@ package com.itextpdf.kernel.pdf.canvas.parser;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredTextEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -121,4 +126,25 @@ public class FilteredEventListenerTest extends ExtendedITextTest {
         Assert.assertEquals(expectedText, actualText);
     }
 
+    @Test
+    public void supportedEventsTest() {
+        FilteredEventListener listener = new FilteredEventListener();
+        Assert.assertNull(listener.getSupportedEvents());
+
+        listener.attachEventListener(new LocationTextExtractionStrategy(), new TextRegionEventFilter(new Rectangle(0, 0, 100, 100)));
+        listener.attachEventListener(new SimpleTextExtractionStrategy());
+        Assert.assertEquals(Collections.singleton(EventType.RENDER_TEXT), listener.getSupportedEvents());
+
+        listener.attachEventListener(new IEventListener() {
+            @Override
+            public void eventOccurred(IEventData data, EventType type) {
+            }
+
+            @Override
+            public Set<EventType> getSupportedEvents() {
+                return null;
+            }
+        });
+        Assert.assertNull(listener.getSupportedEvents());
+    }
 }
@@ -43,15 +43,24 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor;
 import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredTextEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.MultiRegionTextEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.RegexBasedLocationExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import com.itextpdf.test.ExtendedITextTest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -71,6 +80,37 @@ public class FilteredTextEventListenerTest extends ExtendedITextTest {
         Assert.assertFalse(textIsInRectangle(doc, "Upper Right", upperLeft));
     }
 
+    @Test
+    public void testMultipleRegions() throws Exception {
+        PdfDocument doc = new PdfDocument(new PdfReader(sourceFolder + "in.pdf"));
+        float pageHeight = doc.getPage(1).getPageSize().getHeight();
+        float pageWidth = doc.getPage(1).getPageSize().getWidth();
+        List<Rectangle> regions = Arrays.asList(
+                new Rectangle(0, (int) pageHeight - 30, 250, (int) pageHeight),
+                new Rectangle(pageWidth - 250, (int) pageHeight - 30, 250, (int) pageHeight),
+                new Rectangle(0, 0, pageWidth, pageHeight));
+
+        FilteredEventListener filteredListener = new FilteredEventListener();
+        List<LocationTextExtractionStrategy> filteredStrategies = new ArrayList<>();
+        for (Rectangle region : regions) {
+            filteredStrategies.add(filteredListener.attachEventListener(new LocationTextExtractionStrategy(),
+                    new TextRegionEventFilter(region)));
+        }
+        new PdfCanvasProcessor(filteredListener).processPageContent(doc.getPage(1));
+
+        List<String> texts = PdfTextExtractor.getTextFromRegions(doc.getPage(1), regions);
+        Assert.assertEquals("Upper Left", texts.get(0));
+        for (int i = 0; i < regions.size(); i++) {
+            Assert.assertEquals(filteredStrategies.get(i).getResultantText(), texts.get(i));
+        }
+
+        MultiRegionTextEventListener listener = new MultiRegionTextEventListener();
+        RegexBasedLocationExtractionStrategy upperRight = listener.addRegion(regions.get(1), Pattern.compile("Upper"));
+        new PdfCanvasProcessor(listener).processPageContent(doc.getPage(1));
+        Assert.assertEquals(1, upperRight.getResultantLocations().size());
+        doc.close();
+    }
+
     private boolean textIsInRectangle(PdfDocument doc, String text, Rectangle rect) throws Exception {
         FilteredTextEventListener filterListener = new FilteredTextEventListener(new LocationTextExtractionStrategy(), new TextRegionEventFilter(rect));
         String extractedText = PdfTextExtractor.getTextFromPage(doc.getPage(1), filterListener);
@@ -43,11 +43,17 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.geom.Vector;
+import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
+import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.CompactTextLayout;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.CompactTextLayoutListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredTextEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.GlyphEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.GlyphTextEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -56,6 +62,10 @@ import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -119,4 +129,45 @@ import org.junit.experimental.categories.Category;
         Assert.assertEquals("dju", region2Listener.getResultantText());
     }
 
+    @Test
+    public void compactTextLayoutTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(sourceFolder + "Sample.pdf"));
+
+        final List<TextRenderInfo> glyphRenderInfos = new ArrayList<>();
+        new PdfCanvasProcessor(new GlyphEventListener(new IEventListener() {
+            @Override
+            public void eventOccurred(IEventData data, EventType type) {
+                ((TextRenderInfo) data).preserveGraphicsState();
+                glyphRenderInfos.add((TextRenderInfo) data);
+            }
+
+            @Override
+            public Set<EventType> getSupportedEvents() {
+                return Collections.singleton(EventType.RENDER_TEXT);
+            }
+        })).processPageContent(pdfDocument.getPage(1));
+
+        CompactTextLayoutListener listener = new CompactTextLayoutListener();
+        new PdfCanvasProcessor(listener).processPageContent(pdfDocument.getPage(1));
+        CompactTextLayout layout = listener.getLayout();
+
+        Assert.assertEquals(glyphRenderInfos.size(), layout.getGlyphCount());
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < layout.getGlyphCount(); i++) {
+            TextRenderInfo glyphRenderInfo = glyphRenderInfos.get(i);
+            Vector start = glyphRenderInfo.getBaseline().getStartPoint();
+            Vector end = glyphRenderInfo.getBaseline().getEndPoint();
+            Assert.assertEquals(start.get(Vector.I1), layout.getStartX(i), 1e-3);
+            Assert.assertEquals(start.get(Vector.I2), layout.getStartY(i), 1e-3);
+            Assert.assertEquals(end.get(Vector.I1), layout.getEndX(i), 1e-3);
+            Assert.assertEquals(end.get(Vector.I2), layout.getEndY(i), 1e-3);
+            Assert.assertEquals(glyphRenderInfo.getText(), layout.getGlyphText(i));
+            Assert.assertEquals(glyphRenderInfo.getText().codePointAt(0), layout.getCodePoint(i));
+            Assert.assertEquals(glyphRenderInfo.getFont().getFontProgram().getFontNames().getFontName(),
+                    layout.getFontName(layout.getFontId(i)));
+            text.append(glyphRenderInfo.getText());
+        }
+        Assert.assertEquals(text.toString(), layout.getText());
+    }
+
 }
@@ -44,9 +44,19 @@ package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.geom.IShape;
+import com.itextpdf.kernel.geom.Path;
+import com.itextpdf.kernel.geom.Point;
+import com.itextpdf.kernel.geom.Subpath;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
@@ -54,14 +64,19 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 @Category(IntegrationTest.class)
@@ -148,6 +163,110 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         processor.processPageContent(document.getPage(1));
     }
 
+    @Test
+    public void contentOperatorOperandsTest() throws IOException {
+        byte[] content = ("1 -2.5 --3 --.5 +.25 0.1234567890123456789 /Name (str(ing)) <414243> [1 (a) /B] <</Key 2>> op\n"
+                + "% comment\n3 op 7 unknown op").getBytes();
+
+        final List<String> operands = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new NoOpEventListener());
+        processor.registerContentOperator("op", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operandsList) {
+                for (PdfObject operand : operandsList) {
+                    operands.add(operand.toString());
+                }
+                // the operands list may be modified by the operator
+                operandsList.remove(0);
+            }
+        });
+        processor.processContent(content, new PdfResources());
+
+        List<String> expectedOperands = new ArrayList<>();
+        PdfCanvasParser parser = new PdfCanvasParser(new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content))));
+        List<PdfObject> parsedOperands = new ArrayList<>();
+        while (parser.parse(parsedOperands).size() > 0) {
+            if ("op".equals(parsedOperands.get(parsedOperands.size() - 1).toString())) {
+                for (PdfObject operand : parsedOperands) {
+                    expectedOperands.add(operand.toString());
+                }
+            }
+        }
+        Assert.assertEquals(expectedOperands, operands);
+    }
+
+    @Test
+    public void rectangleClippingTest() {
+        byte[] content = "q -5 -5 50 50 re W n 20 -10 50 50 re W n Q".getBytes();
+
+        ClippingPathListener listener = new ClippingPathListener();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(listener);
+        Path pageBox = new Path();
+        pageBox.rectangle(0, 0, 100, 100);
+        processor.getGraphicsState().setClippingPath(pageBox);
+        processor.processContent(content, new PdfResources());
+
+        Assert.assertEquals(3, listener.clippingPaths.size());
+        Assert.assertEquals("[45.0 45.0, 0.0 45.0, 0.0 0.0, 45.0 0.0]", toString(listener.clippingPaths.get(0).getClippingPath()));
+        Assert.assertEquals("[45.0 40.0, 20.0 40.0, 20.0 0.0, 45.0 0.0]", toString(listener.clippingPaths.get(1).getClippingPath()));
+        Assert.assertEquals("[0.0 0.0, 100.0 0.0, 100.0 100.0, 0.0 100.0]", toString(listener.clippingPaths.get(2).getClippingPath()));
+    }
+
+    @Test
+    public void lazyClippingTest() {
+        byte[] content = ("q 5 5 150 150 re W n 10 10 m 100 30 l 50 140 l h W* n 0 0 10 10 re f "
+                + "q 20 20 50 50 re W n 1 0 0 1 5 5 cm Q 200 200 10 10 re W n Q").getBytes();
+
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ClippingPathListener listener = new ClippingPathListener();
+            PdfCanvasProcessor processor = new PdfCanvasProcessor(listener);
+            processor.setLazyClipping(i == 1);
+            Path pageBox = new Path();
+            pageBox.rectangle(0, 0, 100, 100);
+            processor.getGraphicsState().setClippingPath(pageBox);
+            processor.processContent(content, new PdfResources());
+            // the lazy clipping paths are computed only now, after the content is processed
+            for (ClippingPathInfo clippingPathInfo : listener.clippingPaths) {
+                (i == 1 ? actual : expected).add(toString(clippingPathInfo.getClippingPath()));
+            }
+        }
+        Assert.assertEquals(6, actual.size());
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static String toString(Path path) {
+        List<String> points = new ArrayList<>();
+        for (Subpath subpath : path.getSubpaths()) {
+            for (IShape segment : subpath.getSegments()) {
+                if (points.isEmpty()) {
+                    points.add(toString(segment.getBasePoints().get(0)));
+                }
+                points.add(toString(segment.getBasePoints().get(1)));
+            }
+        }
+        return points.toString();
+    }
+
+    private static String toString(Point point) {
+        return point.getX() + " " + point.getY();
+    }
+
+    private static class ClippingPathListener implements IEventListener {
+        private final List<ClippingPathInfo> clippingPaths = new ArrayList<>();
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            clippingPaths.add((ClippingPathInfo) data);
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return Collections.singleton(EventType.CLIP_PATH_CHANGED);
+        }
+    }
+
     private static class NoOpEventListener implements IEventListener {
         @Override
         public void eventOccurred(IEventData data, EventType type) {
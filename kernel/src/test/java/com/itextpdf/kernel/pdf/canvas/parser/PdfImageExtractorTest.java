@@ -0,0 +1,134 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Category(IntegrationTest.class)
+public class PdfImageExtractorTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/parser/PdfImageExtractorTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void parallelImageExtractionTest() throws IOException {
+        String inFile = destinationFolder + "parallelImageExtraction.pdf";
+        createDocumentWithImages(inFile);
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(inFile, new ReaderProperties().setConcurrentAccess(true)));
+        final List<ExtractedImage> images = new ArrayList<>();
+        PdfImageExtractor.extractImages(pdfDocument, 1, 20, new IImageExtractionSink() {
+            @Override
+            public void imageExtracted(ExtractedImage image) {
+                images.add(image);
+            }
+        }, 4, 2);
+
+        // the image shared by all the pages is extracted only once
+        Assert.assertEquals(21, images.size());
+        int[] imagesPerPage = new int[21];
+        for (ExtractedImage image : images) {
+            imagesPerPage[image.getPageNumber()]++;
+            Assert.assertTrue(Arrays.equals(image.getImage().getImageBytes(), image.getImageBytes()));
+        }
+        Assert.assertEquals(2, imagesPerPage[1]);
+        for (int i = 2; i <= 20; i++) {
+            Assert.assertEquals(1, imagesPerPage[i]);
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void sequentialImageExtractionTest() throws IOException {
+        String inFile = destinationFolder + "sequentialImageExtraction.pdf";
+        createDocumentWithImages(inFile);
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(inFile));
+        final List<Integer> pageNumbers = new ArrayList<>();
+        PdfImageExtractor.extractImages(pdfDocument, 5, 7, new IImageExtractionSink() {
+            @Override
+            public void imageExtracted(ExtractedImage image) {
+                pageNumbers.add(image.getPageNumber());
+            }
+        }, 4, 2);
+        pdfDocument.close();
+
+        // without concurrent access the images are decoded in the calling thread in the order of pages
+        Assert.assertEquals(Arrays.asList(5, 5, 6, 7), pageNumbers);
+    }
+
+    private static void createDocumentWithImages(String outFile) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFile));
+        PdfImageXObject sharedImage = new PdfImageXObject(ImageDataFactory.create(1, 1, 3, 8, new byte[] {0, 0, 0}, null));
+        for (int i = 1; i <= 20; i++) {
+            byte[] pixels = new byte[10 * 10 * 3];
+            Arrays.fill(pixels, (byte) i);
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            canvas.addXObject(sharedImage, 36, 700, 10);
+            canvas.addImage(ImageDataFactory.create(10, 10, 3, 8, pixels, null), 36, 500, 100, false);
+        }
+        pdfDocument.close();
+    }
+}
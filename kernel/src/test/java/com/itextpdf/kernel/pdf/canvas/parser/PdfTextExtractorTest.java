@@ -43,22 +43,55 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.DocumentFontCache;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 
 @Category(IntegrationTest.class)
 public class PdfTextExtractorTest extends ExtendedITextTest {
 
     private static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/parser/PdfTextExtractorTest/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/parser/PdfTextExtractorTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
 
     @Test
     @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.PDF_REFERS_TO_NOT_EXISTING_PROPERTY_DICTIONARY))
@@ -82,4 +115,212 @@ public class PdfTextExtractorTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void concurrentTextExtractionTest() throws Exception {
+        String inFile = destinationFolder + "concurrentTextExtraction.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(inFile,
+                new WriterProperties().setFullCompressionMode(true)));
+        writeNumberedPages(pdfDocument, 200);
+
+        final PdfDocument concurrentDocument = new PdfDocument(new PdfReader(inFile,
+                new ReaderProperties().setConcurrentAccess(true)));
+        final int numberOfThreads = 8;
+        final String[] texts = new String[concurrentDocument.getNumberOfPages()];
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] threads = new Thread[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int page = threadIndex + 1; page <= texts.length; page += numberOfThreads) {
+                            texts[page - 1] = PdfTextExtractor.getTextFromPage(concurrentDocument.getPage(page));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        concurrentDocument.close();
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        for (int i = 0; i < texts.length; i++) {
+            Assert.assertEquals("Page " + (i + 1), texts[i]);
+        }
+    }
+
+    @Test
+    public void concurrentTextExtractionWithInheritedPageAttributesTest() throws Exception {
+        String srcFile = destinationFolder + "concurrentInheritedPageAttributesSrc.pdf";
+        String inFile = destinationFolder + "concurrentInheritedPageAttributes.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(srcFile));
+        writeNumberedPages(pdfDocument, 200);
+
+        // move the resources and the boxes of all the pages to the root of the page tree
+        pdfDocument = new PdfDocument(new PdfReader(srcFile), new PdfWriter(inFile,
+                new WriterProperties().setFullCompressionMode(true)));
+        PdfDictionary pageTreeRoot = pdfDocument.getCatalog().getPdfObject().getAsDictionary(PdfName.Pages);
+        pageTreeRoot.put(PdfName.Resources, pdfDocument.getPage(1).getPdfObject().getAsDictionary(PdfName.Resources));
+        pageTreeRoot.put(PdfName.MediaBox, new PdfArray(PageSize.A5));
+        pageTreeRoot.put(PdfName.CropBox, new PdfArray(PageSize.A5));
+        pageTreeRoot.put(PdfName.Rotate, new PdfNumber(90));
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            PdfDictionary pageDictionary = pdfDocument.getPage(i).getPdfObject();
+            pageDictionary.remove(PdfName.Resources);
+            pageDictionary.remove(PdfName.MediaBox);
+            pageDictionary.remove(PdfName.CropBox);
+        }
+        pdfDocument.close();
+
+        final PdfDocument concurrentDocument = new PdfDocument(new PdfReader(inFile,
+                new ReaderProperties().setConcurrentAccess(true)));
+        final int numberOfThreads = 8;
+        final String[] texts = new String[concurrentDocument.getNumberOfPages()];
+        final Rectangle[] cropBoxes = new Rectangle[texts.length];
+        final int[] rotations = new int[texts.length];
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] threads = new Thread[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int page = threadIndex + 1; page <= texts.length; page += numberOfThreads) {
+                            PdfPage pdfPage = concurrentDocument.getPage(page);
+                            texts[page - 1] = PdfTextExtractor.getTextFromPage(pdfPage);
+                            cropBoxes[page - 1] = pdfPage.getCropBox();
+                            rotations[page - 1] = pdfPage.getRotation();
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        concurrentDocument.close();
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        for (int i = 0; i < texts.length; i++) {
+            Assert.assertEquals("Page " + (i + 1), texts[i]);
+            Assert.assertTrue(cropBoxes[i].equalsWithEpsilon(PageSize.A5));
+            Assert.assertEquals(90, rotations[i]);
+        }
+    }
+
+    @Test
+    public void parallelTextExtractionTest() throws Exception {
+        String inFile = destinationFolder + "parallelTextExtraction.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(inFile));
+        writeNumberedPages(pdfDocument, 100);
+
+        PdfDocument concurrentDocument = new PdfDocument(new PdfReader(inFile,
+                new ReaderProperties().setConcurrentAccess(true)));
+        List<String> texts = PdfTextExtractor.getTextFromPages(concurrentDocument, 11, 90,
+                new ITextExtractionStrategyFactory() {
+                    @Override
+                    public ITextExtractionStrategy createStrategy() {
+                        return new SimpleTextExtractionStrategy();
+                    }
+                }, new HashMap<String, IContentOperator>(), 4);
+        List<String> allTexts = PdfTextExtractor.getTextFromPages(concurrentDocument);
+        concurrentDocument.close();
+
+        Assert.assertEquals(80, texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            Assert.assertEquals("Page " + (i + 11), texts.get(i));
+        }
+        Assert.assertEquals(100, allTexts.size());
+        Assert.assertEquals("Page 100", allTexts.get(99));
+    }
+
+    @Test
+    public void iterateTextFromPagesTest() throws IOException {
+        String inFile = destinationFolder + "iterateTextFromPages.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(inFile));
+        writeNumberedPages(pdfDocument, 20);
+
+        pdfDocument = new PdfDocument(new PdfReader(inFile));
+        Iterator<String> texts = PdfTextExtractor.iterateTextFromPages(pdfDocument);
+        for (int i = 1; i <= 20; i++) {
+            Assert.assertTrue(texts.hasNext());
+            Assert.assertEquals("Page " + i, texts.next());
+        }
+        Assert.assertFalse(texts.hasNext());
+        // the released content is read again
+        Assert.assertEquals("Page 7", PdfTextExtractor.getTextFromPage(pdfDocument.getPage(7)));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void iterateTextFromStampedPagesTest() throws IOException {
+        String inFile = destinationFolder + "iterateTextFromStampedPagesIn.pdf";
+        String outFile = destinationFolder + "iterateTextFromStampedPages.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(inFile));
+        writeNumberedPages(pdfDocument, 5);
+
+        pdfDocument = new PdfDocument(new PdfReader(inFile), new PdfWriter(outFile));
+        // the content stream is edited without being marked as modified
+        PdfStream contentStream = pdfDocument.getPage(3).getFirstContentStream();
+        contentStream.setData(new String(contentStream.getBytes()).replace("Page 3", "Edited").getBytes());
+        Iterator<String> texts = PdfTextExtractor.iterateTextFromPages(pdfDocument);
+        while (texts.hasNext()) {
+            texts.next();
+        }
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(outFile));
+        Assert.assertEquals("Edited", PdfTextExtractor.getTextFromPage(pdfDocument.getPage(3)));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void documentFontCacheTest() throws IOException {
+        String inFile = destinationFolder + "documentFontCache.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(inFile));
+        writeNumberedPages(pdfDocument, 10);
+
+        pdfDocument = new PdfDocument(new PdfReader(inFile));
+        for (int i = 1; i <= 10; i++) {
+            Assert.assertEquals("Page " + i, PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i)));
+        }
+        DocumentFontCache fontCache = pdfDocument.getDocumentFontCache();
+        Assert.assertEquals(1, fontCache.size());
+        Assert.assertEquals(1, fontCache.getMissCount());
+        Assert.assertEquals(9, fontCache.getHitCount());
+
+        fontCache.setMaxSize(0);
+        Assert.assertEquals("Page 1", PdfTextExtractor.getTextFromPage(pdfDocument.getPage(1)));
+        pdfDocument.close();
+        Assert.assertEquals(0, fontCache.size());
+        Assert.assertEquals(2, fontCache.getMissCount());
+    }
+
+    @Test(expected = PdfException.class)
+    public void concurrentAccessInStampingModeTest() throws IOException {
+        new PdfDocument(new PdfReader(sourceFolder + "noPropertiesInResources.pdf",
+                new ReaderProperties().setConcurrentAccess(true)), new PdfWriter(new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Adds the pages showing their numbers, e.g. "Page 1", to the document and closes it.
+     */
+    private static void writeNumberedPages(PdfDocument pdfDocument, int numberOfPages) throws IOException {
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        for (int i = 1; i <= numberOfPages; i++) {
+            new PdfCanvas(pdfDocument.addNewPage())
+                    .beginText().setFontAndSize(font, 12).moveText(36, 500).showText("Page " + i).endText();
+        }
+        pdfDocument.close();
+    }
 }
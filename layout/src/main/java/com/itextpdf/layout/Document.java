@@ -51,11 +51,14 @@ import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.element.ILargeElement;
+import com.itextpdf.layout.property.AreaBreakType;
 import com.itextpdf.layout.property.Property;
 import com.itextpdf.layout.renderer.DocumentRenderer;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.RootRenderer;
 
+import java.util.List;
+
 /**
  * Document is the default root element when creating a self-sufficient PDF. It
  * mainly operates high-level operations e.g. setting page size and rotation,
@@ -165,6 +168,41 @@ public class Document extends RootElement<Document> {
         return this;
     }
 
+    /**
+     * Adds the sections to the document, each of them starting on a new page, as if they were
+     * separated by {@link AreaBreak area breaks}. The sections are laid out concurrently with
+     * {@link DocumentRenderer#addSections(List, int)} if the document is flushed immediately,
+     * is neither tagged nor opened with a reader, uses the default {@link DocumentRenderer} and the
+     * sections contain no {@link ILargeElement large elements}. Otherwise they are added one after another.
+     *
+     * @param sections    the sections to be added, each of them being a list of block elements
+     * @param parallelism the maximum number of sections laid out at the same time
+     * @return this element
+     */
+    public Document addSections(List<? extends List<? extends IBlockElement>> sections, int parallelism) {
+        checkClosingStatus();
+        RootRenderer renderer = ensureRootRendererNotNull();
+        if (parallelism > 1 && immediateFlush && !pdfDocument.isTagged() && pdfDocument.getReader() == null
+                && renderer.getClass() == DocumentRenderer.class && !containsLargeElements(sections)) {
+            ((DocumentRenderer) renderer).addSections(sections, parallelism);
+        } else {
+            boolean firstSection = true;
+            for (List<? extends IBlockElement> section : sections) {
+                if (section.isEmpty()) {
+                    continue;
+                }
+                if (!firstSection) {
+                    add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                }
+                firstSection = false;
+                for (IBlockElement element : section) {
+                    add(element);
+                }
+            }
+        }
+        return this;
+    }
+
     /**
      * Gets PDF document.
      *
@@ -197,6 +235,10 @@ public class Document extends RootElement<Document> {
      * account all its current child elements. May become very
      * resource-intensive for large documents.
      * <p>
+     * The default {@link DocumentRenderer} reuses the previous layout results of the child elements
+     * which have not been changed and which start in the same area of a page as before, see
+     * {@link DocumentRenderer#addChild(IRenderer)}.
+     * <p>
      * Do not use when you have set {@link #immediateFlush} to <code>true</code>.
      */
     public void relayout() {
@@ -351,6 +393,17 @@ public class Document extends RootElement<Document> {
         return rootRenderer;
     }
 
+    private static boolean containsLargeElements(List<? extends List<? extends IBlockElement>> sections) {
+        for (List<? extends IBlockElement> section : sections) {
+            for (IBlockElement element : section) {
+                if (element instanceof ILargeElement) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Checks whether a method is invoked at the closed document
      */
@@ -56,6 +56,7 @@ import com.itextpdf.layout.property.BorderRadius;
 import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.Underline;
@@ -63,9 +64,9 @@ import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.layout.splitting.ISplitCharacters;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A generic abstract element that fits in a PDF layout object hierarchy.
@@ -75,7 +76,7 @@ import java.util.Map;
  */
 public abstract class ElementPropertyContainer<T extends IPropertyContainer> implements IPropertyContainer {
 
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
 
     @Override
     public void setProperty(int property, Object value) {
@@ -107,6 +108,22 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
         return (T1) properties.<T1>get(property);
     }
 
+    /**
+     * Makes the modifications of the properties of this container increment the given modification count,
+     * so that the values resolved through this container can be cached,
+     * see {@link PropertyMap#trackModifications(AtomicLong)}.
+     *
+     * @param modificationCount the modification count of the renderer tree in which the properties are resolved
+     * @return {@code true} if the modifications are tracked, {@code false} if they cannot be tracked
+     */
+    public boolean trackPropertyModifications(AtomicLong modificationCount) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).trackModifications(modificationCount);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public <T1> T1 getDefaultProperty(int property) {
         switch (property) {
@@ -62,6 +62,7 @@ import com.itextpdf.layout.property.Property;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.layout.property.VerticalAlignment;
+import com.itextpdf.layout.renderer.GlyphLineCache;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.RootRenderer;
 import com.itextpdf.layout.tagging.LayoutTaggingHelper;
@@ -89,6 +90,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
     protected PdfFont defaultFont;
     protected FontProvider defaultFontProvider;
     protected ISplitCharacters defaultSplitCharacters;
+    protected GlyphLineCache defaultGlyphLineCache;
 
     protected RootRenderer rootRenderer;
 
@@ -188,6 +190,11 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
                         defaultSplitCharacters = new DefaultSplitCharacters();
                     }
                     return (T1) (Object) defaultSplitCharacters;
+                case Property.GLYPH_LINE_CACHE:
+                    if (defaultGlyphLineCache == null) {
+                        defaultGlyphLineCache = new GlyphLineCache();
+                    }
+                    return (T1) (Object) defaultGlyphLineCache;
                 case Property.FONT_SIZE:
                     return (T1) (Object) UnitValue.createPointValue(12);
                 case Property.TAGGING_HELPER:
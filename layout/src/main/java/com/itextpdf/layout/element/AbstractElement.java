@@ -47,11 +47,13 @@ import com.itextpdf.kernel.pdf.action.PdfAction;
 import com.itextpdf.layout.ElementPropertyContainer;
 import com.itextpdf.layout.Style;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.renderer.IRenderer;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Defines the most common properties that most {@link IElement} implementations
@@ -129,9 +131,28 @@ public abstract class AbstractElement<T extends IElement> extends ElementPropert
             styles = new LinkedHashSet<>();
         }
         styles.add(style);
+        if (properties instanceof PropertyMap) {
+            // the style is not tracked by the renderers which have cached the properties of this element
+            ((PropertyMap) properties).markModified();
+        }
         return (T) (Object) this;
     }
 
+    @Override
+    public boolean trackPropertyModifications(AtomicLong modificationCount) {
+        if (!super.trackPropertyModifications(modificationCount)) {
+            return false;
+        }
+        if (styles != null) {
+            for (Style style : styles) {
+                if (!style.trackPropertyModifications(modificationCount)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Gets the child elements of this elements
      *
@@ -606,13 +606,14 @@ public class Table extends BlockElement<Table> implements ILargeElement {
     /**
      * Returns a cell as specified by its location. If the cell is in a col-span
      * or row-span and is not the top left cell, then <code>null</code> is returned.
+     * For large tables <code>null</code> is also returned for the rows which have already been flushed.
      *
      * @param row    the row of the cell. indexes are zero-based
      * @param column the column of the cell. indexes are zero-based
      * @return the cell at the specified position.
      */
     public Cell getCell(int row, int column) {
-        if (row - rowWindowStart < rows.size()) {
+        if (row >= rowWindowStart && row - rowWindowStart < rows.size()) {
             Cell cell = rows.get(row - rowWindowStart)[column];
             // make sure that it is top left corner of cell, even in case colspan or rowspan
             if (cell != null && cell.getRow() == row && cell.getCol() == column) {
@@ -729,18 +730,19 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         int firstRow = lastAddedRowGroups.get(0).startRow;
         int lastRow = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).finishRow;
 
-        List<IElement> toRemove = new ArrayList<>();
+        // the remaining cells are copied rather than the flushed ones removed one by one,
+        // otherwise flushing would take quadratic time for large pending regions
+        List<IElement> toKeep = new ArrayList<>();
         for (IElement cell : childElements) {
-            if (((Cell) cell).getRow() >= firstRow && ((Cell) cell).getRow() <= lastRow) {
-                toRemove.add(cell);
+            if (((Cell) cell).getRow() < firstRow || ((Cell) cell).getRow() > lastRow) {
+                toKeep.add(cell);
             }
         }
-        childElements.removeAll(toRemove);
+        childElements.clear();
+        childElements.addAll(toKeep);
 
-        for (int i = 0; i < lastRow - firstRow; i++) {
-            rows.remove(firstRow - rowWindowStart);
-        }
-        lastAddedRow = rows.remove(firstRow - rowWindowStart);
+        lastAddedRow = rows.get(lastRow - rowWindowStart);
+        rows.subList(firstRow - rowWindowStart, lastRow - rowWindowStart + 1).clear();
         rowWindowStart = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).getFinishRow() + 1;
 
         lastAddedRowGroups = null;
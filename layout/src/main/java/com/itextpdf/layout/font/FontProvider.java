@@ -324,7 +324,7 @@ public class FontProvider {
      * @param tempFonts Set of temporary fonts.
      * @return cached or new instance of {@link PdfFont}.
      */
-    public PdfFont getPdfFont(FontInfo fontInfo, FontSet tempFonts) {
+    public synchronized PdfFont getPdfFont(FontInfo fontInfo, FontSet tempFonts) {
         if (pdfFonts.containsKey(fontInfo)) {
             return pdfFonts.get(fontInfo);
         } else {
@@ -58,7 +58,7 @@ class FontSelectorCache {
         this.defaultFontSet = defaultFontSet;
     }
 
-    FontSelector get(FontSelectorKey key) {
+    synchronized FontSelector get(FontSelectorKey key) {
         if (update(null, null)) {
             return null;
         } else {
@@ -66,7 +66,7 @@ class FontSelectorCache {
         }
     }
 
-    FontSelector get(FontSelectorKey key, FontSet fontSet) {
+    synchronized FontSelector get(FontSelectorKey key, FontSet fontSet) {
         if (fontSet == null) {
             return get(key);
         } else {
@@ -82,13 +82,13 @@ class FontSelectorCache {
         }
     }
 
-    void put(FontSelectorKey key, FontSelector fontSelector) {
+    synchronized void put(FontSelectorKey key, FontSelector fontSelector) {
         //update defaultSelectors to reset counter before pushing if needed.
         update(null, null);
         defaultSelectors.map.put(key, fontSelector);
     }
 
-    void put(FontSelectorKey key, FontSelector fontSelector, FontSet fontSet) {
+    synchronized void put(FontSelectorKey key, FontSelector fontSelector, FontSet fontSet) {
         if (fontSet == null) {
             put(key, fontSelector);
         } else {
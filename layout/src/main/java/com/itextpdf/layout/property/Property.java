@@ -117,6 +117,10 @@ public final class Property {
     public static final int FONT_SIZE = 24;
     public static final int FORCED_PLACEMENT = 26;
     public static final int FULL = 25;
+    /**
+     * Shall be instance of {@link com.itextpdf.layout.renderer.GlyphLineCache}
+     */
+    public static final int GLYPH_LINE_CACHE = 119;
     public static final int HEIGHT = 27;
     public static final int HORIZONTAL_ALIGNMENT = 28;
     public static final int HORIZONTAL_BORDER_SPACING = 115;
@@ -213,7 +217,8 @@ public final class Property {
      * related to textual operations. Indicates whether or not this type of property is inheritable.
      */
     private static final boolean[] INHERITED_PROPERTIES;
-    private static final int MAX_INHERITED_PROPERTY_ID = 118;
+    private static final int MAX_INHERITED_PROPERTY_ID = 119;
+    private static final int MAX_PROPERTY_ID = 119;
 
     static {
         INHERITED_PROPERTIES = new boolean[MAX_INHERITED_PROPERTY_ID + 1];
@@ -234,6 +239,7 @@ public final class Property {
         INHERITED_PROPERTIES[Property.FONT_STYLE] = true;
         INHERITED_PROPERTIES[Property.FONT_WEIGHT] = true;
         INHERITED_PROPERTIES[Property.FORCED_PLACEMENT] = true;
+        INHERITED_PROPERTIES[Property.GLYPH_LINE_CACHE] = true;
         INHERITED_PROPERTIES[Property.HYPHENATION] = true;
         INHERITED_PROPERTIES[Property.ITALIC_SIMULATION] = true;
         INHERITED_PROPERTIES[Property.KEEP_TOGETHER] = true;
@@ -264,4 +270,13 @@ public final class Property {
     public static boolean isPropertyInherited(int property) {
         return property >= 0 && property <= MAX_INHERITED_PROPERTY_ID && INHERITED_PROPERTIES[property];
     }
+
+    /**
+     * Gets the greatest ID of the properties defined in this class.
+     *
+     * @return the greatest property ID
+     */
+    public static int getMaxPropertyId() {
+        return MAX_PROPERTY_ID;
+    }
 }
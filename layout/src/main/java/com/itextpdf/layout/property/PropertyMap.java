@@ -0,0 +1,397 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Map} of layout properties which stores the values in an array indexed directly by
+ * the {@link Property} constants. Keys outside of the range of the known properties are kept
+ * in an ordinary {@link HashMap}.
+ * <p>
+ * Modifications of {@link Property#isPropertyInherited(int) inherited} properties in a tracked property map
+ * increment the modification count the map is tracked with, see {@link #trackModifications(AtomicLong)}. It allows
+ * to cache inherited values resolved through a chain of property containers, e.g. a renderer and its parents,
+ * and to invalidate such caches once any of them changes. The count is shared by the maps of one tree of
+ * property containers, e.g. of the renderers of a document, so that the modifications made in other trees do not
+ * affect the caches of this one. The maps are created untracked and start to be tracked only when some value
+ * is resolved through them.
+ */
+public class PropertyMap extends AbstractMap<Integer, Object> {
+
+    private static final int MAX_INDEXED_PROPERTY_ID = 255;
+    private static final int INITIAL_CAPACITY = 32;
+
+    // Marks properties explicitly set to null
+    private static final Object NULL_VALUE = new Object();
+
+    private Object[] values;
+    private int indexedSize;
+    // the maps shared by the concurrently laid out sections are tracked by all of them with the same count
+    private volatile AtomicLong modificationCount;
+    private Map<Integer, Object> overflow;
+    private Set<Map.Entry<Integer, Object>> entrySet;
+
+    /**
+     * Creates an empty property map.
+     */
+    public PropertyMap() {
+    }
+
+    /**
+     * Creates a property map with the same mappings as the given map.
+     *
+     * @param properties the map whose mappings are to be placed in this map
+     */
+    public PropertyMap(Map<Integer, Object> properties) {
+        putAll(properties);
+    }
+
+    /**
+     * Makes the modifications of inherited properties in this map increment the given modification count
+     * from now on. Shall be called before a value which depends on the content of this map is cached.
+     * If the map has been tracked with another count, that count is incremented, as the values cached
+     * with it would not be invalidated anymore.
+     *
+     * @param modificationCount the modification count of the tree of property containers this map belongs to
+     */
+    public void trackModifications(AtomicLong modificationCount) {
+        if (this.modificationCount != modificationCount) {
+            if (this.modificationCount != null) {
+                this.modificationCount.incrementAndGet();
+            }
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    /**
+     * Checks whether the modifications of inherited properties in this map increment a modification count.
+     *
+     * @return {@code true} if the map is tracked, {@code false} otherwise
+     */
+    public boolean isTracked() {
+        return modificationCount != null;
+    }
+
+    /**
+     * Increments the modification count this map is tracked with, if any. Shall be called when the result
+     * of a property resolution through this map might change without a modification of the map,
+     * e.g. when a renderer is attached to another parent.
+     */
+    public void markModified() {
+        if (modificationCount != null) {
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the value of the property.
+     *
+     * @param property the property key
+     * @return the value of the property, or {@code null} if there is no such property
+     */
+    public Object get(int property) {
+        if (isIndexed(property)) {
+            Object value = values != null && property < values.length ? values[property] : null;
+            return value == NULL_VALUE ? null : value;
+        }
+        return overflow != null ? overflow.get(property) : null;
+    }
+
+    /**
+     * Checks if the map contains the property, even if its value is {@code null}.
+     *
+     * @param property the property key
+     * @return {@code true} if the property is present in this map, {@code false} otherwise
+     */
+    public boolean containsKey(int property) {
+        if (isIndexed(property)) {
+            return values != null && property < values.length && values[property] != null;
+        }
+        return overflow != null && overflow.containsKey(property);
+    }
+
+    /**
+     * Sets the value of the property.
+     *
+     * @param property the property key
+     * @param value    the new value of the property, may be {@code null}
+     * @return the previous value of the property, or {@code null} if there was no such property
+     */
+    public Object put(int property, Object value) {
+        onModification(property);
+        if (!isIndexed(property)) {
+            if (overflow == null) {
+                overflow = new HashMap<>();
+            }
+            return overflow.put(property, value);
+        }
+        if (values == null || property >= values.length) {
+            int capacity = values == null ? INITIAL_CAPACITY : values.length;
+            while (capacity <= property) {
+                capacity <<= 1;
+            }
+            values = values == null ? new Object[capacity] : Arrays.copyOf(values, capacity);
+        }
+        Object previous = values[property];
+        values[property] = value == null ? NULL_VALUE : value;
+        if (previous == null) {
+            indexedSize++;
+            return null;
+        }
+        return previous == NULL_VALUE ? null : previous;
+    }
+
+    /**
+     * Removes the property.
+     *
+     * @param property the property key
+     * @return the previous value of the property, or {@code null} if there was no such property
+     */
+    public Object remove(int property) {
+        if (isIndexed(property)) {
+            if (values == null || property >= values.length || values[property] == null) {
+                return null;
+            }
+            onModification(property);
+            Object previous = values[property];
+            values[property] = null;
+            indexedSize--;
+            return previous == NULL_VALUE ? null : previous;
+        }
+        return overflow != null ? overflow.remove(property) : null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public Object put(Integer key, Object value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ?> m) {
+        if (m instanceof PropertyMap) {
+            PropertyMap other = (PropertyMap) m;
+            if (other.values != null) {
+                for (int i = 0; i < other.values.length; i++) {
+                    if (other.values[i] != null) {
+                        Object value = other.values[i];
+                        put(i, value == NULL_VALUE ? null : value);
+                    }
+                }
+            }
+            if (other.overflow != null) {
+                putAll(other.overflow);
+            }
+        } else {
+            for (Map.Entry<? extends Integer, ?> entry : m.entrySet()) {
+                put((int) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return indexedSize + (overflow != null ? overflow.size() : 0);
+    }
+
+    @Override
+    public void clear() {
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    onModification(i);
+                    values[i] = null;
+                }
+            }
+        }
+        indexedSize = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void onModification(int property) {
+        if (modificationCount != null && Property.isPropertyInherited(property)) {
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    private static boolean isIndexed(int property) {
+        return property >= 0 && property <= MAX_INDEXED_PROPERTY_ID;
+    }
+
+    private int nextIndexedProperty(int from) {
+        if (values != null) {
+            for (int i = from; i < values.length; i++) {
+                if (values[i] != null) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<Integer, Object>> {
+        @Override
+        public Iterator<Map.Entry<Integer, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return PropertyMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            PropertyMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Integer, Object>> {
+        private int next = nextIndexedProperty(0);
+        private int current = -1;
+        private boolean overflowCurrent;
+        private Iterator<Map.Entry<Integer, Object>> overflowIterator;
+
+        @Override
+        public boolean hasNext() {
+            if (next >= 0) {
+                return true;
+            }
+            if (overflowIterator == null && overflow != null) {
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator != null && overflowIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<Integer, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next >= 0) {
+                current = next;
+                next = nextIndexedProperty(current + 1);
+                return new IndexedEntry(current);
+            }
+            current = -1;
+            overflowCurrent = true;
+            return new OverflowEntry(overflowIterator.next());
+        }
+
+        @Override
+        public void remove() {
+            if (current >= 0) {
+                PropertyMap.this.remove(current);
+                current = -1;
+            } else if (overflowCurrent) {
+                overflowIterator.remove();
+                overflowCurrent = false;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private class IndexedEntry extends SimpleEntry<Integer, Object> {
+        private static final long serialVersionUID = -174113967984396200L;
+
+        IndexedEntry(int property) {
+            super(property, PropertyMap.this.get(property));
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            super.setValue(value);
+            return put((int) getKey(), value);
+        }
+    }
+
+    private static class OverflowEntry extends SimpleEntry<Integer, Object> {
+        private static final long serialVersionUID = 1335106686317446833L;
+
+        private final Map.Entry<Integer, Object> entry;
+
+        OverflowEntry(Map.Entry<Integer, Object> entry) {
+            super(entry);
+            this.entry = entry;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            super.setValue(value);
+            return entry.setValue(value);
+        }
+    }
+}
@@ -64,6 +64,7 @@ import com.itextpdf.kernel.pdf.canvas.CanvasArtifact;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.extgstate.PdfExtGState;
 import com.itextpdf.kernel.pdf.xobject.PdfXObject;
+import com.itextpdf.layout.ElementPropertyContainer;
 import com.itextpdf.layout.IPropertyContainer;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Div;
@@ -85,6 +86,7 @@ import com.itextpdf.layout.property.BoxSizingPropertyValue;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.OverflowPropertyValue;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.Transform;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.UnitValue;
@@ -94,9 +96,9 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Defines the most common properties and behavior that are shared by most
@@ -122,9 +124,20 @@ public abstract class AbstractRenderer implements IRenderer {
     protected boolean flushed = false;
     protected LayoutArea occupiedArea;
     protected IRenderer parent;
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
     protected boolean isLastRendererForModelElement = true;
 
+    // The modification count of the properties of the renderer tree this renderer is the root of
+    AtomicLong propertyModificationCount;
+
+    // Inherited properties resolved through the parent, see PropertyMap#trackModifications(AtomicLong)
+    private int[] inheritedPropertyKeys;
+    private Object[] inheritedPropertyValues;
+    private int inheritedPropertyCount;
+    private AtomicLong inheritedPropertyModificationCount;
+    private long inheritedPropertyModificationCountValue;
+    private IRenderer inheritedPropertyParent;
+
     /**
      * Creates a renderer.
      */
@@ -292,7 +305,7 @@ public abstract class AbstractRenderer implements IRenderer {
             return (T1) property;
         }
         // TODO in some situations we will want to check inheritance with additional info, such as parent and descendant.
-        if (parent != null && Property.isPropertyInherited(key) && (property = parent.<T1>getProperty(key)) != null) {
+        if (parent != null && Property.isPropertyInherited(key) && (property = getInheritedProperty(key)) != null) {
             return (T1) property;
         }
         property = this.<T1>getDefaultProperty(key);
@@ -963,6 +976,10 @@ public abstract class AbstractRenderer implements IRenderer {
     @Override
     public IRenderer setParent(IRenderer parent) {
         this.parent = parent;
+        if (properties instanceof PropertyMap) {
+            // the children might have cached the properties inherited through the former parent
+            ((PropertyMap) properties).markModified();
+        }
         return this;
     }
 
@@ -2338,6 +2355,88 @@ public abstract class AbstractRenderer implements IRenderer {
         return borderRadii;
     }
 
+    /**
+     * Gets the modification count of the properties of the renderer tree this renderer is the root of.
+     */
+    AtomicLong getPropertyModificationCount() {
+        if (propertyModificationCount == null) {
+            propertyModificationCount = new AtomicLong();
+        }
+        return propertyModificationCount;
+    }
+
+    /**
+     * Gets the value of an inherited property from the parent renderer. The resolved values are cached
+     * until an inherited property of the renderer tree is modified or the parent of this renderer is changed.
+     */
+    private Object getInheritedProperty(int property) {
+        AtomicLong modificationCount = inheritedPropertyModificationCount;
+        if (modificationCount == null || inheritedPropertyModificationCountValue != modificationCount.get()
+                || inheritedPropertyParent != parent) {
+            inheritedPropertyCount = 0;
+            inheritedPropertyParent = parent;
+            modificationCount = trackPropertyModifications(parent);
+            inheritedPropertyModificationCount = modificationCount;
+            if (modificationCount == null) {
+                return parent.<Object>getProperty(property);
+            }
+            inheritedPropertyModificationCountValue = modificationCount.get();
+        } else {
+            for (int i = 0; i < inheritedPropertyCount; i++) {
+                if (inheritedPropertyKeys[i] == property) {
+                    return inheritedPropertyValues[i];
+                }
+            }
+        }
+        Object value = parent.<Object>getProperty(property);
+        if (inheritedPropertyKeys == null) {
+            inheritedPropertyKeys = new int[4];
+            inheritedPropertyValues = new Object[4];
+        } else if (inheritedPropertyCount == inheritedPropertyKeys.length) {
+            inheritedPropertyKeys = Arrays.copyOf(inheritedPropertyKeys, inheritedPropertyCount * 2);
+            inheritedPropertyValues = Arrays.copyOf(inheritedPropertyValues, inheritedPropertyCount * 2);
+        }
+        inheritedPropertyKeys[inheritedPropertyCount] = property;
+        inheritedPropertyValues[inheritedPropertyCount++] = value;
+        return value;
+    }
+
+    /**
+     * Makes the modifications of the properties of the renderer, of its parents and of their model elements
+     * increment the modification count of the root of the renderer tree, so that the values inherited from them
+     * can be cached.
+     *
+     * @return the modification count, or null if the modifications of some of the properties cannot be tracked
+     */
+    private static AtomicLong trackPropertyModifications(IRenderer renderer) {
+        AbstractRenderer root = null;
+        for (IRenderer current = renderer; current != null; current = current.getParent()) {
+            if (!hasTrackableProperties(current)) {
+                return null;
+            }
+            root = (AbstractRenderer) current;
+        }
+        AtomicLong modificationCount = root.getPropertyModificationCount();
+        for (IRenderer current = renderer; current != null; current = current.getParent()) {
+            AbstractRenderer abstractRenderer = (AbstractRenderer) current;
+            ((PropertyMap) abstractRenderer.properties).trackModifications(modificationCount);
+            if (abstractRenderer.modelElement != null && !((ElementPropertyContainer) abstractRenderer.modelElement)
+                    .trackPropertyModifications(modificationCount)) {
+                return null;
+            }
+        }
+        return modificationCount;
+    }
+
+    private static boolean hasTrackableProperties(IRenderer renderer) {
+        if (!(renderer instanceof AbstractRenderer)) {
+            return false;
+        }
+        AbstractRenderer abstractRenderer = (AbstractRenderer) renderer;
+        return abstractRenderer.properties instanceof PropertyMap
+                && (abstractRenderer.modelElement == null || abstractRenderer.modelElement instanceof ElementPropertyContainer);
+    }
+
     private static UnitValue[] getPaddings(IRenderer renderer) {
         return new UnitValue[]{renderer.<UnitValue>getProperty(Property.PADDING_TOP), renderer.<UnitValue>getProperty(Property.PADDING_RIGHT),
                 renderer.<UnitValue>getProperty(Property.PADDING_BOTTOM), renderer.<UnitValue>getProperty(Property.PADDING_LEFT)};
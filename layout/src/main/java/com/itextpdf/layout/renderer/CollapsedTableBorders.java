@@ -88,9 +88,8 @@ class CollapsedTableBorders extends TableBorders {
             }
         }
         // process right border
-        borderList = getVerticalBorder(col + colspan);
         for (int i = startRow - largeTableIndexOffset + row - rowspan + 1; i < startRow - largeTableIndexOffset + row + 1; i++) {
-            border = borderList.get(i);
+            border = getCollapsedVerticalBorder(col + colspan, i);
             if (null != border && border.getWidth() > indents[1]) {
                 indents[1] = border.getWidth();
             }
@@ -104,9 +103,8 @@ class CollapsedTableBorders extends TableBorders {
             }
         }
         // process left border
-        borderList = getVerticalBorder(col);
         for (int i = startRow - largeTableIndexOffset + row - rowspan + 1; i < startRow - largeTableIndexOffset + row + 1; i++) {
-            border = borderList.get(i);
+            border = getCollapsedVerticalBorder(col, i);
             if (null != border && border.getWidth() > indents[3]) {
                 indents[3] = border.getWidth();
             }
@@ -126,6 +124,25 @@ class CollapsedTableBorders extends TableBorders {
         }
     }
 
+    /**
+     * Gets the border of the given vertical line at the given row, collapsed with the table border
+     * if the line is the first or the last one. Unlike {@link #getVerticalBorder(int)}, the other rows
+     * of the line are not processed, so the cost doesn't depend on the number of rows.
+     */
+    private Border getCollapsedVerticalBorder(int index, int row) {
+        if (index == 0) {
+            return getCollapsedBorder(verticalBorders.get(0).get(row), tableBoundingBorders[3]);
+        } else if (index == numberOfColumns) {
+            return getCollapsedBorder(verticalBorders.get(verticalBorders.size() - 1).get(row), tableBoundingBorders[1]);
+        } else {
+            return verticalBorders.get(index).get(row);
+        }
+    }
+
+    private int getVerticalBorderSize(int index) {
+        return verticalBorders.get(index == numberOfColumns ? verticalBorders.size() - 1 : index).size();
+    }
+
 
     public List<Border> getHorizontalBorder(int index) {
         if (index == startRow) {
@@ -367,12 +384,12 @@ class CollapsedTableBorders extends TableBorders {
         float x1 = startX;
         float x2 = x1 + countedColumnWidth[0];
         if (i == 0) {
-            Border firstBorder = getFirstVerticalBorder().get(startRow - largeTableIndexOffset);
+            Border firstBorder = getCollapsedVerticalBorder(0, startRow - largeTableIndexOffset);
             if (firstBorder != null) {
                 x1 -= firstBorder.getWidth() / 2;
             }
         } else if (i == finishRow - startRow + 1) {
-            Border firstBorder = getFirstVerticalBorder().get(startRow - largeTableIndexOffset + finishRow - startRow + 1 - 1);
+            Border firstBorder = getCollapsedVerticalBorder(0, startRow - largeTableIndexOffset + finishRow - startRow + 1 - 1);
             if (firstBorder != null) {
                 x1 -= firstBorder.getWidth() / 2;
             }
@@ -399,10 +416,15 @@ class CollapsedTableBorders extends TableBorders {
         Border lastBorder = borders.size() > j - 1 ? borders.get(j - 1) : null;
         if (lastBorder != null) {
             if (i == 0) {
-                if (getVerticalBorder(j).get(startRow - largeTableIndexOffset + i) != null)
-                    x2 += getVerticalBorder(j).get(startRow - largeTableIndexOffset + i).getWidth() / 2;
-            } else if (i == finishRow - startRow + 1 && getVerticalBorder(j).size() > startRow - largeTableIndexOffset + i - 1 && getVerticalBorder(j).get(startRow - largeTableIndexOffset + i - 1) != null) {
-                x2 += getVerticalBorder(j).get(startRow - largeTableIndexOffset + i - 1).getWidth() / 2;
+                Border lastVerticalBorder = getCollapsedVerticalBorder(j, startRow - largeTableIndexOffset + i);
+                if (lastVerticalBorder != null) {
+                    x2 += lastVerticalBorder.getWidth() / 2;
+                }
+            } else if (i == finishRow - startRow + 1 && getVerticalBorderSize(j) > startRow - largeTableIndexOffset + i - 1) {
+                Border lastVerticalBorder = getCollapsedVerticalBorder(j, startRow - largeTableIndexOffset + i - 1);
+                if (lastVerticalBorder != null) {
+                    x2 += lastVerticalBorder.getWidth() / 2;
+                }
             }
 
             lastBorder.drawCellBorder(canvas, x1, y1, x2, y1, Border.Side.NONE);
@@ -411,7 +433,6 @@ class CollapsedTableBorders extends TableBorders {
     }
 
     protected TableBorders drawVerticalBorder(int i, float startY, float x1, PdfCanvas canvas, List<Float> heights) {
-        List<Border> borders = getVerticalBorder(i);
         float y1 = startY;
         float y2 = y1;
         if (!heights.isEmpty()) {
@@ -419,8 +440,8 @@ class CollapsedTableBorders extends TableBorders {
         }
         int j;
         for (j = 1; j < heights.size(); j++) {
-            Border prevBorder = borders.get(startRow - largeTableIndexOffset + j - 1);
-            Border curBorder = borders.get(startRow - largeTableIndexOffset + j);
+            Border prevBorder = getCollapsedVerticalBorder(i, startRow - largeTableIndexOffset + j - 1);
+            Border curBorder = getCollapsedVerticalBorder(i, startRow - largeTableIndexOffset + j);
             if (prevBorder != null) {
                 if (!prevBorder.equals(curBorder)) {
                     prevBorder.drawCellBorder(canvas, x1, y1, x1, y2, Border.Side.NONE);
@@ -434,10 +455,10 @@ class CollapsedTableBorders extends TableBorders {
                 y2 -= (float) heights.get(j);
             }
         }
-        if (borders.size() == 0) {
+        if (getVerticalBorderSize(i) == 0) {
             return this;
         }
-        Border lastBorder = borders.get(startRow - largeTableIndexOffset + j - 1);
+        Border lastBorder = getCollapsedVerticalBorder(i, startRow - largeTableIndexOffset + j - 1);
         if (lastBorder != null) {
             lastBorder.drawCellBorder(canvas, x1, y1, x1, y2, Border.Side.NONE);
         }
@@ -50,6 +50,8 @@ import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.IBlockElement;
+import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutResult;
 import com.itextpdf.layout.layout.RootLayoutArea;
@@ -60,12 +62,19 @@ import com.itextpdf.layout.tagging.LayoutTaggingHelper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class DocumentRenderer extends RootRenderer {
 
     protected Document document;
     protected List<Integer> wrappedContentPage = new ArrayList<>();
 
+    private LayoutResultCache layoutResultCache;
+    // the layout results of the renderer which has been replaced by this one on relayout
+    private LayoutResultCache previousLayoutResultCache;
+    private LayoutResultCache.Entry recordedEntry;
+
     public DocumentRenderer(Document document) {
         this(document, true);
     }
@@ -83,12 +92,141 @@ public class DocumentRenderer extends RootRenderer {
 
     /**
      * For {@link DocumentRenderer}, this has a meaning of the renderer that will be used for relayout.
+     * The renderer reuses the layout results of this one for the top-level elements which have not been changed
+     * and which start in the same area of a page as before, see {@link #addChild(IRenderer)}.
      *
      * @return relayout renderer.
      */
     @Override
     public IRenderer getNextRenderer() {
-        return new DocumentRenderer(document, immediateFlush);
+        DocumentRenderer nextRenderer = new DocumentRenderer(document, immediateFlush);
+        nextRenderer.previousLayoutResultCache = layoutResultCache;
+        nextRenderer.propertyModificationCount = propertyModificationCount;
+        return nextRenderer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If the content is not flushed immediately, the layout results of the top-level elements are kept, so that
+     * they are reused on relayout if neither the element nor the properties of the document have changed, and
+     * if the element starts in the same area of a page, which number may differ. It is done only for the documents
+     * which are neither tagged nor opened with a reader, and only if the layout of the element depends on nothing
+     * but the element itself and the area, e.g. there are no floats, positioned elements or elements kept with
+     * the next one around.
+     */
+    @Override
+    public void addChild(IRenderer renderer) {
+        PdfDocument pdfDocument = document.getPdfDocument();
+        if (renderer == null || recordedEntry != null || immediateFlush || getClass() != DocumentRenderer.class
+                || pdfDocument.isTagged() || pdfDocument.getReader() != null || !isLayoutStateOnlyInCurrentArea()
+                || !LayoutResultCache.isCreatedFromElement(renderer)) {
+            discardPreviousLayoutResults(renderer);
+            super.addChild(renderer);
+            return;
+        }
+        if (previousLayoutResultCache != null) {
+            LayoutResultCache.Entry entry = previousLayoutResultCache.take((IElement) renderer.getModelElement(),
+                    document, pdfDocument.getNumberOfPages(), currentArea, getInitialCurrentArea());
+            discardPreviousLayoutResults(renderer);
+            if (entry != null) {
+                addLayoutResults(entry);
+                return;
+            }
+        }
+        if (layoutResultCache == null) {
+            layoutResultCache = new LayoutResultCache();
+        }
+        recordedEntry = layoutResultCache.startRecording(renderer, document, pdfDocument.getNumberOfPages(),
+                currentArea, getInitialCurrentArea());
+        int numberOfChildRenderers = childRenderers.size();
+        int numberOfPositionedRenderers = positionedRenderers.size();
+        super.addChild(renderer);
+        LayoutResultCache.Entry entry = recordedEntry;
+        recordedEntry = null;
+        if (entry != null && currentArea != null && positionedRenderers.size() == numberOfPositionedRenderers
+                && isLayoutStateOnlyInCurrentArea()) {
+            layoutResultCache.finishRecording(entry, childRenderers.subList(numberOfChildRenderers, childRenderers.size()),
+                    currentArea, getInitialCurrentArea());
+        }
+    }
+
+    @Override
+    public void flush() {
+        // the flushed renderers shall not be drawn once again
+        layoutResultCache = null;
+        previousLayoutResultCache = null;
+        super.flush();
+    }
+
+    /**
+     * Adds the sections to the document, each of them starting on a new page. The first section continues
+     * the content added so far and is laid out in the calling thread, while the others are laid out by a
+     * fork/join pool, each on its own range of pages, and are drawn in order once the preceding pages are known.
+     * <br>
+     * Sections can be laid out this way only in the documents which are neither tagged nor opened with a reader,
+     * and only if the content is flushed immediately. The elements of different sections shall not be shared,
+     * while the fonts, styles and other property values may be shared by the sections, as long as they are not
+     * modified during the layout. Page numbers explicitly set on the elements are counted from the start of the section.
+     * <br>
+     * As with {@link AreaBreakType#NEXT_PAGE}, a section continues on the page following the current one if the page
+     * already exists, e.g. if it was added by an element placed on a fixed page. Such a section is laid out again
+     * in the calling thread, as it was laid out on new pages of the default size.
+     *
+     * @param sections    the sections to be added, each of them being a list of block elements
+     * @param parallelism the maximum number of sections laid out at the same time, including the calling thread
+     */
+    public void addSections(List<? extends List<? extends IBlockElement>> sections, int parallelism) {
+        PdfDocument pdfDocument = document.getPdfDocument();
+        if (!immediateFlush || pdfDocument.isTagged() || pdfDocument.getReader() != null) {
+            throw new IllegalStateException("Concurrent layout of sections is not supported for this document");
+        }
+        List<List<? extends IBlockElement>> nonEmptySections = new ArrayList<>(sections.size());
+        for (List<? extends IBlockElement> section : sections) {
+            if (!section.isEmpty()) {
+                nonEmptySections.add(section);
+            }
+        }
+        if (nonEmptySections.isEmpty()) {
+            return;
+        }
+        // the default values are created lazily, so they're created before they're shared by the sections
+        document.getDefaultProperty(Property.FONT);
+        document.getDefaultProperty(Property.FONT_PROVIDER);
+        document.getDefaultProperty(Property.SPLIT_CHARACTERS);
+        document.getDefaultProperty(Property.GLYPH_LINE_CACHE);
+
+        List<SectionLayoutTask> tasks = new ArrayList<>(nonEmptySections.size() - 1);
+        for (int i = 1; i < nonEmptySections.size(); i++) {
+            SectionRenderer sectionRenderer = new SectionRenderer(document, pdfDocument.getDefaultPageSize());
+            // the sections resolve the properties of the same document
+            sectionRenderer.propertyModificationCount = getPropertyModificationCount();
+            tasks.add(new SectionLayoutTask(sectionRenderer, nonEmptySections.get(i)));
+        }
+        int workersCount = Math.min(parallelism - 1, tasks.size());
+        ForkJoinPool pool = workersCount > 0 ? new ForkJoinPool(workersCount) : null;
+        try {
+            // no more sections than workers are waiting to be drawn, not to keep too many laid out pages in memory
+            for (int i = 0; i < workersCount; i++) {
+                pool.execute(tasks.get(i));
+            }
+            for (IBlockElement element : nonEmptySections.get(0)) {
+                addChild(element.createRendererSubTree());
+            }
+            close();
+            for (int i = 0; i < tasks.size(); i++) {
+                SectionRenderer sectionRenderer = pool != null ? tasks.get(i).join() : tasks.get(i).invoke();
+                tasks.set(i, null);
+                if (pool != null && i + workersCount < tasks.size()) {
+                    pool.execute(tasks.get(i + workersCount));
+                }
+                drawSection(sectionRenderer, nonEmptySections.get(i + 1));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
     }
 
     protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
@@ -131,10 +269,15 @@ public class DocumentRenderer extends RootRenderer {
             ensureDocumentHasNPages(pageNum, null);
             PdfPage correspondingPage = pdfDocument.getPage(pageNum);
 
-            boolean wrapOldContent = pdfDocument.getReader() != null && pdfDocument.getWriter() != null &&
+            boolean oldContentMayExist = pdfDocument.getReader() != null && pdfDocument.getWriter() != null;
+            boolean wrapOldContent = oldContentMayExist &&
                     correspondingPage.getContentStreamCount() > 0 && correspondingPage.getLastContentStream().getLength() > 0 &&
                     !wrappedContentPage.contains(pageNum) && pdfDocument.getNumberOfPages() >= pageNum;
-            wrappedContentPage.add(pageNum);
+            // pages are recorded only when they may have old content, and only once,
+            // otherwise the list grows with every renderer flushed by a large document
+            if (oldContentMayExist && !wrappedContentPage.contains(pageNum)) {
+                wrappedContentPage.add(pageNum);
+            }
 
             if (pdfDocument.isTagged()) {
                 pdfDocument.getTagStructureContext().getAutoTaggingPointer().setPageForTagging(correspondingPage);
@@ -143,7 +286,35 @@ public class DocumentRenderer extends RootRenderer {
         }
     }
 
+    private void drawSection(SectionRenderer sectionRenderer, List<? extends IBlockElement> elements) {
+        PdfDocument pdfDocument = document.getPdfDocument();
+        if (pdfDocument.getNumberOfPages() > currentPageNumber) {
+            addChild(new AreaBreak(AreaBreakType.NEXT_PAGE).createRendererSubTree());
+            for (IBlockElement element : elements) {
+                addChild(element.createRendererSubTree());
+            }
+            close();
+            return;
+        }
+        int previousPageNumber = currentPageNumber;
+        int pageOffset = currentPageNumber;
+        for (PageSize pageSize : sectionRenderer.getPageSizes()) {
+            pdfDocument.addNewPage(pageSize);
+        }
+        sectionRenderer.draw(pageOffset);
+        continueAfter(sectionRenderer, pageOffset);
+        // as in moveToNextPage, the page preceding the current one is not flushed yet
+        for (int i = Math.max(1, previousPageNumber - 1); i < currentPageNumber - 1; i++) {
+            if (!pdfDocument.getPage(i).isFlushed()) {
+                pdfDocument.getPage(i).flush();
+            }
+        }
+    }
+
     protected PageSize addNewPage(PageSize customPageSize) {
+        if (recordedEntry != null) {
+            recordedEntry.addedPages.add(customPageSize);
+        }
         if (customPageSize != null) {
             document.getPdfDocument().addNewPage(customPageSize);
         } else {
@@ -164,7 +335,7 @@ public class DocumentRenderer extends RootRenderer {
         return lastPageSize;
     }
 
-    private Rectangle getCurrentPageEffectiveArea(PageSize pageSize) {
+    Rectangle getCurrentPageEffectiveArea(PageSize pageSize) {
         float leftMargin = (float) getPropertyAsFloat(Property.MARGIN_LEFT);
         float bottomMargin = (float) getPropertyAsFloat(Property.MARGIN_BOTTOM);
         float topMargin = (float) getPropertyAsFloat(Property.MARGIN_TOP);
@@ -175,6 +346,37 @@ public class DocumentRenderer extends RootRenderer {
                 pageSize.getHeight() - bottomMargin - topMargin);
     }
 
+    /**
+     * Drops the previous layout results of the element of the renderer, as the element is laid out once again.
+     * Once all the elements are laid out again, the previous layout results are not referenced anymore.
+     */
+    private void discardPreviousLayoutResults(IRenderer renderer) {
+        if (previousLayoutResultCache != null && renderer != null && renderer.getModelElement() instanceof IElement) {
+            previousLayoutResultCache.remove((IElement) renderer.getModelElement());
+            if (previousLayoutResultCache.isEmpty()) {
+                previousLayoutResultCache = null;
+            }
+        }
+    }
+
+    /**
+     * Adds the renderers resulted from the previous layout of an element, along with the pages added for them,
+     * and continues in the area where the layout of the element ended.
+     */
+    private void addLayoutResults(LayoutResultCache.Entry entry) {
+        for (PageSize pageSize : entry.addedPages) {
+            addNewPage(pageSize);
+        }
+        for (IRenderer resultRenderer : entry.resultRenderers) {
+            childRenderers.add(resultRenderer.setParent(this));
+        }
+        continueIn(entry.endArea, entry.endInitialArea);
+        if (layoutResultCache == null) {
+            layoutResultCache = new LayoutResultCache();
+        }
+        layoutResultCache.add(entry);
+    }
+
     private void moveToNextPage() {
         // We don't flush this page immediately, but only flush previous one because of manipulations with areas in case
         // of keepTogether property.
@@ -183,4 +385,22 @@ public class DocumentRenderer extends RootRenderer {
         }
         currentPageNumber++;
     }
+
+    private static class SectionLayoutTask extends RecursiveTask<SectionRenderer> {
+        private static final long serialVersionUID = -3427650834154582612L;
+
+        private final SectionRenderer sectionRenderer;
+        private final List<? extends IBlockElement> elements;
+
+        SectionLayoutTask(SectionRenderer sectionRenderer, List<? extends IBlockElement> elements) {
+            this.sectionRenderer = sectionRenderer;
+            this.elements = elements;
+        }
+
+        @Override
+        protected SectionRenderer compute() {
+            sectionRenderer.layout(elements);
+            return sectionRenderer;
+        }
+    }
 }
@@ -0,0 +1,250 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.font.FontCharacteristics;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of the glyph lines the {@link TextRenderer}s build from their strings.
+ * Repeated runs of text, e.g. table cells, headers or list symbols, are converted to glyphs and split into
+ * font runs only once. The cache is shared by the renderers of a document, see {@link com.itextpdf.layout.property.Property#GLYPH_LINE_CACHE}.
+ * <p>
+ * Glyph lines are cached before any OpenType features are applied, so the cached value does not depend
+ * on font size, spacing, kerning or script. Renderers always get a copy of the cached glyph line, since they
+ * modify their glyph lines during layout.
+ */
+public class GlyphLineCache {
+
+    private static final int DEFAULT_CAPACITY = 1000;
+    // longer strings are rarely repeated and are not worth keeping in memory
+    private static final int MAX_TEXT_LENGTH = 256;
+
+    // the glyph lines of strings shown with a single font
+    private final Map<Key, GlyphLine> glyphLines;
+    // the font runs of strings shown with the fonts selected by a font provider
+    private final Map<Key, List<FontRun>> fontRuns;
+
+    /**
+     * Creates a cache which keeps up to 1000 converted strings of each kind, i.e. of the strings
+     * shown with a single font and of the ones shown with the fonts selected by a font provider.
+     */
+    public GlyphLineCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache which keeps up to the specified number of converted strings of each kind.
+     *
+     * @param capacity the maximum number of cached strings of each kind
+     */
+    public GlyphLineCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity shall be positive.");
+        }
+        this.glyphLines = new LruMap<>(capacity);
+        this.fontRuns = new LruMap<>(capacity);
+    }
+
+    /**
+     * Gets the number of strings currently cached.
+     *
+     * @return the number of cached strings
+     */
+    public synchronized int size() {
+        return glyphLines.size() + fontRuns.size();
+    }
+
+    /**
+     * Removes all cached glyph lines.
+     */
+    public synchronized void clear() {
+        glyphLines.clear();
+        fontRuns.clear();
+    }
+
+    GlyphLine get(String text, PdfFont font) {
+        if (!isCacheable(text)) {
+            return null;
+        }
+        GlyphLine line;
+        synchronized (this) {
+            line = glyphLines.get(new Key(text, font, null, null, null));
+        }
+        return line == null ? null : copy(line);
+    }
+
+    void put(String text, PdfFont font, GlyphLine line) {
+        if (isCacheable(text)) {
+            GlyphLine copy = copy(line);
+            synchronized (this) {
+                glyphLines.put(new Key(text, font, null, null, null), copy);
+            }
+        }
+    }
+
+    List<FontRun> get(String text, String fontFamily, FontCharacteristics fc, FontProvider provider, FontSet fontSet) {
+        if (!isCacheable(text)) {
+            return null;
+        }
+        List<FontRun> runs;
+        synchronized (this) {
+            runs = fontRuns.get(new Key(text, fontFamily, fc, provider, fontSet));
+        }
+        return runs == null ? null : copy(runs);
+    }
+
+    void put(String text, String fontFamily, FontCharacteristics fc, FontProvider provider, FontSet fontSet, List<FontRun> runs) {
+        if (isCacheable(text)) {
+            List<FontRun> copy = copy(runs);
+            synchronized (this) {
+                fontRuns.put(new Key(text, fontFamily, fc, provider, fontSet), copy);
+            }
+        }
+    }
+
+    private static boolean isCacheable(String text) {
+        return text != null && text.length() <= MAX_TEXT_LENGTH;
+    }
+
+    private static GlyphLine copy(GlyphLine line) {
+        return line.copy(line.start, line.end);
+    }
+
+    private static List<FontRun> copy(List<FontRun> runs) {
+        List<FontRun> copy = new ArrayList<>(runs.size());
+        for (FontRun run : runs) {
+            copy.add(new FontRun(copy(run.line), run.font));
+        }
+        return copy;
+    }
+
+    /**
+     * A part of a string which is rendered with a single font.
+     */
+    static final class FontRun {
+        final GlyphLine line;
+        final PdfFont font;
+
+        FontRun(GlyphLine line, PdfFont font) {
+            this.line = line;
+            this.font = font;
+        }
+    }
+
+    private static final class LruMap<V> extends LinkedHashMap<Key, V> {
+        private static final long serialVersionUID = -3132574968195860394L;
+
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Key {
+        private final String text;
+        // either a PdfFont or a font family string
+        private final Object font;
+        private final FontCharacteristics fc;
+        private final FontProvider provider;
+        private final FontSet fontSet;
+        // fonts may be added to the font sets after the key was created
+        private final int providerFontSetSize;
+        private final int fontSetSize;
+        private final int hash;
+
+        Key(String text, Object font, FontCharacteristics fc, FontProvider provider, FontSet fontSet) {
+            this.text = text;
+            this.font = font;
+            this.fc = fc;
+            this.provider = provider;
+            this.fontSet = fontSet;
+            this.providerFontSetSize = provider != null ? provider.getFontSet().size() : 0;
+            this.fontSetSize = fontSet != null ? fontSet.size() : 0;
+            int result = text.hashCode();
+            result = 31 * result + (font instanceof String ? font.hashCode() : System.identityHashCode(font));
+            result = 31 * result + (fc != null ? fc.hashCode() : 0);
+            result = 31 * result + System.identityHashCode(provider);
+            result = 31 * result + System.identityHashCode(fontSet);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            return hash == that.hash
+                    && provider == that.provider
+                    && fontSet == that.fontSet
+                    && providerFontSetSize == that.providerFontSetSize
+                    && fontSetSize == that.fontSetSize
+                    && (font instanceof String ? font.equals(that.font) : font == that.font)
+                    && (fc != null ? fc.equals(that.fc) : that.fc == null)
+                    && text.equals(that.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
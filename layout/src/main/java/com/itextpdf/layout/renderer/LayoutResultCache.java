@@ -0,0 +1,414 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.IPropertyContainer;
+import com.itextpdf.layout.element.AbstractElement;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.element.ILargeElement;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.RootLayoutArea;
+import com.itextpdf.layout.property.Property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the layout results of the top-level elements of a document which is not flushed immediately,
+ * so that {@link Document#relayout()} can reuse them for the elements which have not been changed and which
+ * start in the same area of a page as before. If the page number of the area has changed, e.g. because a table of
+ * contents has grown by a page, the results are moved to the new pages. The results are kept only if their layout
+ * depends on nothing but the element itself, the properties of the document and the area the element starts in:
+ * there shall be no floats, no elements kept with the next one and no positioned elements involved, and all
+ * the elements and renderers shall be the ones of iText layout.
+ * <p>
+ * The elements are compared with their state at the time of the layout: their children, their own and style
+ * properties, and the texts, images, table headers and footers and area break types. Changes made to the property
+ * values in place, e.g. to a {@link com.itextpdf.layout.property.UnitValue} instance, are not detected.
+ */
+final class LayoutResultCache {
+
+    private static final int MAX_PROPERTY_ID = Property.getMaxPropertyId();
+    private static final int NOT_MATCHING = Integer.MIN_VALUE;
+
+    private final Map<IElement, List<Entry>> entries = new IdentityHashMap<>();
+    private List<Object> lastDocumentState;
+
+    /**
+     * Starts recording the layout of the renderer of a top-level element.
+     *
+     * @return the entry to be completed after the layout, or null if the layout of the renderer cannot be reused
+     */
+    Entry startRecording(IRenderer renderer, Document document, int numberOfPages, RootLayoutArea currentArea, LayoutArea initialArea) {
+        IElement element = (IElement) renderer.getModelElement();
+        List<Object> elementState = captureElementState(element);
+        if (elementState == null) {
+            return null;
+        }
+        List<Object> documentState = captureDocumentState(document);
+        if (!isSameState(documentState, lastDocumentState)) {
+            lastDocumentState = documentState;
+        }
+        return new Entry(element, elementState, lastDocumentState, numberOfPages, currentArea, initialArea);
+    }
+
+    /**
+     * Completes the entry with the results of the layout and keeps it.
+     */
+    void finishRecording(Entry entry, List<IRenderer> resultRenderers, RootLayoutArea currentArea, LayoutArea initialArea) {
+        for (IRenderer renderer : resultRenderers) {
+            if (!hasLayoutClasses(renderer)) {
+                return;
+            }
+        }
+        // the layout may modify the element, e.g. when it cannot keep it together
+        if (!isSameState(entry.elementState, captureElementState(entry.element))) {
+            return;
+        }
+        entry.resultRenderers = new ArrayList<>(resultRenderers);
+        entry.endArea = cloneArea(currentArea);
+        entry.endInitialArea = cloneArea(initialArea);
+        add(entry);
+    }
+
+    /**
+     * Takes the layouts of the element out of the cache and finds the one which started in the same state
+     * of the document, possibly on a page with another number. The layout results are moved to the current page.
+     */
+    Entry take(IElement element, Document document, int numberOfPages, RootLayoutArea currentArea, LayoutArea initialArea) {
+        List<Entry> elementEntries = entries.remove(element);
+        if (elementEntries == null) {
+            return null;
+        }
+        List<Object> documentState = null;
+        List<Object> elementState = null;
+        for (int i = 0; i < elementEntries.size(); i++) {
+            Entry entry = elementEntries.get(i);
+            int pageOffset = getPageOffset(entry, numberOfPages, currentArea, initialArea);
+            if (pageOffset == NOT_MATCHING) {
+                continue;
+            }
+            if (documentState == null) {
+                documentState = captureDocumentState(document);
+                elementState = captureElementState(element);
+            }
+            if (isSameState(entry.documentState, documentState) && isSameState(entry.elementState, elementState)) {
+                return pageOffset == 0 ? entry : entry.move(pageOffset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the renderer, which is about to be laid out, and its descendants are the iText layout renderers
+     * created from their elements and not modified since then, e.g. they are not the renderers set with
+     * {@link IElement#setNextRenderer(IRenderer)} and laid out before, so that their layout depends on the elements
+     * only.
+     */
+    static boolean isCreatedFromElement(IRenderer renderer) {
+        if (!isLayoutClass(renderer.getClass(), AbstractRenderer.class) || !(renderer.getModelElement() instanceof IElement)) {
+            return false;
+        }
+        AbstractRenderer abstractRenderer = (AbstractRenderer) renderer;
+        if (abstractRenderer.occupiedArea != null) {
+            return false;
+        }
+        if (renderer instanceof TextRenderer) {
+            TextRenderer textRenderer = (TextRenderer) renderer;
+            if (textRenderer.text != null || textRenderer.line != null
+                    || !((Text) renderer.getModelElement()).getText().equals(textRenderer.strToBeConverted)) {
+                return false;
+            }
+        } else if (renderer instanceof TableRenderer) {
+            for (CellRenderer[] row : ((TableRenderer) renderer).rows) {
+                for (CellRenderer cell : row) {
+                    if (cell != null && !isCreatedFromElement(cell)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (IRenderer child : abstractRenderer.childRenderers) {
+            if (!isCreatedFromElement(child)) {
+                return false;
+            }
+        }
+        for (IRenderer child : abstractRenderer.positionedRenderers) {
+            if (!isCreatedFromElement(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void remove(IElement element) {
+        entries.remove(element);
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    void add(Entry entry) {
+        List<Entry> elementEntries = entries.get(entry.element);
+        if (elementEntries == null) {
+            elementEntries = new ArrayList<>(1);
+            entries.put(entry.element, elementEntries);
+        }
+        elementEntries.add(entry);
+    }
+
+    private static List<Object> captureDocumentState(Document document) {
+        List<Object> state = new ArrayList<>();
+        state.add(document.getPdfDocument().getDefaultPageSize());
+        captureProperties(document, state);
+        return state;
+    }
+
+    /**
+     * Captures the state of the element and its descendants.
+     *
+     * @return the state, or null if the element is not one of iText layout elements, which state is known
+     */
+    private static List<Object> captureElementState(IElement element) {
+        List<Object> state = new ArrayList<>();
+        return captureElementState(element, state) ? state : null;
+    }
+
+    private static boolean captureElementState(IElement element, List<Object> state) {
+        if (!isLayoutClass(element.getClass(), AbstractElement.class)
+                || element instanceof ILargeElement && !((ILargeElement) element).isComplete()) {
+            return false;
+        }
+        // the results are not reused for the elements placed on the specific pages,
+        // since they may be moved to other pages
+        if (element.hasProperty(Property.PAGE_NUMBER)) {
+            return false;
+        }
+        state.add(element);
+        captureProperties(element, state);
+        if (element instanceof Text) {
+            state.add(((Text) element).getText());
+        } else if (element instanceof Image) {
+            state.add(((Image) element).getXObject());
+        } else if (element instanceof AreaBreak) {
+            state.add(((AreaBreak) element).getType());
+            state.add(((AreaBreak) element).getPageSize());
+        } else if (element instanceof Table) {
+            Table table = (Table) element;
+            for (int i = 0; i < table.getNumberOfColumns(); i++) {
+                state.add(table.getColumnWidth(i));
+            }
+            for (Table headerOrFooter : new Table[] {table.getHeader(), table.getFooter()}) {
+                state.add(headerOrFooter);
+                if (headerOrFooter != null && !captureElementState(headerOrFooter, state)) {
+                    return false;
+                }
+            }
+        }
+        if (element instanceof AbstractElement) {
+            List<IElement> children = ((AbstractElement<?>) element).getChildren();
+            state.add(children.size());
+            for (IElement child : children) {
+                if (!captureElementState(child, state)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void captureProperties(IPropertyContainer container, List<Object> state) {
+        for (int property = 0; property <= MAX_PROPERTY_ID; property++) {
+            Object value = container.<Object>getProperty(property);
+            if (value != null || container.hasProperty(property)) {
+                state.add(property);
+                state.add(value);
+            }
+        }
+    }
+
+    /**
+     * Compares the captured states. The objects are compared by identity, unless they are strings, numbers or booleans.
+     */
+    private static boolean isSameState(List<Object> state, List<Object> other) {
+        if (state == null || other == null || state.size() != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < state.size(); i++) {
+            Object value = state.get(i);
+            Object otherValue = other.get(i);
+            if (value != otherValue && !((value instanceof String || value instanceof Number || value instanceof Boolean)
+                    && value.equals(otherValue))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasLayoutClasses(IRenderer renderer) {
+        if (!isLayoutClass(renderer.getClass(), AbstractRenderer.class)) {
+            return false;
+        }
+        for (IRenderer child : renderer.getChildRenderers()) {
+            if (!hasLayoutClasses(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLayoutClass(Class<?> cls, Class<?> layoutClass) {
+        String name = cls.getName();
+        String layoutName = layoutClass.getName();
+        int packageLength = layoutName.lastIndexOf('.') + 1;
+        return name.length() > packageLength && name.regionMatches(0, layoutName, 0, packageLength)
+                && name.indexOf('.', packageLength) < 0 && name.indexOf('$', packageLength) < 0;
+    }
+
+    /**
+     * Gets the difference between the number of the current page and the one the layout of the entry started on,
+     * if the layout started in the same area of the page and with the same number of pages following it.
+     */
+    private static int getPageOffset(Entry entry, int numberOfPages, RootLayoutArea currentArea, LayoutArea initialArea) {
+        if (entry.startArea == null || currentArea == null) {
+            return entry.startArea == currentArea && entry.numberOfPages == numberOfPages ? 0 : NOT_MATCHING;
+        }
+        int pageOffset = currentArea.getPageNumber() - entry.startArea.getPageNumber();
+        boolean matching = entry.numberOfPages + pageOffset == numberOfPages
+                && entry.startArea.isEmptyArea() == currentArea.isEmptyArea()
+                && isSameBox(entry.startArea.getBBox(), currentArea.getBBox())
+                && initialArea != null && entry.startInitialArea != null
+                && entry.startInitialArea.getPageNumber() + pageOffset == initialArea.getPageNumber()
+                && isSameBox(entry.startInitialArea.getBBox(), initialArea.getBBox());
+        return matching ? pageOffset : NOT_MATCHING;
+    }
+
+    private static boolean isSameBox(Rectangle bBox, Rectangle other) {
+        return bBox.getX() == other.getX() && bBox.getY() == other.getY()
+                && bBox.getWidth() == other.getWidth() && bBox.getHeight() == other.getHeight();
+    }
+
+    private static RootLayoutArea moveArea(RootLayoutArea area, int pageOffset) {
+        return (RootLayoutArea) moveArea((LayoutArea) area, pageOffset);
+    }
+
+    private static LayoutArea moveArea(LayoutArea area, int pageOffset) {
+        if (area == null) {
+            return null;
+        }
+        LayoutArea moved;
+        if (area instanceof RootLayoutArea) {
+            moved = new RootLayoutArea(area.getPageNumber() + pageOffset, area.getBBox().clone());
+            ((RootLayoutArea) moved).setEmptyArea(((RootLayoutArea) area).isEmptyArea());
+        } else {
+            moved = new LayoutArea(area.getPageNumber() + pageOffset, area.getBBox().clone());
+        }
+        return moved;
+    }
+
+    private static RootLayoutArea cloneArea(RootLayoutArea area) {
+        return (RootLayoutArea) cloneArea((LayoutArea) area);
+    }
+
+    private static LayoutArea cloneArea(LayoutArea area) {
+        return area != null ? area.clone() : null;
+    }
+
+    /**
+     * The layout of a top-level element: the state of the document it started in, the pages added
+     * while it was laid out, the renderers it resulted in and the area where the next element starts.
+     */
+    static final class Entry {
+        final IElement element;
+        final List<Object> elementState;
+        final List<Object> documentState;
+        final int numberOfPages;
+        final RootLayoutArea startArea;
+        final LayoutArea startInitialArea;
+        // null stands for a page of the default size
+        final List<PageSize> addedPages = new ArrayList<>();
+        List<IRenderer> resultRenderers;
+        RootLayoutArea endArea;
+        LayoutArea endInitialArea;
+
+        Entry(IElement element, List<Object> elementState, List<Object> documentState, int numberOfPages,
+                RootLayoutArea startArea, LayoutArea startInitialArea) {
+            this.element = element;
+            this.elementState = elementState;
+            this.documentState = documentState;
+            this.numberOfPages = numberOfPages;
+            this.startArea = cloneArea(startArea);
+            this.startInitialArea = cloneArea(startInitialArea);
+        }
+
+        /**
+         * Moves the layout results to the pages with the numbers greater by the given offset.
+         */
+        Entry move(int pageOffset) {
+            Entry moved = new Entry(element, elementState, documentState, numberOfPages + pageOffset,
+                    moveArea(startArea, pageOffset), moveArea(startInitialArea, pageOffset));
+            moved.addedPages.addAll(addedPages);
+            Set<IRenderer> visited = Collections.newSetFromMap(new IdentityHashMap<IRenderer, Boolean>());
+            for (IRenderer renderer : resultRenderers) {
+                RootRenderer.movePageNumbers(renderer, pageOffset, visited);
+            }
+            moved.resultRenderers = resultRenderers;
+            moved.endArea = moveArea(endArea, pageOffset);
+            moved.endInitialArea = moveArea(endInitialArea, pageOffset);
+            return moved;
+        }
+    }
+}
@@ -62,6 +62,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public abstract class RootRenderer extends AbstractRenderer {
 
@@ -347,6 +348,79 @@ public abstract class RootRenderer extends AbstractRenderer {
         return currentArea;
     }
 
+    /**
+     * Continues the layout right after the content of the given closed root renderer, whose pages
+     * have been placed after the page with the given number.
+     */
+    void continueAfter(RootRenderer closedRenderer, int pageOffset) {
+        if (closedRenderer.currentArea == null) {
+            return;
+        }
+        currentPageNumber = closedRenderer.currentPageNumber + pageOffset;
+        currentArea = new RootLayoutArea(currentPageNumber, closedRenderer.currentArea.getBBox().clone());
+        currentArea.setEmptyArea(closedRenderer.currentArea.isEmptyArea());
+        initialCurrentArea = new LayoutArea(currentPageNumber, closedRenderer.initialCurrentArea.getBBox().clone());
+        floatRendererAreas = closedRenderer.floatRendererAreas;
+        floatOverflowedCompletely = false;
+        if (Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS))) {
+            marginsCollapseHandler = new MarginsCollapseHandler(this, null);
+        }
+    }
+
+    /**
+     * Checks whether the layout of the next child depends on nothing but the current area, i.e. there are
+     * no floats, no renderers waiting for the next area and no renderer kept with the next one.
+     */
+    boolean isLayoutStateOnlyInCurrentArea() {
+        return keepWithNextHangingRenderer == null && waitingNextPageRenderers.isEmpty() && !floatOverflowedCompletely
+                && (floatRendererAreas == null || floatRendererAreas.isEmpty()) && waitingDrawingElements.isEmpty()
+                && !Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS));
+    }
+
+    LayoutArea getInitialCurrentArea() {
+        return initialCurrentArea;
+    }
+
+    /**
+     * Continues the layout in the given area, as if the previous child had been laid out up to it.
+     */
+    void continueIn(RootLayoutArea area, LayoutArea initialArea) {
+        currentArea = (RootLayoutArea) area.clone();
+        currentPageNumber = area.getPageNumber();
+        initialCurrentArea = initialArea.clone();
+        floatRendererAreas = new ArrayList<>();
+    }
+
+    /**
+     * Moves the renderer and its descendants to the pages with the numbers greater by the given offset.
+     */
+    static void movePageNumbers(IRenderer renderer, int pageOffset, Set<IRenderer> visited) {
+        if (!(renderer instanceof AbstractRenderer) || !visited.add(renderer)) {
+            return;
+        }
+        AbstractRenderer abstractRenderer = (AbstractRenderer) renderer;
+        if (abstractRenderer.occupiedArea != null) {
+            abstractRenderer.occupiedArea = new LayoutArea(abstractRenderer.occupiedArea.getPageNumber() + pageOffset,
+                    abstractRenderer.occupiedArea.getBBox());
+        }
+        for (IRenderer child : abstractRenderer.childRenderers) {
+            movePageNumbers(child, pageOffset, visited);
+        }
+        for (IRenderer child : abstractRenderer.positionedRenderers) {
+            movePageNumbers(child, pageOffset, visited);
+        }
+        if (renderer instanceof ParagraphRenderer && ((ParagraphRenderer) renderer).lines != null) {
+            for (IRenderer line : ((ParagraphRenderer) renderer).lines) {
+                movePageNumbers(line, pageOffset, visited);
+            }
+        } else if (renderer instanceof ListItemRenderer) {
+            movePageNumbers(((ListItemRenderer) renderer).symbolRenderer, pageOffset, visited);
+        } else if (renderer instanceof TableRenderer) {
+            movePageNumbers(((TableRenderer) renderer).headerRenderer, pageOffset, visited);
+            movePageNumbers(((TableRenderer) renderer).footerRenderer, pageOffset, visited);
+        }
+    }
+
     protected abstract void flushSingleRenderer(IRenderer resultRenderer);
 
     protected abstract LayoutArea updateCurrentArea(LayoutResult overflowResult);
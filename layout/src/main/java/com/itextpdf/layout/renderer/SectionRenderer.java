@@ -0,0 +1,156 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.IBlockElement;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.layout.RootLayoutArea;
+import com.itextpdf.layout.property.AreaBreakType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lays out a section of a document on its own range of pages without touching the {@link com.itextpdf.kernel.pdf.PdfDocument},
+ * so that several sections can be laid out at the same time. The pages are numbered starting from 1,
+ * and the renderers to be drawn are kept until {@link #draw(int)} is called with the number of pages preceding the section.
+ */
+class SectionRenderer extends DocumentRenderer {
+
+    private final PageSize defaultPageSize;
+    private final List<PageSize> pageSizes = new ArrayList<>();
+    // null stands for flushing of the waiting drawing elements
+    private final List<IRenderer> flushedRenderers = new ArrayList<>();
+    private boolean drawing = false;
+
+    SectionRenderer(Document document, PageSize defaultPageSize) {
+        super(document, true);
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    /**
+     * Lays out the elements of the section and closes it.
+     *
+     * @param elements the elements of the section
+     */
+    void layout(List<? extends IBlockElement> elements) {
+        for (IBlockElement element : elements) {
+            addChild(element.createRendererSubTree());
+        }
+        close();
+    }
+
+    /**
+     * Gets the sizes of the pages occupied by the section.
+     *
+     * @return the list of page sizes
+     */
+    List<PageSize> getPageSizes() {
+        return pageSizes;
+    }
+
+    /**
+     * Draws the laid out section on the pages of the document, which shall already exist.
+     *
+     * @param pageOffset the number of pages preceding the section
+     */
+    void draw(int pageOffset) {
+        Set<IRenderer> visited = Collections.newSetFromMap(new IdentityHashMap<IRenderer, Boolean>());
+        for (IRenderer renderer : flushedRenderers) {
+            if (renderer != null) {
+                movePageNumbers(renderer, pageOffset, visited);
+            }
+        }
+        drawing = true;
+        for (IRenderer renderer : flushedRenderers) {
+            if (renderer != null) {
+                flushSingleRenderer(renderer);
+            } else {
+                flushWaitingDrawingElements();
+            }
+        }
+        flushedRenderers.clear();
+    }
+
+    @Override
+    protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
+        flushWaitingDrawingElements();
+        AreaBreak areaBreak = overflowResult != null && overflowResult.getAreaBreak() != null ? overflowResult.getAreaBreak() : null;
+        if (areaBreak != null && areaBreak.getType() == AreaBreakType.LAST_PAGE) {
+            currentPageNumber = Math.max(currentPageNumber, pageSizes.size());
+        } else {
+            currentPageNumber++;
+        }
+        PageSize customPageSize = areaBreak != null ? areaBreak.getPageSize() : null;
+        while (pageSizes.size() < currentPageNumber) {
+            pageSizes.add(customPageSize != null ? customPageSize : defaultPageSize);
+        }
+        return (currentArea = new RootLayoutArea(currentPageNumber, getCurrentPageEffectiveArea(pageSizes.get(currentPageNumber - 1))));
+    }
+
+    @Override
+    protected void flushSingleRenderer(IRenderer resultRenderer) {
+        if (drawing) {
+            super.flushSingleRenderer(resultRenderer);
+        } else {
+            flushedRenderers.add(resultRenderer);
+        }
+    }
+
+    @Override
+    protected void flushWaitingDrawingElements() {
+        if (drawing) {
+            super.flushWaitingDrawingElements();
+        } else {
+            flushedRenderers.add(null);
+        }
+    }
+}
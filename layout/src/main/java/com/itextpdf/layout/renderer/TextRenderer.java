@@ -1213,19 +1213,30 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 throw new IllegalStateException("Invalid font type. FontProvider and FontSet are empty. Cannot resolve font with string value.");
             }
             FontCharacteristics fc = createFontCharacteristics();
-            FontSelectorStrategy strategy = provider.getStrategy(strToBeConverted,
-                    FontFamilySplitter.splitFontFamily((String) font), fc, fontSet);
             // process empty renderers because they can have borders or paddings with background to be drawn
             if (null == strToBeConverted || strToBeConverted.isEmpty()) {
                 addTo.add(this);
-            } else {
+                return true;
+            }
+            GlyphLineCache cache = this.<GlyphLineCache>getProperty(Property.GLYPH_LINE_CACHE);
+            List<GlyphLineCache.FontRun> runs = cache != null
+                    ? cache.get(strToBeConverted, (String) font, fc, provider, fontSet) : null;
+            if (runs == null) {
+                runs = new ArrayList<>();
+                FontSelectorStrategy strategy = provider.getStrategy(strToBeConverted,
+                        FontFamilySplitter.splitFontFamily((String) font), fc, fontSet);
                 while (!strategy.endOfText()) {
                     GlyphLine nextGlyphs = new GlyphLine(strategy.nextGlyphs());
                     PdfFont currentFont = strategy.getCurrentFont();
-                    TextRenderer textRenderer = createCopy(replaceSpecialWhitespaceGlyphs(nextGlyphs, currentFont), currentFont);
-                    addTo.add(textRenderer);
+                    runs.add(new GlyphLineCache.FontRun(replaceSpecialWhitespaceGlyphs(nextGlyphs, currentFont), currentFont));
+                }
+                if (cache != null) {
+                    cache.put(strToBeConverted, (String) font, fc, provider, fontSet, runs);
                 }
             }
+            for (GlyphLineCache.FontRun run : runs) {
+                addTo.add(createCopy(run.line, run.font));
+            }
             return true;
         } else {
             throw new IllegalStateException("Invalid font type.");
@@ -1369,7 +1380,14 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                     logger.error(LogMessageConstant.FONT_PROPERTY_MUST_BE_PDF_FONT_OBJECT);
                 }
             }
-            text = convertToGlyphLine(strToBeConverted);
+            GlyphLineCache cache = this.<GlyphLineCache>getProperty(Property.GLYPH_LINE_CACHE);
+            text = cache != null ? cache.get(strToBeConverted, font) : null;
+            if (text == null) {
+                text = convertToGlyphLine(strToBeConverted);
+                if (cache != null) {
+                    cache.put(strToBeConverted, font, text);
+                }
+            }
             otfFeaturesApplied = false;
             strToBeConverted = null;
         }
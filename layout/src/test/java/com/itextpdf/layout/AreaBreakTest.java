@@ -50,6 +50,7 @@ import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.property.AreaBreakType;
@@ -63,6 +64,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -259,6 +261,67 @@ public class AreaBreakTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void concurrentSectionsLayoutTest01() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "concurrentSectionsLayoutTest01.pdf";
+        String cmpFileName = destinationFolder + "sequentialSectionsLayoutTest01.pdf";
+
+        addSections(outFileName, 4);
+        addSections(cmpFileName, 1);
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void concurrentSectionsLayoutTest02() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "concurrentSectionsLayoutTest02.pdf";
+        String cmpFileName = destinationFolder + "sequentialSectionsLayoutTest02.pdf";
+
+        addSectionsAfterFixedPage(outFileName, 4);
+        addSectionsAfterFixedPage(cmpFileName, 1);
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    private static void addSectionsAfterFixedPage(String outFileName, int parallelism) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        Document document = new Document(pdfDocument);
+
+        List<List<IBlockElement>> sections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<IBlockElement> section = new ArrayList<>();
+            section.add(new Paragraph("Chapter " + (i + 1)).setFontSize(20));
+            section.add(new Paragraph("Paragraph of chapter " + (i + 1)));
+            sections.add(section);
+        }
+        // the pages up to the third one exist once the first section is added, so the second section continues on them
+        sections.get(0).add(new Paragraph("Note").setFixedPosition(3, 36, 36, 200));
+        document.addSections(sections, parallelism);
+        Assert.assertEquals(3, pdfDocument.getNumberOfPages());
+
+        document.close();
+    }
+
+    private static void addSections(String outFileName, int parallelism) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        Document document = new Document(pdfDocument);
+        document.add(new Paragraph("Preface"));
+
+        List<List<IBlockElement>> sections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            List<IBlockElement> section = new ArrayList<>();
+            section.add(new Paragraph("Chapter " + (i + 1)).setFontSize(20));
+            for (int j = 0; j < 20 * (i + 1); j++) {
+                section.add(new Paragraph("Paragraph " + (j + 1) + " of chapter " + (i + 1)));
+            }
+            sections.add(section);
+        }
+        document.addSections(sections, parallelism);
+        document.add(new Paragraph("Afterword"));
+
+        document.close();
+    }
+
     private static class DivRendererWithAreas extends DivRenderer {
 
         public DivRendererWithAreas(Div modelElement) {
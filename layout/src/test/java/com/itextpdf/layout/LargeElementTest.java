@@ -1087,4 +1087,30 @@ public class LargeElementTest extends ExtendedITextTest {
 
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
+
+    @Test
+    public void largeTableFlushedRowsAreDiscardedTest() throws IOException {
+        String testName = "largeTableFlushedRowsAreDiscardedTest.pdf";
+        String outFileName = destinationFolder + testName;
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(3), true);
+        doc.add(table);
+        for (int i = 0; i < 27; i++) {
+            table.addCell("Cell " + i);
+        }
+        Cell pendingCell = new Cell().add(new Paragraph("Pending cell"));
+        table.addCell(pendingCell);
+        table.addCell("Pending cell");
+        table.flush();
+
+        // the rows 0-8 are laid out and discarded, while the row 9 is not complete yet
+        Assert.assertNull(table.getCell(8, 0));
+        Assert.assertEquals(pendingCell, table.getCell(9, 0));
+
+        table.addCell("Pending cell");
+        table.complete();
+        doc.close();
+    }
 }
@@ -49,7 +49,9 @@ import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.property.Property;
@@ -183,6 +185,63 @@ public class PreLayoutTest extends ExtendedITextTest{
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void relayoutReusesUnchangedLayoutResultsTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "relayoutReusesUnchangedLayoutResultsTest.pdf";
+        String cmpFileName = destinationFolder + "cmp_relayoutReusesUnchangedLayoutResultsTest.pdf";
+
+        Document document = new Document(new PdfDocument(new PdfWriter(outFileName)), PageSize.A5, false);
+        Text contents = new Text("Contents");
+        Text reference = new Text("see page ?");
+        addContentWithTableOfContents(document, contents, reference);
+
+        IRenderer firstChapterRenderer = null;
+        for (IRenderer renderer : document.getRenderer().getChildRenderers()) {
+            if (renderer.getOccupiedArea().getPageNumber() == 2) {
+                firstChapterRenderer = renderer;
+                break;
+            }
+        }
+        Assert.assertNotNull(firstChapterRenderer);
+
+        // the table of contents grows by a page, while the chapters keep their layout on the following pages
+        StringBuilder contentsText = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            contentsText.append("Chapter ").append(i).append(" .......... ").append(i + 3).append('\n');
+        }
+        contents.setText(contentsText.toString());
+        reference.setText("see page 7");
+        document.relayout();
+
+        Assert.assertTrue(document.getRenderer().getChildRenderers().contains(firstChapterRenderer));
+        Assert.assertEquals(3, firstChapterRenderer.getOccupiedArea().getPageNumber());
+        document.close();
+
+        Document cmpDocument = new Document(new PdfDocument(new PdfWriter(cmpFileName)), PageSize.A5, false);
+        addContentWithTableOfContents(cmpDocument, new Text(contentsText.toString()), new Text("see page 7"));
+        cmpDocument.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    private static void addContentWithTableOfContents(Document document, Text contents, Text reference) {
+        document.add(new Paragraph(contents));
+        document.add(new AreaBreak());
+        for (int i = 0; i < 40; i++) {
+            document.add(new Paragraph("Chapter " + i).setFontSize(16));
+            Paragraph paragraph = new Paragraph("This is just junk text. This is just junk text. This is just junk text. ");
+            if (i == 20) {
+                paragraph.add(reference);
+            }
+            document.add(paragraph);
+            Table table = new Table(2);
+            for (int j = 0; j < 6; j++) {
+                table.addCell("Cell " + j);
+            }
+            document.add(table);
+        }
+    }
+
     static class TwoColumnParagraphRenderer extends ParagraphRenderer {
 
         int oneColumnPage = -1;
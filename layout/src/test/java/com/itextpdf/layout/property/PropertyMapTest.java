@@ -0,0 +1,167 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.renderer.DivRenderer;
+import com.itextpdf.layout.renderer.ParagraphRenderer;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Category(UnitTest.class)
+public class PropertyMapTest extends ExtendedITextTest {
+
+    @Test
+    public void mapOperationsTest() {
+        PropertyMap map = new PropertyMap();
+        map.put(Property.FONT_SIZE, UnitValue.createPointValue(10));
+        map.put(Property.BORDER, null);
+        map.put(1000, "custom");
+        map.put(-1, "negative");
+
+        Assert.assertEquals(4, map.size());
+        Assert.assertEquals(UnitValue.createPointValue(10), map.get(Property.FONT_SIZE));
+        Assert.assertNull(map.get(Property.BORDER));
+        Assert.assertTrue(map.containsKey(Property.BORDER));
+        Assert.assertFalse(map.containsKey(Property.BACKGROUND));
+        Assert.assertEquals("custom", map.get(1000));
+        Assert.assertEquals("negative", map.get(-1));
+
+        Map<Integer, Object> expected = new HashMap<>();
+        expected.put(Property.FONT_SIZE, UnitValue.createPointValue(10));
+        expected.put(Property.BORDER, null);
+        expected.put(1000, "custom");
+        expected.put(-1, "negative");
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected, new PropertyMap(map));
+
+        for (Iterator<Map.Entry<Integer, Object>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getKey() != Property.FONT_SIZE) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(1, map.size());
+        Assert.assertFalse(map.containsKey(Property.BORDER));
+        Assert.assertNull(map.remove(1000));
+        Assert.assertEquals(UnitValue.createPointValue(10), map.remove(Property.FONT_SIZE));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void inheritedPropertyCacheTest() {
+        Div div = new Div();
+        DivRenderer divRenderer = new DivRenderer(div);
+        ParagraphRenderer paragraphRenderer = new ParagraphRenderer(new Paragraph());
+        paragraphRenderer.setParent(divRenderer);
+
+        div.setFontSize(10);
+        Assert.assertEquals(UnitValue.createPointValue(10), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        divRenderer.setProperty(Property.FONT_SIZE, UnitValue.createPointValue(12));
+        Assert.assertEquals(UnitValue.createPointValue(12), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        divRenderer.deleteOwnProperty(Property.FONT_SIZE);
+        Assert.assertEquals(UnitValue.createPointValue(10), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        div.deleteOwnProperty(Property.FONT_SIZE);
+        Assert.assertNull(paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        Style style = new Style().setFontSize(14);
+        div.addStyle(style);
+        Assert.assertEquals(UnitValue.createPointValue(14), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        style.setFontSize(16);
+        Assert.assertEquals(UnitValue.createPointValue(16), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        DivRenderer otherParent = new DivRenderer(new Div().setFontSize(18));
+        paragraphRenderer.setParent(otherParent);
+        Assert.assertEquals(UnitValue.createPointValue(18), paragraphRenderer.<UnitValue>getProperty(Property.FONT_SIZE));
+    }
+
+    @Test
+    public void modificationCountTest() {
+        AtomicLong firstCount = new AtomicLong();
+        AtomicLong secondCount = new AtomicLong();
+        PropertyMap map = new PropertyMap();
+        map.put(Property.FONT_SIZE, UnitValue.createPointValue(10));
+        Assert.assertFalse(map.isTracked());
+
+        map.trackModifications(firstCount);
+        map.put(Property.FONT_SIZE, UnitValue.createPointValue(12));
+        map.put(Property.WIDTH, UnitValue.createPointValue(100));
+        Assert.assertEquals(1, firstCount.get());
+
+        map.trackModifications(secondCount);
+        Assert.assertEquals(2, firstCount.get());
+        map.remove(Property.FONT_SIZE);
+        Assert.assertEquals(2, firstCount.get());
+        Assert.assertEquals(1, secondCount.get());
+    }
+
+    @Test
+    public void styleSharedByRendererTreesTest() {
+        Style style = new Style().setFontSize(10);
+        ParagraphRenderer first = new ParagraphRenderer(new Paragraph());
+        first.setParent(new DivRenderer(new Div().addStyle(style)));
+        ParagraphRenderer second = new ParagraphRenderer(new Paragraph());
+        second.setParent(new DivRenderer(new Div().addStyle(style)));
+
+        Assert.assertEquals(UnitValue.createPointValue(10), first.<UnitValue>getProperty(Property.FONT_SIZE));
+        Assert.assertEquals(UnitValue.createPointValue(10), second.<UnitValue>getProperty(Property.FONT_SIZE));
+
+        style.setFontSize(12);
+        Assert.assertEquals(UnitValue.createPointValue(12), first.<UnitValue>getProperty(Property.FONT_SIZE));
+        Assert.assertEquals(UnitValue.createPointValue(12), second.<UnitValue>getProperty(Property.FONT_SIZE));
+    }
+}
@@ -78,6 +78,7 @@ public class PropertyTest extends ExtendedITextTest {
             }
         }
 
+        Assert.assertEquals(maxFieldValue, Property.getMaxPropertyId());
         System.out.println(MessageFormatUtil.format("Max field value: {0}", maxFieldValue));
     }
 
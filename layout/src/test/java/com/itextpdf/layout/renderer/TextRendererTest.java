@@ -130,4 +130,31 @@ public class TextRendererTest extends ExtendedITextTest {
         doc.add(new Paragraph().add(txt));
         doc.close();
     }
+
+    @Test
+    public void glyphLineCacheTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        GlyphLineCache cache = new GlyphLineCache();
+        doc.setProperty(Property.GLYPH_LINE_CACHE, cache);
+        RootRenderer documentRenderer = doc.getRenderer();
+
+        TextRenderer textRenderer1 = (TextRenderer) new Text("hello").getRenderer().setParent(documentRenderer);
+        TextRenderer textRenderer2 = (TextRenderer) new Text("hello").getRenderer().setParent(documentRenderer);
+
+        LayoutArea area = new LayoutArea(1, new Rectangle(100, 100, 100, 100));
+        LayoutContext layoutContext = new LayoutContext(area);
+
+        LayoutResult result1 = textRenderer1.layout(layoutContext);
+        Assert.assertEquals(1, cache.size());
+        // the renderers modify their glyph lines, so the cached one shall not be shared
+        textRenderer1.getText().set(0, textRenderer1.getText().get(1));
+        LayoutResult result2 = textRenderer2.layout(layoutContext);
+        Assert.assertEquals(1, cache.size());
+
+        Assert.assertEquals("hello", textRenderer2.getText().toString());
+        Assert.assertEquals(result1.getOccupiedArea(), result2.getOccupiedArea());
+        doc.close();
+    }
 }